@@ -0,0 +1,64 @@
+package pacman.com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Pengecekan tabrakan per frame di GameWorld (dulu di Main) dan pembuatan dot. Dengan {@code swarm} > 0,
+ * biaya findContacts seharusnya tetap kecil karena hanya sel SpatialHash di sekitar Pacman yang diperiksa.
+ */
+@State(Scope.Thread)
+public class CollisionBenchmark {
+    @Param({"0", "10000"})
+    public int swarm;
+
+    private GameWorld world;
+
+    @Setup
+    public void setup() {
+        world = new GameWorld(new GameConfig().setSwarmSize(swarm), 1);
+        world.step(0f, new InputFrame().setStartPressed(true)); // MENU -> PLAYING
+        for (int i = 0; i < 5; i++) {
+            world.spawnRandomPowerUp(); // Maksimal 5 power-up aktif
+        }
+        // Pacman di pojok kiri atas: tidak menyentuh hantu, dot di sekitarnya habis setelah operasi pertama,
+        // sehingga yang terukur adalah biaya memindai semua dot/power-up/hantu setiap frame.
+        float tileSize = world.getMaze().getTileSize();
+        world.getPacman().getPosition().set(tileSize + 5, world.getMaze().getHeight() - 2 * tileSize + 5);
+    }
+
+    @Benchmark
+    public GameWorld checkDotCollisions() {
+        world.checkDotCollisions();
+        return world;
+    }
+
+    @Benchmark
+    public GameWorld findContacts() {
+        world.findContacts();
+        return world;
+    }
+
+    @Benchmark
+    public GameWorld checkPowerUpCollisions() {
+        world.findContacts();
+        world.checkPowerUpCollisions();
+        return world;
+    }
+
+    @Benchmark
+    public GameWorld checkGhostCollisions() {
+        world.findContacts();
+        world.checkGhostCollisions();
+        return world;
+    }
+
+    @Benchmark
+    public GameWorld initializeDots() {
+        world.initializeDots();
+        return world;
+    }
+}
@@ -0,0 +1,37 @@
+package pacman.com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Satu tick penuh GameWorld.step saat bermain; gc.alloc.rate.norm seharusnya ~0 B/op. */
+@State(Scope.Thread)
+public class GameTickBenchmark {
+    private static final float DELTA = 1f / FixedTimestep.DEFAULT_HZ;
+
+    private GameWorld world;
+    private final InputFrame input = new InputFrame();
+    private int tick;
+
+    @Setup
+    public void setup() {
+        world = new GameWorld();
+        world.step(0f, input.clear().setStartPressed(true));
+    }
+
+    @Benchmark
+    public GameWorld step() {
+        input.clear();
+        GameState state = world.getState();
+        if (state == GameState.GAME_OVER || state == GameState.GAME_WON) {
+            input.setRestartPressed(true);
+        } else if (state == GameState.MENU) {
+            input.setStartPressed(true);
+        } else if (tick++ % 45 == 0) {
+            input.setDirection((tick / 45) % 2 == 0 ? 1 : -1, 0);
+        }
+        world.step(DELTA, input);
+        return world;
+    }
+}
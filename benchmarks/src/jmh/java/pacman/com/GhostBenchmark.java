@@ -0,0 +1,49 @@
+package pacman.com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Satu Ghost.update per operasi pada tiap mode AI. */
+@State(Scope.Thread)
+public class GhostBenchmark {
+    private static final float DELTA = 1f / FixedTimestep.DEFAULT_HZ;
+
+    @Param({"CHASE", "PATROL", "SCARED"})
+    public String mode;
+
+    private GameWorld world;
+    private Ghost ghost;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = new GameWorld();
+        ghost = world.getGhosts().first();
+        placePacman();
+    }
+
+    private void placePacman() {
+        float tileSize = world.getMaze().getTileSize();
+        if ("PATROL".equals(mode)) {
+            // Pojok kiri bawah, jauh di luar jangkauan deteksi hantu mana pun
+            world.getPacman().getPosition().set(tileSize + 5, tileSize + 5);
+        } else {
+            // Tepat di bawah kandang, selalu di dalam jangkauan deteksi
+            world.getPacman().getPosition().set(9 * tileSize + 5, 5 * tileSize + 5);
+        }
+        Pacman pacman = world.getPacman();
+        world.getNavigation().setTarget(pacman.getCenter().x, pacman.getCenter().y);
+    }
+
+    @Benchmark
+    public Ghost update() {
+        if ("SCARED".equals(mode) && !ghost.isScared()) {
+            ghost.setScared(true);
+        }
+        ghost.update(DELTA);
+        return ghost;
+    }
+}
@@ -0,0 +1,61 @@
+package pacman.com;
+
+import com.badlogic.gdx.math.Rectangle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Query dinding labirin: AABB vs dinding, cek satu titik, dan pembangunan peta jarak BFS. */
+@State(Scope.Thread)
+public class MazeBenchmark {
+    private Maze maze;
+    private Rectangle[] boxes;
+    private float[] points;
+    private NavigationField navigation;
+    private boolean flip;
+
+    @Setup
+    public void setup() {
+        maze = new Maze();
+        // Kotak seukuran Pacman di setiap tile, sebagian menempel dinding dan sebagian di lorong
+        float tileSize = maze.getTileSize();
+        int cols = (int) (maze.getWidth() / tileSize);
+        int rows = (int) (maze.getHeight() / tileSize);
+        boxes = new Rectangle[cols * rows];
+        points = new float[cols * rows * 2];
+        for (int y = 0; y < rows; y++) {
+            for (int x = 0; x < cols; x++) {
+                int i = y * cols + x;
+                boxes[i] = new Rectangle(x * tileSize + 5, y * tileSize + 5, tileSize * 0.85f, tileSize * 0.85f);
+                points[i * 2] = x * tileSize + tileSize / 2;
+                points[i * 2 + 1] = y * tileSize + tileSize / 2;
+            }
+        }
+        navigation = new NavigationField(maze);
+    }
+
+    @Benchmark
+    public void collidesWithWall(Blackhole blackhole) {
+        for (Rectangle box : boxes) {
+            blackhole.consume(maze.collidesWithWall(box));
+        }
+    }
+
+    /** Satu BFS penuh: target bergantian antara dua tile sehingga setiap operasi menghitung ulang. */
+    @Benchmark
+    public NavigationField navigationRebuild() {
+        float tileSize = maze.getTileSize();
+        flip = !flip;
+        navigation.setTarget((flip ? 9 : 10) * tileSize + tileSize / 2, 4 * tileSize + tileSize / 2);
+        return navigation;
+    }
+
+    @Benchmark
+    public void isWallAt(Blackhole blackhole) {
+        for (int i = 0; i < points.length; i += 2) {
+            blackhole.consume(maze.isWallAt(points[i], points[i + 1]));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package pacman.com;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waktu startup game desktop, diukur dari luar proses: dari sebelum proses diluncurkan sampai log
+ * {@code [Startup] First frame} (frame menu pertama) dan {@code [Startup] Ready} (gambar menu dan audio selesai
+ * dimuat). Game dijalankan dengan {@code -Dpacman.exitAfterLoad=true} sehingga menutup sendiri.
+ *
+ * <p>Dua cara peluncuran dibandingkan berdampingan ({@code cds} hanya jika arsipnya ada):
+ * <ul>
+ *     <li>{@code jvm}: {@code java -jar} biasa</li>
+ *     <li>{@code cds}: jar yang sama dengan arsip class-data sharing dari task {@code lwjgl3:cdsArchive}</li>
+ * </ul>
+ *
+ * <p>Dijalankan oleh task {@code benchmarks:startupBenchmark}; argumen: {@code --jar <file> [--cds <file.jsa>]
+ * [--java <file>] [--workdir <dir>] [--runs N]}. Butuh layar (atau {@code xvfb-run}).
+ */
+public final class StartupBenchmark {
+    private static final String FIRST_FRAME = "[Startup] First frame";
+    private static final String READY = "[Startup] Ready";
+    private static final long TIMEOUT_SECONDS = 60;
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String jar = null, cds = null;
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        File workDir = new File(".");
+        int runs = 5;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--jar": jar = args[i + 1]; break;
+                case "--cds": cds = args[i + 1]; break;
+                case "--java": java = args[i + 1]; break;
+                case "--workdir": workDir = new File(args[i + 1]); break;
+                case "--runs": runs = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        if (jar == null || !new File(jar).isFile()) {
+            System.err.println("Desktop jar not found: " + jar + " (build it with lwjgl3:jar)");
+            System.exit(1);
+        }
+
+        List<String> gameArgs = Arrays.asList("-Dpacman.exitAfterLoad=true", "-Dpacman.record=");
+        List<Result> results = new ArrayList<>();
+        results.add(measure("jvm", command(gameArgs, java, "-jar", jar), workDir, runs));
+        if (cds != null && new File(cds).isFile()) {
+            results.add(measure("cds", command(gameArgs, java, "-XX:SharedArchiveFile=" + cds, "-Xshare:auto", "-jar", jar),
+                workDir, runs));
+        } else {
+            System.out.println("cds: skipped, no archive at " + cds + " (run lwjgl3:cdsArchive)");
+        }
+
+        System.out.println();
+        System.out.println("mode    runs  first frame ms (median / min / max)  ready ms (median / min / max)");
+        for (Result result : results) System.out.println(result);
+    }
+
+    // java [properti game] [opsi JVM...] -jar <jar>: properti -D harus sebelum -jar
+    private static List<String> command(List<String> gameArgs, String java, String... rest) {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(gameArgs);
+        command.addAll(Arrays.asList(rest));
+        return command;
+    }
+
+    private static Result measure(String mode, List<String> command, File workDir, int runs)
+        throws IOException, InterruptedException {
+        Result result = new Result(mode, runs);
+        System.out.println(mode + ": " + String.join(" ", command));
+        for (int run = 0; run < runs; run++) {
+            ProcessBuilder builder = new ProcessBuilder(command).directory(workDir).redirectErrorStream(true);
+            long start = System.nanoTime();
+            Process process = builder.start();
+            // readLine() menunggu sampai proses menutup stdout, jadi dibaca di thread lain supaya batas waktu berlaku
+            MarkerReader markers = new MarkerReader(process, start);
+            markers.start();
+            boolean timedOut = !process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (timedOut) {
+                process.destroyForcibly();
+                process.waitFor(); // exitValue() melempar exception selama proses belum benar-benar berhenti
+            }
+            markers.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+            long firstFrame = markers.firstFrame, ready = markers.ready;
+            if (firstFrame < 0 || ready < 0) {
+                throw new IllegalStateException(mode + " run " + run + (timedOut
+                    ? " timed out after " + TIMEOUT_SECONDS + " s" : " exited") + " without startup markers (exit code "
+                    + process.exitValue() + ")");
+            }
+            result.firstFrameMillis[run] = TimeUnit.NANOSECONDS.toMillis(firstFrame);
+            result.readyMillis[run] = TimeUnit.NANOSECONDS.toMillis(ready);
+            System.out.println("  run " + run + ": first frame " + result.firstFrameMillis[run] + " ms, ready "
+                + result.readyMillis[run] + " ms");
+        }
+        return result;
+    }
+
+    /** Membaca output proses anak sampai habis dan mencatat kapan kedua penanda startup muncul (-1 = belum). */
+    private static final class MarkerReader extends Thread {
+        private final Process process;
+        private final long start;
+        volatile long firstFrame = -1;
+        volatile long ready = -1;
+
+        MarkerReader(Process process, long start) {
+            super("startup-output");
+            setDaemon(true);
+            this.process = process;
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+            try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    long now = System.nanoTime();
+                    if (firstFrame < 0 && line.startsWith(FIRST_FRAME)) firstFrame = now - start;
+                    if (ready < 0 && line.startsWith(READY)) ready = now - start;
+                }
+            } catch (IOException e) {
+                // Stream ditutup karena proses dimatikan setelah batas waktu; penanda yang belum muncul tetap -1
+            }
+        }
+    }
+
+    private static final class Result {
+        final String mode;
+        final long[] firstFrameMillis;
+        final long[] readyMillis;
+
+        Result(String mode, int runs) {
+            this.mode = mode;
+            this.firstFrameMillis = new long[runs];
+            this.readyMillis = new long[runs];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-7s %4d  %34s  %28s", mode, firstFrameMillis.length,
+                summary(firstFrameMillis), summary(readyMillis));
+        }
+
+        private static String summary(long[] millis) {
+            long[] sorted = millis.clone();
+            Arrays.sort(sorted);
+            return sorted[sorted.length / 2] + " / " + sorted[0] + " / " + sorted[sorted.length - 1];
+        }
+    }
+}
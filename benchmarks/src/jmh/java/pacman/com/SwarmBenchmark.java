@@ -0,0 +1,57 @@
+package pacman.com;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Satu GhostSwarm.update untuk seluruh gerombolan per operasi, di labirin terbuka 256x256 tile. */
+@State(Scope.Thread)
+public class SwarmBenchmark {
+    private static final float DELTA = 1f / FixedTimestep.DEFAULT_HZ;
+    private static final int MAZE_TILES = 256;
+
+    @Param({"1000", "10000", "50000"})
+    public int ghosts;
+
+    private GhostSwarm swarm;
+    private float pacmanX;
+    private float pacmanY;
+
+    @Setup
+    public void setup() {
+        Maze maze = new Maze();
+        maze.setLayout(pillarLayout(MAZE_TILES));
+        GameWorld world = new GameWorld(new GameConfig().setSwarmSize(ghosts), 1, maze);
+        swarm = world.getSwarm();
+        Pacman pacman = world.getPacman();
+        pacmanX = pacman.getCenter().x;
+        pacmanY = pacman.getCenter().y;
+        world.getNavigation().setTarget(pacmanX, pacmanY);
+    }
+
+    // Dinding di tepi dan tiang di setiap tile genap, sehingga hampir setiap tile adalah persimpangan;
+    // P dan G hanya agar labirin valid (hantu gerombolan tidak memakai kandang)
+    static String[] pillarLayout(int size) {
+        String[] rows = new String[size];
+        StringBuilder row = new StringBuilder(size);
+        for (int r = 0; r < size; r++) {
+            row.setLength(0);
+            for (int c = 0; c < size; c++) {
+                boolean wall = r == 0 || c == 0 || r == size - 1 || c == size - 1 || (r % 2 == 0 && c % 2 == 0);
+                boolean house = r == size / 2 + 3 && c >= size / 2 && c < size / 2 + 4;
+                row.append(wall ? 'W' : r == size / 2 + 1 && c == size / 2 + 1 ? 'P' : house ? 'G' : ' ');
+            }
+            rows[r] = row.toString();
+        }
+        return rows;
+    }
+
+    @Benchmark
+    public GhostSwarm update() {
+        swarm.storePreviousPositions();
+        swarm.update(DELTA, pacmanX, pacmanY);
+        return swarm;
+    }
+}
@@ -0,0 +1,339 @@
+package pacman.com;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * Dunia multiplayer untuk server (modul {@code server}): banyak Pacman dan hantu di satu labirin dan satu
+ * {@link DotGrid}. Setiap pemain memegang satu {@link Actor}; hantu AI ditambahkan saat dunia dibuat. Semua aktor
+ * bergerak di {@link RailGraph} lewat {@link RailMover} dengan aturan seperti {@link Pacman}: arah input disimpan lalu
+ * dipakai di simpul berikutnya, dan berbalik arah boleh kapan saja.
+ *
+ * <p>Aturan: Pacman makan dot (+10) dan pellet (tile {@code *}, +50, semua hantu takut {@link #SCARED_SECONDS} detik).
+ * Hantu yang menyentuh Pacman menangkapnya (Pacman kembali ke spawn, hantu +200); Pacman yang menyentuh hantu yang
+ * takut memakannya (hantu kembali ke spawn, Pacman +200). Jika dot habis, dot diisi ulang dan ronde baru dimulai.
+ *
+ * <p>Tidak thread-safe: semua method dipanggil dari satu thread (loop server).
+ */
+public class ArenaWorld {
+    public enum Role { PACMAN, GHOST }
+
+    public static final float PACMAN_SPEED = 100f; // Sama dengan Pacman
+    public static final float SCARED_SECONDS = 6f;
+    private static final int DOT_POINTS = 10;
+    private static final int PELLET_POINTS = 50;
+    private static final int CATCH_POINTS = 200;
+    private static final int CHASE_RANGE_TILES = 8; // Hantu AI mengejar Pacman sedekat ini (jarak Manhattan)
+    private static final float GHOST_SIZE = 30f; // Sama dengan Ghost
+    private static final int NO_ACTOR = -1;
+    private static final GhostType[] GHOST_TYPES = GhostType.values();
+
+    private final Maze maze;
+    private final RailGraph rails;
+    private final DotGrid dots;
+    private final GameConfig config;
+    private final SeededRandom random;
+    private final boolean[] pelletTile; // [tileY * numCols + tileX]
+    private final Array<Actor> actors = new Array<>();
+    private final IntArray freeIds = new IntArray(); // Slot pemain yang sudah keluar, dipakai ulang
+    private final int[] exits = new int[RailGraph.DX.length]; // Wadah sementara pilihan arah hantu AI
+    private final int[] ghostHead; // [tile] -> hantu pertama di tile itu, atau NO_ACTOR (hanya selama resolveContacts)
+    private int[] ghostNext = new int[0]; // [id] -> hantu berikutnya di tile yang sama
+    private int[] ghostTile = new int[0]; // [id] -> tile tempat hantu dikelompokkan, untuk mengosongkan ghostHead
+    private int activeCount;
+    private int tick;
+    private int round;
+
+    public ArenaWorld(Maze maze, GameConfig config, long seed, int aiGhosts) {
+        this.maze = maze;
+        this.config = config;
+        this.random = new SeededRandom(seed);
+        rails = new RailGraph(maze);
+        dots = new DotGrid(maze.getNumCols(), maze.getNumRows(), maze.getTileSize());
+        pelletTile = new boolean[maze.getNumCols() * maze.getNumRows()];
+        IntArray pellets = maze.getPelletTiles();
+        for (int i = 0; i < pellets.size; i++) pelletTile[pellets.get(i)] = true;
+        ghostHead = new int[pelletTile.length];
+        Arrays.fill(ghostHead, NO_ACTOR);
+        refillDots();
+        for (int i = 0; i < aiGhosts; i++) join(Role.GHOST).ai = true;
+    }
+
+    /** Aktor baru untuk pemain; id-nya dipakai di input dan snapshot. */
+    public Actor join(Role role) {
+        Actor actor;
+        if (freeIds.size > 0) {
+            actor = actors.get(freeIds.pop());
+        } else {
+            // Anchor sama dengan GameWorld.spawnPosition
+            actor = new Actor(actors.size, new RailMover(rails, maze.getTileSize() / 8));
+            actors.add(actor);
+            if (ghostNext.length < actors.size) {
+                ghostNext = Arrays.copyOf(ghostNext, actors.size * 2);
+                ghostTile = Arrays.copyOf(ghostTile, actors.size * 2);
+            }
+        }
+        actor.role = role;
+        actor.active = true;
+        actor.ai = false;
+        actor.score = 0;
+        actor.speed = role == Role.PACMAN ? PACMAN_SPEED : config.getGhostSpeed(ghostType(actor));
+        actor.size = role == Role.PACMAN ? maze.getTileSize() * 0.85f : GHOST_SIZE;
+        activeCount++;
+        respawn(actor);
+        return actor;
+    }
+
+    /** Pemain keluar; slotnya kosong sampai dipakai pemain berikutnya. */
+    public void leave(int id) {
+        Actor actor = actors.get(id);
+        if (!actor.active) return;
+        actor.active = false;
+        activeCount--;
+        freeIds.add(id);
+    }
+
+    /** Arah input pemain ({@link RailGraph#RIGHT} dst.); dipakai di simpul berikutnya. */
+    public void setInput(int id, int direction) {
+        Actor actor = actors.get(id);
+        if (actor.active && direction >= 0 && direction < RailGraph.DX.length) actor.nextDirection = direction;
+    }
+
+    public void step(float delta) {
+        tick++;
+        for (int i = 0; i < actors.size; i++) {
+            Actor actor = actors.get(i);
+            if (!actor.active) continue;
+            if (actor.scaredTime > 0) actor.scaredTime = Math.max(0, actor.scaredTime - delta);
+            move(actor, delta);
+        }
+        for (int i = 0; i < actors.size; i++) {
+            Actor actor = actors.get(i);
+            if (actor.active && actor.role == Role.PACMAN) eatDots(actor);
+        }
+        resolveContacts();
+        if (dots.getCount() == 0) {
+            refillDots();
+            round++;
+        }
+    }
+
+    // Pemain: berbalik langsung, arah lain hanya di simpul, sisa langkah dipakai di lorong berikutnya
+    private void move(Actor actor, float delta) {
+        RailMover mover = actor.mover;
+        int next = actor.nextDirection;
+        if (!actor.ai && next != RailGraph.NONE && !mover.isAtNode() && next == (mover.getDirection() ^ 1)) {
+            mover.reverse();
+            actor.heading = next;
+        }
+        float remaining = actor.speed * delta;
+        while (true) {
+            if (mover.isAtNode()) {
+                int direction = actor.ai ? chooseAiDirection(actor) : choosePlayerDirection(actor);
+                mover.depart(direction);
+                if (direction == RailGraph.NONE) break;
+                actor.heading = direction;
+            }
+            remaining = mover.advance(remaining);
+            if (!mover.isAtNode()) break;
+        }
+        mover.apply(actor.position);
+    }
+
+    private int choosePlayerDirection(Actor actor) {
+        int node = actor.mover.getNode();
+        if (actor.nextDirection != RailGraph.NONE && rails.canLeave(node, actor.nextDirection)) return actor.nextDirection;
+        return actor.heading != RailGraph.NONE && rails.canLeave(node, actor.heading) ? actor.heading : RailGraph.NONE;
+    }
+
+    // Seperti Ghost: tidak berbalik kecuali buntu; kejar (atau jauhi saat takut) Pacman terdekat, selain itu acak
+    private int chooseAiDirection(Actor actor) {
+        int node = actor.mover.getNode();
+        int opposite = actor.heading ^ 1;
+        int count = 0;
+        for (int d = 0; d < RailGraph.DX.length; d++) {
+            if (d != opposite && rails.canLeave(node, d)) exits[count++] = d;
+        }
+        if (count == 0) return rails.canLeave(node, opposite) ? opposite : RailGraph.NONE;
+
+        int tileX = rails.getNodeTileX(node), tileY = rails.getNodeTileY(node);
+        Actor target = nearestPacman(tileX, tileY);
+        if (target == null) return exits[random.nextInt(count)];
+        int targetX = tileOf(target.getCenterX()), targetY = tileOf(target.getCenterY());
+        boolean flee = actor.scaredTime > 0;
+        int best = exits[0];
+        int bestDistance = flee ? -1 : Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int d = exits[i];
+            int distance = Math.abs(tileX + RailGraph.DX[d] - targetX) + Math.abs(tileY + RailGraph.DY[d] - targetY);
+            if (flee ? distance > bestDistance : distance < bestDistance) {
+                bestDistance = distance;
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    private Actor nearestPacman(int tileX, int tileY) {
+        Actor nearest = null;
+        int nearestDistance = CHASE_RANGE_TILES + 1;
+        for (int i = 0; i < actors.size; i++) {
+            Actor other = actors.get(i);
+            if (!other.active || other.role != Role.PACMAN) continue;
+            int distance = Math.abs(tileOf(other.getCenterX()) - tileX) + Math.abs(tileOf(other.getCenterY()) - tileY);
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = other;
+            }
+        }
+        return nearest;
+    }
+
+    private void eatDots(Actor pacman) {
+        IntArray eaten = dots.getEatenTiles();
+        int before = eaten.size;
+        int count = dots.eat(pacman.position.x, pacman.position.y, pacman.size, pacman.size);
+        if (count == 0) return;
+        pacman.score += count * DOT_POINTS;
+        for (int i = before; i < eaten.size; i++) {
+            if (!pelletTile[eaten.get(i)]) continue;
+            pacman.score += PELLET_POINTS - DOT_POINTS;
+            scareGhosts();
+        }
+    }
+
+    private void scareGhosts() {
+        for (int i = 0; i < actors.size; i++) {
+            Actor actor = actors.get(i);
+            if (actor.active && actor.role == Role.GHOST) actor.scaredTime = SCARED_SECONDS;
+        }
+    }
+
+    // Hantu dikelompokkan per tile titik tengahnya. Aktor lebih kecil dari satu tile, jadi Pacman hanya bisa
+    // bertumpuk dengan hantu di 3x3 tile sekitar tile-nya: O(P + G) per step, bukan O(P x G) untuk ribuan pemain.
+    private void resolveContacts() {
+        for (int i = 0; i < actors.size; i++) {
+            Actor ghost = actors.get(i);
+            if (!ghost.active || ghost.role != Role.GHOST) continue;
+            int tile = tileIndex(ghost);
+            ghostTile[i] = tile;
+            ghostNext[i] = ghostHead[tile];
+            ghostHead[tile] = i;
+        }
+        for (int i = 0; i < actors.size; i++) {
+            Actor pacman = actors.get(i);
+            if (pacman.active && pacman.role == Role.PACMAN) resolveContacts(pacman);
+        }
+        for (int i = 0; i < actors.size; i++) {
+            Actor ghost = actors.get(i);
+            if (ghost.active && ghost.role == Role.GHOST) ghostHead[ghostTile[i]] = NO_ACTOR;
+        }
+    }
+
+    private void resolveContacts(Actor pacman) {
+        int tileX = tileOf(pacman.getCenterX()), tileY = tileOf(pacman.getCenterY());
+        for (int y = Math.max(0, tileY - 1); y <= Math.min(maze.getNumRows() - 1, tileY + 1); y++) {
+            for (int x = Math.max(0, tileX - 1); x <= Math.min(maze.getNumCols() - 1, tileX + 1); x++) {
+                for (int id = ghostHead[y * maze.getNumCols() + x]; id != NO_ACTOR; id = ghostNext[id]) {
+                    Actor ghost = actors.get(id);
+                    if (!overlaps(pacman, ghost)) continue;
+                    if (ghost.scaredTime > 0) {
+                        pacman.score += CATCH_POINTS;
+                        respawn(ghost); // Tetap di daftar tile lamanya (ghostTile) sampai step ini selesai
+                    } else {
+                        ghost.score += CATCH_POINTS;
+                        respawn(pacman);
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private int tileIndex(Actor ghost) {
+        int tileX = Math.min(maze.getNumCols() - 1, Math.max(0, tileOf(ghost.getCenterX())));
+        int tileY = Math.min(maze.getNumRows() - 1, Math.max(0, tileOf(ghost.getCenterY())));
+        return tileY * maze.getNumCols() + tileX;
+    }
+
+    private static boolean overlaps(Actor a, Actor b) {
+        return a.position.x < b.position.x + b.size && b.position.x < a.position.x + a.size
+            && a.position.y < b.position.y + b.size && b.position.y < a.position.y + a.size;
+    }
+
+    private void respawn(Actor actor) {
+        if (actor.role == Role.PACMAN) {
+            actor.mover.place(maze.getPacmanTileX(), maze.getPacmanTileY());
+            actor.heading = RailGraph.RIGHT;
+        } else {
+            GhostType type = ghostType(actor);
+            actor.mover.place(maze.getGhostTileX(type), maze.getGhostTileY(type));
+            actor.heading = RailGraph.DOWN;
+        }
+        actor.nextDirection = RailGraph.NONE;
+        actor.scaredTime = 0;
+        actor.mover.apply(actor.position);
+    }
+
+    private static GhostType ghostType(Actor actor) {
+        return GHOST_TYPES[actor.id % GHOST_TYPES.length];
+    }
+
+    private void refillDots() {
+        dots.clear();
+        for (int y = 0; y < maze.getNumRows(); y++) {
+            for (int x = 0; x < maze.getNumCols(); x++) {
+                if (maze.hasDotAt(x, y)) dots.add(x, y);
+            }
+        }
+    }
+
+    private int tileOf(float coordinate) {
+        return (int) (coordinate / maze.getTileSize());
+    }
+
+    public Maze getMaze() { return maze; }
+    public DotGrid getDots() { return dots; }
+    public int getTick() { return tick; }
+    public int getRound() { return round; }
+
+    /** Jumlah slot aktor (aktif atau kosong); id aktor selalu lebih kecil dari ini. */
+    public int getCapacity() { return actors.size; }
+    public int getActiveCount() { return activeCount; }
+    public Actor getActor(int id) { return actors.get(id); }
+
+    /** Satu Pacman atau hantu; posisi adalah pojok kiri-bawah kotaknya, seperti {@link Entity}. */
+    public static final class Actor {
+        private final int id;
+        private final RailMover mover;
+        private final Vector2 position = new Vector2();
+        private Role role;
+        private boolean active;
+        private boolean ai;
+        private int nextDirection = RailGraph.NONE;
+        private int heading = RailGraph.NONE;
+        private float speed;
+        private float size;
+        private float scaredTime;
+        private int score;
+
+        private Actor(int id, RailMover mover) {
+            this.id = id;
+            this.mover = mover;
+        }
+
+        public int getId() { return id; }
+        public Role getRole() { return role; }
+        public boolean isActive() { return active; }
+        public boolean isAi() { return ai; }
+        public boolean isScared() { return scaredTime > 0; }
+        public int getScore() { return score; }
+        public float getX() { return position.x; }
+        public float getY() { return position.y; }
+        public float getSize() { return size; }
+        public float getCenterX() { return position.x + size / 2; }
+        public float getCenterY() { return position.y + size / 2; }
+    }
+}
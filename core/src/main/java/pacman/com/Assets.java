@@ -0,0 +1,92 @@
+package pacman.com;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * Registry gambar bersama. Setiap sprite dimuat sekali, dipak ke satu {@link TextureAtlas},
+ * lalu dibagikan sebagai {@link TextureRegion}. Karena semua sprite (termasuk font HUD) ada di satu texture,
+ * SpriteBatch bisa menggambar satu frame penuh tanpa ganti texture.
+ *
+ * <p>Instance dibagi lewat reference counting: setiap {@link #acquire()} harus dipasangkan dengan
+ * satu {@link #release()}, dan atlas baru dibuang saat pemakai terakhir melepasnya.
+ */
+public final class Assets {
+    // Semua sprite yang dipakai game. Nama file juga menjadi nama region di atlas.
+    private static final String[] SPRITES = {
+        "wall.png", "dot.png",
+        "cherry.png", "cherry2.png", "powerFood.png",
+        "pacmanLeft.png", "pacmanRight.png", "pacmanUp.png", "pacmanDown.png",
+        "redGhost.png", "pinkGhost.png", "blueGhost.png", "orangeGhost.png", "scaredGhost.png"
+    };
+    // Font bawaan libGDX (sama dengan new BitmapFont()), ikut dipak agar teks HUD tidak ganti texture
+    private static final String FONT_FILE = "com/badlogic/gdx/utils/lsans-15.fnt";
+    private static final String FONT_IMAGE = "com/badlogic/gdx/utils/lsans-15.png";
+
+    private static Assets shared;
+    private static int refCount;
+
+    private final TextureAtlas atlas;
+    private final ObjectMap<String, TextureRegion> regions = new ObjectMap<>();
+
+    private Assets() {
+        PixmapPacker packer = new PixmapPacker(2048, 2048, Pixmap.Format.RGBA8888, 2, true);
+        for (String sprite : SPRITES) {
+            pack(packer, sprite, Gdx.files.internal(sprite));
+        }
+        pack(packer, FONT_IMAGE, Gdx.files.classpath(FONT_IMAGE));
+        atlas = packer.generateTextureAtlas(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest, false);
+        packer.dispose(); // Pixmap sudah di-upload ke GPU, salinan CPU tidak diperlukan lagi
+
+        for (TextureAtlas.AtlasRegion region : atlas.getRegions()) {
+            regions.put(region.name, region);
+        }
+    }
+
+    private static void pack(PixmapPacker packer, String name, FileHandle file) {
+        Pixmap pixmap = new Pixmap(file);
+        packer.pack(name, pixmap);
+        pixmap.dispose();
+    }
+
+    /** Ambil registry bersama (dibuat saat pemakai pertama). Pasangkan dengan {@link #release()}. */
+    public static Assets acquire() {
+        if (shared == null) {
+            shared = new Assets();
+        }
+        refCount++;
+        return shared;
+    }
+
+    /** Lepas satu referensi; atlas dibuang saat referensi terakhir dilepas. */
+    public static void release() {
+        if (refCount == 0) return;
+        refCount--;
+        if (refCount == 0) {
+            shared.atlas.dispose();
+            shared = null;
+        }
+    }
+
+    /** Region untuk nama file sprite, misalnya {@code "redGhost.png"}. */
+    public TextureRegion getRegion(String name) {
+        TextureRegion region = regions.get(name);
+        if (region == null) {
+            throw new GdxRuntimeException("Sprite not packed in atlas: " + name);
+        }
+        return region;
+    }
+
+    /** Font HUD baru yang memakai glyph dari atlas. Pemanggil yang dispose font-nya; atlas tetap milik Assets. */
+    public BitmapFont newFont() {
+        return new BitmapFont(Gdx.files.classpath(FONT_FILE), getRegion(FONT_IMAGE), false);
+    }
+}
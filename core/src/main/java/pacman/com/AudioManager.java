@@ -0,0 +1,144 @@
+package pacman.com;
+
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Semua audio game dimuat sekali saat startup lewat {@link AssetManager} ({@link #queue}), di thread pemuat
+ * sehingga menu sudah tampil selama MP3 di-decode. Efek pendek di-decode penuh sebagai {@link Sound},
+ * loop "scared" memakai satu voice yang dipakai ulang (di-pause/resume, tidak dibuat ulang),
+ * dan musik tema di-crossfade dengan loop itu lewat {@link #update(float)}.
+ */
+public class AudioManager implements Disposable {
+    private static final float THEME_VOLUME = 0.3f;
+    private static final float SCARED_VOLUME = 1f;
+    private static final float FADE_SECONDS = 0.4f;
+
+    private static final String THEME_FILE = "Pac-man theme remix - By Arsenic1987.mp3";
+    private static final String DEATH_FILE = "Pac-Man Death - Sound Effect (HD).mp3";
+    private static final String SCARED_FILE = "Pac man scared ghost sound.mp3";
+
+    private final AssetManager assets;
+
+    private final Music theme;
+    private final Sound death;
+    private final Sound scaredLoop;
+
+    private long scaredVoice = -1; // Handle voice loop scared, dibuat sekali lalu dipakai ulang
+    private boolean scaredPaused;
+    private boolean themePlaying;
+    private float scaredMix; // 0 = hanya tema, 1 = hanya loop scared
+    private float scaredTarget;
+
+    /** Antrekan semua file audio ke {@code assets}; AudioManager dibuat setelah semuanya selesai dimuat. */
+    public static void queue(AssetManager assets) {
+        assets.load(THEME_FILE, Music.class);
+        assets.load(DEATH_FILE, Sound.class);
+        assets.load(SCARED_FILE, Sound.class);
+    }
+
+    public AudioManager(AssetManager assets) {
+        this.assets = assets;
+        theme = assets.get(THEME_FILE, Music.class);
+        theme.setLooping(true);
+        theme.setVolume(THEME_VOLUME);
+        death = assets.get(DEATH_FILE, Sound.class);
+        scaredLoop = assets.get(SCARED_FILE, Sound.class);
+    }
+
+    public void playTheme() {
+        themePlaying = true;
+        applyMix();
+        theme.play();
+    }
+
+    public void playDeath() {
+        death.play();
+    }
+
+    /** Mulai (atau lanjutkan) loop scared; tema memudar keluar. Aman dipanggil berkali-kali. */
+    public void startScared() {
+        scaredTarget = 1f;
+        if (scaredVoice == -1) {
+            scaredVoice = scaredLoop.loop(0f);
+        } else if (scaredPaused) {
+            scaredLoop.resume(scaredVoice);
+        }
+        scaredPaused = false;
+    }
+
+    /** Loop scared memudar keluar dan tema kembali; voice di-pause saat volumenya habis. */
+    public void stopScared() {
+        scaredTarget = 0f;
+    }
+
+    /** Hentikan semua suara (misalnya saat restart) tanpa membuang data audio yang sudah dimuat. */
+    public void stopAll() {
+        themePlaying = false;
+        theme.stop();
+        scaredTarget = 0f;
+        scaredMix = 0f;
+        pauseScaredVoice();
+    }
+
+    /** Jeda semua suara yang sedang berbunyi (game dijeda atau jendela di latar belakang). */
+    public void pause() {
+        if (themePlaying) theme.pause();
+        if (scaredVoice != -1 && !scaredPaused) scaredLoop.pause(scaredVoice);
+        death.pause();
+    }
+
+    /** Lanjutkan suara yang dijeda {@link #pause()}. */
+    public void resume() {
+        if (themePlaying) theme.play();
+        if (scaredVoice != -1 && !scaredPaused) scaredLoop.resume(scaredVoice);
+        death.resume();
+    }
+
+    /** Crossfade tema/scared masih berjalan, jadi {@link #update(float)} perlu dipanggil lagi. */
+    public boolean isFading() {
+        return scaredMix != scaredTarget;
+    }
+
+    /** Dipanggil sekali per frame untuk menjalankan crossfade. */
+    public void update(float delta) {
+        if (scaredMix == scaredTarget) return;
+        float step = delta / FADE_SECONDS;
+        scaredMix = scaredTarget > scaredMix
+            ? Math.min(scaredTarget, scaredMix + step)
+            : Math.max(scaredTarget, scaredMix - step);
+        applyMix();
+        if (scaredMix == 0f) {
+            pauseScaredVoice();
+        }
+    }
+
+    private void applyMix() {
+        float mix = MathUtils.clamp(scaredMix, 0f, 1f);
+        if (themePlaying) {
+            theme.setVolume(THEME_VOLUME * (1f - mix));
+        }
+        if (scaredVoice != -1) {
+            scaredLoop.setVolume(scaredVoice, SCARED_VOLUME * mix);
+        }
+    }
+
+    private void pauseScaredVoice() {
+        if (scaredVoice != -1 && !scaredPaused) {
+            scaredLoop.pause(scaredVoice);
+            scaredPaused = true;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        theme.stop();
+        // Data audio milik AssetManager
+        assets.unload(THEME_FILE);
+        assets.unload(DEATH_FILE);
+        assets.unload(SCARED_FILE);
+    }
+}
@@ -0,0 +1,50 @@
+package pacman.com;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Pasangan id yang bertabrakan pada satu step (hasil broad-phase {@link SpatialHash} + tes AABB), dikumpulkan
+ * dulu lalu diproses sekaligus. Array dipakai ulang antar step, jadi tidak membuat objek baru.
+ */
+public class ContactList {
+    private final IntArray first = new IntArray();
+    private final IntArray second = new IntArray();
+
+    public void add(int a, int b) {
+        first.add(a);
+        second.add(b);
+    }
+
+    public void clear() {
+        first.clear();
+        second.clear();
+    }
+
+    public int size() {
+        return first.size;
+    }
+
+    public int getFirst(int i) {
+        return first.get(i);
+    }
+
+    public int getSecond(int i) {
+        return second.get(i);
+    }
+
+    /** Urutkan pasangan menurut (first, second) agar urutan pemrosesan tidak bergantung pada isi sel. */
+    public void sort() {
+        // Insertion sort: biasanya hanya 0-2 kontak per step
+        for (int i = 1; i < first.size; i++) {
+            int a = first.get(i), b = second.get(i);
+            int j = i - 1;
+            while (j >= 0 && (first.get(j) > a || (first.get(j) == a && second.get(j) > b))) {
+                first.set(j + 1, first.get(j));
+                second.set(j + 1, second.get(j));
+                j--;
+            }
+            first.set(j + 1, a);
+            second.set(j + 1, b);
+        }
+    }
+}
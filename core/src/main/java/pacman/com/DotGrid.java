@@ -0,0 +1,156 @@
+package pacman.com;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Dot disimpan sebagai bitset per tile (paling banyak satu dot per tile, di tengah tile).
+ * Makan dot cukup cek tile yang tertutup Pacman, dan cek menang cukup baca jumlah bit yang tersisa.
+ * Tile yang dimakan dicatat berurutan di {@link #getEatenTiles()} agar renderer bisa memperbarui cache-nya
+ * sedikit demi sedikit tanpa memindai semua dot.
+ */
+public class DotGrid {
+    public static final float DOT_SIZE = 10f;
+
+    private final int numCols;
+    private final int numRows;
+    private final float tileSize;
+    private final long[] bits; // bit (tileY * numCols + tileX), tileY dihitung dari bawah seperti Maze
+    private final IntArray eatenTiles = new IntArray();
+    private int count;
+    private int generation; // Naik setiap clear(), tanda bagi cache renderer untuk membangun ulang
+    private DotGrid source = this; // Grid dunia yang disalin grid ini (RenderSnapshot), atau dirinya sendiri
+
+    public DotGrid(int numCols, int numRows, float tileSize) {
+        this.numCols = numCols;
+        this.numRows = numRows;
+        this.tileSize = tileSize;
+        this.bits = new long[(numCols * numRows + 63) >>> 6];
+    }
+
+    public void clear() {
+        Arrays.fill(bits, 0L);
+        eatenTiles.clear();
+        count = 0;
+        generation++;
+    }
+
+    public void add(int tileX, int tileY) {
+        int index = tileY * numCols + tileX;
+        long mask = 1L << index;
+        if ((bits[index >>> 6] & mask) == 0) {
+            bits[index >>> 6] |= mask;
+            count++;
+        }
+    }
+
+    public boolean hasDot(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= numCols || tileY >= numRows) return false;
+        int index = tileY * numCols + tileX;
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /**
+     * Hapus semua dot yang bertumpang tindih dengan kotak (aturan sama seperti Rectangle.overlaps).
+     * Hanya tile yang tertutup kotak yang dicek, jadi biayanya tidak tergantung jumlah dot.
+     *
+     * @return jumlah dot yang dimakan
+     */
+    public int eat(float x, float y, float width, float height) {
+        int minCol = Math.max(0, (int) Math.floor(x / tileSize));
+        int maxCol = Math.min(numCols - 1, (int) Math.ceil((x + width) / tileSize) - 1);
+        int minRow = Math.max(0, (int) Math.floor(y / tileSize));
+        int maxRow = Math.min(numRows - 1, (int) Math.ceil((y + height) / tileSize) - 1);
+        float offset = (tileSize - DOT_SIZE) / 2;
+        int eaten = 0;
+        for (int tileY = minRow; tileY <= maxRow; tileY++) {
+            for (int tileX = minCol; tileX <= maxCol; tileX++) {
+                int index = tileY * numCols + tileX;
+                long mask = 1L << index;
+                if ((bits[index >>> 6] & mask) == 0) continue;
+                float dotX = tileX * tileSize + offset;
+                float dotY = tileY * tileSize + offset;
+                if (x < dotX + DOT_SIZE && x + width > dotX && y < dotY + DOT_SIZE && y + height > dotY) {
+                    bits[index >>> 6] &= ~mask;
+                    eatenTiles.add(index);
+                    count--;
+                    eaten++;
+                }
+            }
+        }
+        return eaten;
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        for (long word : bits) {
+            out.writeLong(word);
+        }
+    }
+
+    /** Pasang bitset dari snapshot; renderer membangun ulang cache-nya karena generation naik. */
+    void readState(DataInput in) throws IOException {
+        clear();
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = in.readLong();
+        }
+        count = popCount();
+    }
+
+    /**
+     * Samakan salinan ini dengan {@code original} yang ukurannya sama: jika generation-nya sama cukup tile yang baru
+     * dimakan, selain itu seluruh bitset. Generation dan urutan {@link #getEatenTiles()} ikut disamakan, jadi cache
+     * {@link DotLayer} tetap berlaku walau bergantian menggambar beberapa salinan dari grid yang sama.
+     */
+    void syncFrom(DotGrid original) {
+        IntArray eaten = original.eatenTiles;
+        if (source != original || generation != original.generation || eatenTiles.size > eaten.size) {
+            source = original;
+            generation = original.generation;
+            System.arraycopy(original.bits, 0, bits, 0, bits.length);
+            eatenTiles.clear();
+            eatenTiles.addAll(eaten);
+        } else {
+            for (int i = eatenTiles.size; i < eaten.size; i++) {
+                int index = eaten.get(i);
+                bits[index >>> 6] &= ~(1L << index);
+                eatenTiles.add(index);
+            }
+        }
+        count = original.count;
+    }
+
+    /** Grid asli yang disalin lewat {@link #syncFrom(DotGrid)}, atau grid ini sendiri jika bukan salinan. */
+    public DotGrid getSource() {
+        return source;
+    }
+
+    /** Jumlah dot tersisa (sama dengan popcount seluruh bitset). */
+    public int getCount() {
+        return count;
+    }
+
+    /** Hitung ulang jumlah dot langsung dari bitset. */
+    public int popCount() {
+        int total = 0;
+        for (long word : bits) {
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+
+    /** Indeks tile (tileY * numCols + tileX) yang sudah dimakan sejak {@link #clear()}, sesuai urutan makan. */
+    public IntArray getEatenTiles() {
+        return eatenTiles;
+    }
+
+    public int getGeneration() {
+        return generation;
+    }
+
+    public int getNumCols() { return numCols; }
+    public int getNumRows() { return numRows; }
+    public float getTileSize() { return tileSize; }
+}
@@ -0,0 +1,144 @@
+package pacman.com;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * Cache vertex untuk semua dot di {@link DotGrid}, dibagi per chunk {@link MazeLayer#CHUNK_TILES} tile seperti dinding.
+ * Dibangun sekali per game, lalu setiap dot yang dimakan dihapus dengan menukar slot terakhir chunk-nya ke slotnya
+ * (swap-remove). Satu frame cukup satu panggilan {@code batch.draw} per chunk yang terlihat kamera.
+ */
+class DotLayer {
+    private static final int FLOATS_PER_DOT = 20; // 4 vertex x (x, y, color, u, v), format SpriteBatch
+    private static final int CHUNK_TILES = MazeLayer.CHUNK_TILES;
+
+    private final TextureRegion region;
+    private DotGrid source; // Grid dunia asal cache ini; salinan snapshot dari grid yang sama memakai cache yang sama
+    private int generation;
+    private int appliedEaten; // Berapa entri getEatenTiles() yang sudah diterapkan ke cache
+    private int numCols;
+    private int chunkCols;
+    private int chunkRows;
+    private float[][] chunkVertices = new float[0][]; // [chunk] -> vertex dot yang tersisa di chunk itu
+    private int[][] chunkTileOfSlot = new int[0][];
+    private int[] chunkDotCount = new int[0];
+    private int[] slotOfTile = new int[0]; // tile -> slot di chunk-nya, -1 jika tidak ada dot
+
+    DotLayer(TextureRegion region) {
+        this.region = region;
+    }
+
+    /** Gambar dot di chunk yang beririsan dengan {@code view} (koordinat dunia). */
+    void render(SpriteBatch batch, DotGrid dots, Rectangle view) {
+        if (dots.getSource() != source || dots.getGeneration() != generation) {
+            rebuild(dots);
+        }
+        applyEaten(dots);
+        float chunkSize = CHUNK_TILES * dots.getTileSize();
+        int minX = Math.max(0, (int) Math.floor(view.x / chunkSize));
+        int maxX = Math.min(chunkCols - 1, (int) Math.floor((view.x + view.width) / chunkSize));
+        int minY = Math.max(0, (int) Math.floor(view.y / chunkSize));
+        int maxY = Math.min(chunkRows - 1, (int) Math.floor((view.y + view.height) / chunkSize));
+        for (int chunkY = minY; chunkY <= maxY; chunkY++) {
+            for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+                int chunk = chunkY * chunkCols + chunkX;
+                if (chunkDotCount[chunk] > 0) {
+                    batch.draw(region.getTexture(), chunkVertices[chunk], 0, chunkDotCount[chunk] * FLOATS_PER_DOT);
+                }
+            }
+        }
+    }
+
+    private void rebuild(DotGrid dots) {
+        source = dots.getSource();
+        generation = dots.getGeneration();
+        appliedEaten = 0;
+
+        numCols = dots.getNumCols();
+        int numRows = dots.getNumRows();
+        chunkCols = (numCols + CHUNK_TILES - 1) / CHUNK_TILES;
+        chunkRows = (numRows + CHUNK_TILES - 1) / CHUNK_TILES;
+        int numChunks = chunkCols * chunkRows;
+        if (slotOfTile.length != numCols * numRows) {
+            slotOfTile = new int[numCols * numRows];
+        }
+        if (chunkDotCount.length != numChunks) {
+            chunkVertices = new float[numChunks][];
+            chunkTileOfSlot = new int[numChunks][];
+            chunkDotCount = new int[numChunks];
+        }
+
+        // Hitung dot per chunk dulu agar setiap array chunk dialokasikan pas (dipakai ulang jika sudah cukup besar)
+        Arrays.fill(chunkDotCount, 0);
+        for (int tileY = 0; tileY < numRows; tileY++) {
+            for (int tileX = 0; tileX < numCols; tileX++) {
+                if (dots.hasDot(tileX, tileY)) chunkDotCount[chunkOf(tileX, tileY)]++;
+            }
+        }
+        for (int chunk = 0; chunk < numChunks; chunk++) {
+            int count = chunkDotCount[chunk];
+            if (chunkTileOfSlot[chunk] == null || chunkTileOfSlot[chunk].length < count) {
+                chunkVertices[chunk] = new float[count * FLOATS_PER_DOT];
+                chunkTileOfSlot[chunk] = new int[count];
+            }
+            chunkDotCount[chunk] = 0;
+        }
+
+        float tileSize = dots.getTileSize();
+        float offset = (tileSize - DotGrid.DOT_SIZE) / 2;
+        for (int tileY = 0; tileY < numRows; tileY++) {
+            for (int tileX = 0; tileX < numCols; tileX++) {
+                int tile = tileY * numCols + tileX;
+                if (!dots.hasDot(tileX, tileY)) {
+                    slotOfTile[tile] = -1;
+                    continue;
+                }
+                int chunk = chunkOf(tileX, tileY);
+                int slot = chunkDotCount[chunk]++;
+                writeQuad(chunkVertices[chunk], slot, tileX * tileSize + offset, tileY * tileSize + offset);
+                slotOfTile[tile] = slot;
+                chunkTileOfSlot[chunk][slot] = tile;
+            }
+        }
+    }
+
+    private int chunkOf(int tileX, int tileY) {
+        return (tileY / CHUNK_TILES) * chunkCols + tileX / CHUNK_TILES;
+    }
+
+    private void writeQuad(float[] out, int slot, float x, float y) {
+        float x2 = x + DotGrid.DOT_SIZE;
+        float y2 = y + DotGrid.DOT_SIZE;
+        float color = Color.WHITE_FLOAT_BITS;
+        float u = region.getU(), v = region.getV(), u2 = region.getU2(), v2 = region.getV2();
+        int i = slot * FLOATS_PER_DOT;
+        out[i] = x;    out[i + 1] = y;    out[i + 2] = color;  out[i + 3] = u;  out[i + 4] = v2;
+        out[i + 5] = x;  out[i + 6] = y2;  out[i + 7] = color;  out[i + 8] = u;  out[i + 9] = v;
+        out[i + 10] = x2; out[i + 11] = y2; out[i + 12] = color; out[i + 13] = u2; out[i + 14] = v;
+        out[i + 15] = x2; out[i + 16] = y;  out[i + 17] = color; out[i + 18] = u2; out[i + 19] = v2;
+    }
+
+    // Terapkan dot yang baru dimakan sejak frame sebelumnya (biasanya 0 atau 1)
+    private void applyEaten(DotGrid dots) {
+        IntArray eaten = dots.getEatenTiles();
+        while (appliedEaten < eaten.size) {
+            int tile = eaten.get(appliedEaten++);
+            int slot = slotOfTile[tile];
+            if (slot < 0) continue;
+            int chunk = chunkOf(tile % numCols, tile / numCols);
+            int last = --chunkDotCount[chunk];
+            if (slot != last) {
+                float[] vertices = chunkVertices[chunk];
+                System.arraycopy(vertices, last * FLOATS_PER_DOT, vertices, slot * FLOATS_PER_DOT, FLOATS_PER_DOT);
+                int movedTile = chunkTileOfSlot[chunk][last];
+                chunkTileOfSlot[chunk][slot] = movedTile;
+                slotOfTile[movedTile] = slot;
+            }
+            slotOfTile[tile] = -1;
+        }
+    }
+}
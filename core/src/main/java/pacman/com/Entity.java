@@ -1,38 +1,59 @@
 package pacman.com;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Vector2;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public abstract class Entity {
     protected Vector2 position;
-    protected Texture texture;
+    protected final Vector2 previousPosition; // Posisi di akhir step sebelumnya, untuk interpolasi render
+    protected String texturePath; // Nama gambar yang dipakai renderer, entity sendiri tidak memuat Texture
     protected Vector2 size;
 
     public Entity(Vector2 startPosition, String texturePath, Vector2 size) {
         this.position = startPosition;
-        this.texture = new Texture(texturePath); // Load texture from the given path
+        this.previousPosition = new Vector2(startPosition);
+        this.texturePath = texturePath;
         this.size = size; // Set entity size
     }
 
     public abstract void update(float delta); // Abstract method for updating entity state
 
-    public void render(SpriteBatch batch) {
-        batch.draw(texture, position.x, position.y, size.x, size.y); // Draw the entity
-    }
-
     public Vector2 getPosition() {
         return position;
     }
 
+    /** Simpan posisi sekarang sebagai posisi step sebelumnya; dipanggil GameWorld di awal setiap step. */
+    public void storePreviousPosition() {
+        previousPosition.set(position);
+    }
+
+    public float getInterpolatedX(float alpha) {
+        return previousPosition.x + (position.x - previousPosition.x) * alpha;
+    }
+
+    public float getInterpolatedY(float alpha) {
+        return previousPosition.y + (position.y - previousPosition.y) * alpha;
+    }
+
     public Vector2 getSize() {
         return size;
     }
 
-    public void dispose() {
-        if (texture != null) { // Ensure texture exists before disposing
-            texture.dispose();
-        }
+    public String getTexturePath() {
+        return texturePath;
+    }
+
+    // Snapshot replay: hanya posisi sekarang; posisi sebelumnya disamakan (tidak diinterpolasi setelah seek)
+    void writePosition(DataOutput out) throws IOException {
+        out.writeFloat(position.x);
+        out.writeFloat(position.y);
+    }
+
+    void readPosition(DataInput in) throws IOException {
+        position.set(in.readFloat(), in.readFloat());
+        previousPosition.set(position);
     }
 
     public boolean collidesWith(Entity other) {
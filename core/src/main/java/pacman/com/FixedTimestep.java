@@ -0,0 +1,51 @@
+package pacman.com;
+
+/**
+ * Akumulator untuk simulasi dengan langkah tetap. Waktu frame ditabung lalu dipecah menjadi step
+ * berukuran sama, sehingga gerakan tidak bergantung pada FPS layar. Sisa waktu yang belum cukup satu step
+ * menjadi {@link #getAlpha()} untuk menginterpolasi posisi saat menggambar.
+ */
+public class FixedTimestep {
+    public static final int DEFAULT_HZ = 120;
+    // Batas waktu satu frame agar spike (misalnya jendela di-drag) tidak memicu ratusan step sekaligus
+    private static final float MAX_FRAME_TIME = 0.25f;
+
+    private final int stepsPerSecond;
+    private final float stepSeconds;
+    private float accumulator;
+
+    public FixedTimestep(int stepsPerSecond) {
+        this.stepsPerSecond = stepsPerSecond;
+        this.stepSeconds = 1f / stepsPerSecond;
+    }
+
+    /** Langkah tetap dari system property {@code -Dpacman.simHz=N} (default 120 Hz). */
+    public static FixedTimestep fromSystemProperties() {
+        return new FixedTimestep(Math.max(1, Integer.getInteger("pacman.simHz", DEFAULT_HZ)));
+    }
+
+    /**
+     * Tabung waktu frame ini.
+     *
+     * @return berapa step simulasi yang harus dijalankan sekarang
+     */
+    public int advance(float frameDelta) {
+        accumulator += Math.min(Math.max(frameDelta, 0f), MAX_FRAME_TIME);
+        int steps = (int) (accumulator / stepSeconds);
+        accumulator -= steps * stepSeconds;
+        return steps;
+    }
+
+    /** Posisi antara state simulasi sebelumnya (0) dan terbaru (1) untuk interpolasi render. */
+    public float getAlpha() {
+        return accumulator / stepSeconds;
+    }
+
+    public int getStepsPerSecond() {
+        return stepsPerSecond;
+    }
+
+    public float getStepSeconds() {
+        return stepSeconds;
+    }
+}
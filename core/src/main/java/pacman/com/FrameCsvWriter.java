@@ -0,0 +1,110 @@
+package pacman.com;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Penulis CSV {@link FrameProfiler} di thread latar belakang. Thread render hanya menyalin satu baris angka ke
+ * array dari kumpulan yang dialokasikan sekali lalu memasukkannya ke antrean; format teks dan I/O file dikerjakan
+ * thread penulis. Jika antrean penuh (disk lambat), baris dibuang dan dihitung, render tidak pernah menunggu.
+ *
+ * <p>Kolom 0 ditulis apa adanya, kolom [1, microsFrom) dari nanodetik ke milidetik, kolom [microsFrom, rawFrom)
+ * dari nanodetik ke mikrodetik, dan sisanya apa adanya.
+ */
+final class FrameCsvWriter {
+    private static final int QUEUE_ROWS = 512;
+
+    private final ArrayBlockingQueue<long[]> free = new ArrayBlockingQueue<>(QUEUE_ROWS);
+    private final ArrayBlockingQueue<long[]> filled = new ArrayBlockingQueue<>(QUEUE_ROWS);
+    private final Writer out;
+    private final Thread thread;
+    private final int microsFrom;
+    private final int rawFrom;
+    private volatile boolean closed;
+    private volatile long dropped;
+
+    FrameCsvWriter(File file, String header, int columns, int microsFrom, int rawFrom) throws IOException {
+        this.microsFrom = microsFrom;
+        this.rawFrom = rawFrom;
+        for (int i = 0; i < QUEUE_ROWS; i++) free.add(new long[columns]);
+        out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 64 * 1024);
+        out.write(header);
+        out.write('\n');
+        thread = new Thread(this::run, "frame-profiler-csv");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Antrekan salinan {@code row}; dipanggil dari thread render. */
+    void submit(long[] row) {
+        long[] copy = free.poll();
+        if (copy == null) {
+            dropped++;
+            return;
+        }
+        System.arraycopy(row, 0, copy, 0, copy.length);
+        filled.offer(copy);
+    }
+
+    long getDropped() {
+        return dropped;
+    }
+
+    private void run() {
+        StringBuilder line = new StringBuilder(256);
+        try {
+            while (!closed || !filled.isEmpty()) {
+                long[] row = filled.poll(100, TimeUnit.MILLISECONDS);
+                if (row == null) {
+                    out.flush(); // Diam sebentar: pastikan file bisa dibaca saat game masih jalan
+                    continue;
+                }
+                line.setLength(0);
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) line.append(',');
+                    if (i == 0 || i >= rawFrom) line.append(row[i]);
+                    else if (i < microsFrom) appendFixed(line, row[i], 1_000_000);
+                    else appendFixed(line, row[i], 1_000);
+                }
+                line.append('\n');
+                out.append(line);
+                free.offer(row);
+            }
+        } catch (IOException | InterruptedException e) {
+            closed = true;
+        } finally {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Tidak ada lagi yang bisa dilakukan
+            }
+        }
+    }
+
+    // nanos / unit dengan tiga desimal, tanpa String.format
+    private static void appendFixed(StringBuilder line, long nanos, long unit) {
+        long thousandths = nanos * 1000 / unit;
+        line.append(thousandths / 1000).append('.');
+        long fraction = thousandths % 1000;
+        if (fraction < 100) line.append('0');
+        if (fraction < 10) line.append('0');
+        line.append(fraction);
+    }
+
+    /** Tulis baris yang masih antre lalu tutup file (menunggu paling lama 2 detik). */
+    void close() {
+        closed = true;
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
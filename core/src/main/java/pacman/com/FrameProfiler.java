@@ -0,0 +1,244 @@
+package pacman.com;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Pengukur waktu per fase frame: input, update Pacman, AI hantu, setiap pass tabrakan, dan gambar labirin/dot/
+ * entity/HUD. {@link #start}/{@link #stop} hanya membaca {@link System#nanoTime()} ke array yang dialokasikan sekali,
+ * jadi aman dipanggil setiap step. Di akhir frame Main menambahkan hitungan draw call dan texture bind dari
+ * GLProfiler, sedangkan jumlah dan waktu GC dibaca di sini.
+ *
+ * <p>Persentil waktu frame dihitung dari {@link #WINDOW} frame terakhir, dibaca overlay (F3) dan JMX
+ * ({@link FrameProfilerMXBean}). Setiap frame juga bisa ditulis ke CSV di thread terpisah ({@link #startCsv}).
+ * Getter yang dibaca dari thread lain (JMX) disinkronkan; yang hanya dipakai thread render tidak.
+ */
+public class FrameProfiler implements FrameProfilerMXBean {
+    // Fase
+    public static final int INPUT = 0;
+    public static final int PACMAN = 1;
+    public static final int GHOST_AI = 2; // Termasuk peta jarak NavigationField
+    public static final int CONTACTS = 3; // SpatialHash + tes AABB di sekitar Pacman
+    public static final int DOT_COLLISIONS = 4;
+    public static final int POWER_UP_COLLISIONS = 5;
+    public static final int GHOST_COLLISIONS = 6;
+    public static final int MAZE_DRAW = 7;
+    public static final int DOT_DRAW = 8;
+    public static final int ENTITY_DRAW = 9;
+    public static final int HUD_DRAW = 10; // Termasuk batch.end(), jadi flush SpriteBatch terakhir masuk di sini
+    public static final int PHASE_COUNT = 11;
+
+    private static final String[] PHASE_NAMES = {
+        "input", "pacman", "ghost_ai", "contacts", "dot_hits", "power_up_hits", "ghost_hits",
+        "maze_draw", "dot_draw", "entity_draw", "hud_draw"
+    };
+
+    /** Jumlah frame terakhir yang dipakai untuk persentil dan rata-rata fase. */
+    public static final int WINDOW = 1024;
+    public static final String MBEAN_NAME = "pacman.com:type=FrameProfiler";
+
+    /** Instance yang selalu mati, dipakai sebagai default agar pemanggil tidak perlu cek null. */
+    public static final FrameProfiler DISABLED = new FrameProfiler(false);
+
+    private final boolean enabled;
+    private final long[] phaseStart = new long[PHASE_COUNT];
+    private final long[] phaseNanos = new long[PHASE_COUNT]; // Frame yang sedang berjalan
+    private long frameStart;
+    private long lastFrameStart;
+    private long frameNanos; // Jarak dari awal frame sebelumnya (waktu frame yang dilihat pemain)
+
+    // Ring buffer WINDOW frame terakhir
+    private final long[] frameWindow = new long[WINDOW];
+    private final long[] workWindow = new long[WINDOW]; // Waktu CPU render() sendiri
+    private final long[] phaseWindow = new long[WINDOW * PHASE_COUNT];
+    private final long[] phaseWindowTotal = new long[PHASE_COUNT];
+    private final long[] sortScratch = new long[WINDOW];
+    private long frameCount;
+
+    private int drawCalls;
+    private int textureBindings;
+    private final List<GarbageCollectorMXBean> collectors;
+    private long gcCount;
+    private long gcMillis;
+
+    private volatile FrameCsvWriter csv; // Dibaca juga dari thread JMX
+    private final long[] csvRow = new long[3 + PHASE_COUNT + 4];
+    private ObjectName registeredName;
+
+    public FrameProfiler() {
+        this(true);
+    }
+
+    private FrameProfiler(boolean enabled) {
+        this.enabled = enabled;
+        this.collectors = enabled ? ManagementFactory.getGarbageCollectorMXBeans() : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void start(int phase) {
+        if (enabled) phaseStart[phase] = System.nanoTime();
+    }
+
+    public void stop(int phase) {
+        if (enabled) phaseNanos[phase] += System.nanoTime() - phaseStart[phase];
+    }
+
+    /** Panggil di awal Main.render. Fase yang dijalankan beberapa kali (beberapa step) dijumlahkan sampai endFrame. */
+    public void beginFrame() {
+        if (!enabled) return;
+        long now = System.nanoTime();
+        frameNanos = lastFrameStart == 0 ? 0 : now - lastFrameStart;
+        lastFrameStart = now;
+        frameStart = now;
+        Arrays.fill(phaseNanos, 0);
+    }
+
+    /** Panggil di akhir Main.render dengan hitungan GLProfiler frame ini. */
+    public void endFrame(int drawCalls, int textureBindings) {
+        if (!enabled) return;
+        long workNanos = System.nanoTime() - frameStart;
+        long totalGcCount = 0, totalGcMillis = 0;
+        for (int i = 0; i < collectors.size(); i++) {
+            GarbageCollectorMXBean collector = collectors.get(i);
+            totalGcCount += Math.max(0, collector.getCollectionCount());
+            totalGcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        long frameGcCount = frameCount == 0 ? 0 : totalGcCount - gcCount;
+        long frameGcMillis = frameCount == 0 ? 0 : totalGcMillis - gcMillis;
+
+        synchronized (this) {
+            int slot = (int) (frameCount % WINDOW);
+            frameWindow[slot] = frameNanos;
+            workWindow[slot] = workNanos;
+            for (int phase = 0; phase < PHASE_COUNT; phase++) {
+                int index = slot * PHASE_COUNT + phase;
+                phaseWindowTotal[phase] += phaseNanos[phase] - phaseWindow[index];
+                phaseWindow[index] = phaseNanos[phase];
+            }
+            frameCount++;
+            this.drawCalls = drawCalls;
+            this.textureBindings = textureBindings;
+            gcCount = totalGcCount;
+            gcMillis = totalGcMillis;
+        }
+
+        FrameCsvWriter writer = csv;
+        if (writer != null) {
+            csvRow[0] = frameCount;
+            csvRow[1] = frameNanos;
+            csvRow[2] = workNanos;
+            System.arraycopy(phaseNanos, 0, csvRow, 3, PHASE_COUNT);
+            csvRow[3 + PHASE_COUNT] = drawCalls;
+            csvRow[4 + PHASE_COUNT] = textureBindings;
+            csvRow[5 + PHASE_COUNT] = frameGcCount;
+            csvRow[6 + PHASE_COUNT] = frameGcMillis;
+            writer.submit(csvRow);
+        }
+    }
+
+    /** Tulis setiap frame berikutnya ke {@code file} (ditimpa) dari thread latar belakang. */
+    public void startCsv(File file) throws IOException {
+        stopCsv();
+        StringBuilder header = new StringBuilder("frame,frame_ms,work_ms");
+        for (String name : PHASE_NAMES) header.append(',').append(name).append("_us");
+        header.append(",draw_calls,texture_bindings,gc_count,gc_ms");
+        csv = new FrameCsvWriter(file, header.toString(), csvRow.length, 3, 3 + PHASE_COUNT);
+    }
+
+    /** Selesaikan file CSV (baris yang masih antre tetap ditulis). */
+    public void stopCsv() {
+        if (csv == null) return;
+        csv.close();
+        csv = null;
+    }
+
+    /** Daftarkan ke platform MBeanServer sebagai {@value #MBEAN_NAME}; gagal (misalnya nama sudah dipakai) tidak fatal. */
+    public boolean registerMBean() {
+        if (!enabled || registeredName != null) return registeredName != null;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            server.registerMBean(this, name);
+            registeredName = name;
+            return true;
+        } catch (JMException e) {
+            return false;
+        }
+    }
+
+    public void unregisterMBean() {
+        if (registeredName == null) return;
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        } catch (JMException e) {
+            // Sudah tidak terdaftar
+        }
+        registeredName = null;
+    }
+
+    /** Hentikan CSV dan lepas MBean. */
+    public void dispose() {
+        stopCsv();
+        unregisterMBean();
+    }
+
+    /** Nama fase untuk indeks konstanta fase. */
+    public static String getPhaseName(int phase) {
+        return PHASE_NAMES[phase];
+    }
+
+    /** Rata-rata waktu fase per frame dalam window (mikrodetik). */
+    public synchronized double getPhaseMeanMicros(int phase) {
+        int frames = (int) Math.min(frameCount, WINDOW);
+        return frames == 0 ? 0 : phaseWindowTotal[phase] / 1e3 / frames;
+    }
+
+    // Persentil (0-100) dari isi window; disalin ke array scratch lalu diurutkan
+    private synchronized double percentileMillis(long[] window, double percentile) {
+        int frames = (int) Math.min(frameCount, WINDOW);
+        if (frames == 0) return 0;
+        System.arraycopy(window, 0, sortScratch, 0, frames);
+        Arrays.sort(sortScratch, 0, frames);
+        int index = (int) Math.ceil(percentile / 100 * frames) - 1;
+        return sortScratch[Math.max(0, Math.min(frames - 1, index))] / 1e6;
+    }
+
+    // --- FrameProfilerMXBean ---
+
+    @Override public synchronized long getFrameCount() { return frameCount; }
+    @Override public double getFrameTimeP50Millis() { return percentileMillis(frameWindow, 50); }
+    @Override public double getFrameTimeP95Millis() { return percentileMillis(frameWindow, 95); }
+    @Override public double getFrameTimeP99Millis() { return percentileMillis(frameWindow, 99); }
+    @Override public double getWorkTimeP50Millis() { return percentileMillis(workWindow, 50); }
+    @Override public double getWorkTimeP95Millis() { return percentileMillis(workWindow, 95); }
+    @Override public double getWorkTimeP99Millis() { return percentileMillis(workWindow, 99); }
+    @Override public String[] getPhaseNames() { return PHASE_NAMES.clone(); }
+
+    @Override
+    public double[] getPhaseMeanMicros() {
+        double[] means = new double[PHASE_COUNT];
+        for (int phase = 0; phase < PHASE_COUNT; phase++) means[phase] = getPhaseMeanMicros(phase);
+        return means;
+    }
+
+    @Override public synchronized int getDrawCalls() { return drawCalls; }
+    @Override public synchronized int getTextureBindings() { return textureBindings; }
+    @Override public synchronized long getGcCount() { return gcCount; }
+    @Override public synchronized long getGcTimeMillis() { return gcMillis; }
+
+    @Override
+    public long getDroppedCsvSamples() {
+        FrameCsvWriter writer = csv;
+        return writer == null ? 0 : writer.getDropped();
+    }
+}
@@ -0,0 +1,37 @@
+package pacman.com;
+
+/**
+ * Angka {@link FrameProfiler} yang bisa dibaca langsung lewat JMX (misalnya JConsole/VisualVM) dengan nama
+ * {@value FrameProfiler#MBEAN_NAME}. Persentil dihitung dari {@link FrameProfiler#WINDOW} frame terakhir.
+ */
+public interface FrameProfilerMXBean {
+    long getFrameCount();
+
+    double getFrameTimeP50Millis();
+
+    double getFrameTimeP95Millis();
+
+    double getFrameTimeP99Millis();
+
+    double getWorkTimeP50Millis();
+
+    double getWorkTimeP95Millis();
+
+    double getWorkTimeP99Millis();
+
+    /** Nama fase, urutannya sama dengan {@link #getPhaseMeanMicros()}. */
+    String[] getPhaseNames();
+
+    /** Rata-rata waktu per frame setiap fase (mikrodetik). */
+    double[] getPhaseMeanMicros();
+
+    int getDrawCalls();
+
+    int getTextureBindings();
+
+    long getGcCount();
+
+    long getGcTimeMillis();
+
+    long getDroppedCsvSamples();
+}
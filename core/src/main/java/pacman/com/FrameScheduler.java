@@ -0,0 +1,66 @@
+package pacman.com;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Menentukan kapan layar perlu digambar ulang, agar mesin tidak bekerja penuh saat tidak ada yang bergerak.
+ * Selama PLAYING/RESPAWNING libGDX menggambar terus menerus seperti biasa. Di menu, game over, menang, saat
+ * dijeda, atau saat jendela tidak fokus/diminimalkan, rendering dibuat non-continuous: frame baru hanya digambar
+ * saat ada input atau event jendela, dan di antaranya backend tidur pada idle FPS-nya (lihat Lwjgl3Launcher).
+ */
+public class FrameScheduler {
+    private boolean paused; // Dijeda pemain (P/ESC): simulasi dan gambar berhenti
+    private boolean background; // Jendela tidak fokus atau diminimalkan
+    private boolean loading; // Aset masih dimuat: menu menampilkan progres, game belum bisa dimulai
+    private boolean continuous = true; // Mode rendering libGDX saat ini
+    private boolean idle; // Frame berikutnya datang setelah periode non-continuous
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public void setBackground(boolean background) {
+        this.background = background;
+    }
+
+    public boolean isLoading() {
+        return loading;
+    }
+
+    public void setLoading(boolean loading) {
+        this.loading = loading;
+    }
+
+    /** Simulasi hanya maju saat aset sudah siap, tidak dijeda, dan jendela aktif. */
+    public boolean isSimulating() {
+        return !paused && !background && !loading;
+    }
+
+    /**
+     * Waktu frame untuk {@link FixedTimestep}. Setelah periode diam, delta dari backend adalah lamanya diam (bisa
+     * puluhan detik), jadi dibatasi satu step: input yang membangunkan frame ini langsung dipakai tanpa lompatan.
+     */
+    public float frameDelta(float rawDelta, float stepSeconds) {
+        return idle ? Math.min(rawDelta, stepSeconds) : rawDelta;
+    }
+
+    /**
+     * Dipanggil di akhir frame untuk memilih mode rendering frame berikutnya.
+     *
+     * @param busy masih ada yang harus diselesaikan walau state diam (input belum dipakai step, crossfade audio).
+     *             Selama {@link #isLoading()} rendering juga tetap continuous agar progres pemuatan berjalan.
+     */
+    public void update(GameState state, boolean busy) {
+        boolean moving = state == GameState.PLAYING || state == GameState.RESPAWNING;
+        boolean next = busy || loading || (moving && isSimulating());
+        idle = !next;
+        if (next != continuous) {
+            continuous = next;
+            Gdx.graphics.setContinuousRendering(next);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package pacman.com;
+
+/**
+ * Parameter keseimbangan game yang dulu di-hardcode: kecepatan dan jangkauan deteksi tiap {@link GhostType},
+ * serta peluang jenis power-up. Default-nya sama persis dengan nilai lama, sehingga game biasa tidak berubah;
+ * batch simulator mengubahnya untuk mencari nilai yang seimbang. {@link #setSwarmSize(int)} mengganti empat hantu
+ * biasa dengan gerombolan {@link GhostSwarm}.
+ */
+public class GameConfig {
+    private final float[] ghostSpeedMultipliers = new float[GhostType.values().length];
+    private final float[] detectionRangeTiles = new float[GhostType.values().length];
+    private float cherryChance = 0.35f;
+    private float cherry2Chance = 0.25f; // Sisanya PowerFood
+    private int swarmSize; // 0 = empat hantu biasa
+
+    public GameConfig() {
+        for (GhostType type : GhostType.values()) {
+            ghostSpeedMultipliers[type.ordinal()] = type.getSpeedMultiplier();
+        }
+        // Beri setiap hantu jangkauan deteksi yang berbeda untuk kepribadian unik
+        detectionRangeTiles[GhostType.RED.ordinal()] = 8;    // Merah paling peka
+        detectionRangeTiles[GhostType.PINK.ordinal()] = 6;   // Pink cukup peka
+        detectionRangeTiles[GhostType.BLUE.ordinal()] = 7;   // Biru normal
+        detectionRangeTiles[GhostType.ORANGE.ordinal()] = 5; // Oranye paling tidak peka
+    }
+
+    public GameConfig copy() {
+        GameConfig copy = new GameConfig();
+        System.arraycopy(ghostSpeedMultipliers, 0, copy.ghostSpeedMultipliers, 0, ghostSpeedMultipliers.length);
+        System.arraycopy(detectionRangeTiles, 0, copy.detectionRangeTiles, 0, detectionRangeTiles.length);
+        copy.cherryChance = cherryChance;
+        copy.cherry2Chance = cherry2Chance;
+        copy.swarmSize = swarmSize;
+        return copy;
+    }
+
+    /** Kecepatan dasar hantu dalam piksel per detik. */
+    public float getGhostSpeed(GhostType type) {
+        return 100f * ghostSpeedMultipliers[type.ordinal()];
+    }
+
+    public float getGhostSpeedMultiplier(GhostType type) {
+        return ghostSpeedMultipliers[type.ordinal()];
+    }
+
+    public GameConfig setGhostSpeedMultiplier(GhostType type, float multiplier) {
+        ghostSpeedMultipliers[type.ordinal()] = multiplier;
+        return this;
+    }
+
+    /** Jarak (dalam tile) di mana hantu mulai mengejar Pacman. */
+    public float getDetectionRangeTiles(GhostType type) {
+        return detectionRangeTiles[type.ordinal()];
+    }
+
+    public GameConfig setDetectionRangeTiles(GhostType type, float tiles) {
+        detectionRangeTiles[type.ordinal()] = tiles;
+        return this;
+    }
+
+    public float getCherryChance() {
+        return cherryChance;
+    }
+
+    public float getCherry2Chance() {
+        return cherry2Chance;
+    }
+
+    /** Peluang Cherry dan Cherry2; sisanya (1 - cherry - cherry2) menjadi PowerFood. */
+    public GameConfig setPowerUpChances(float cherryChance, float cherry2Chance) {
+        this.cherryChance = cherryChance;
+        this.cherry2Chance = cherry2Chance;
+        return this;
+    }
+
+    public float getPowerFoodChance() {
+        return Math.max(0f, 1f - cherryChance - cherry2Chance);
+    }
+
+    public int getSwarmSize() {
+        return swarmSize;
+    }
+
+    /** Jumlah hantu mode gerombolan; 0 (default) berarti empat hantu biasa. */
+    public GameConfig setSwarmSize(int swarmSize) {
+        this.swarmSize = Math.max(0, swarmSize);
+        return this;
+    }
+}
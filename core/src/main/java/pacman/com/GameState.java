@@ -0,0 +1,9 @@
+package pacman.com;
+
+public enum GameState {
+    MENU,
+    PLAYING,
+    RESPAWNING,
+    GAME_OVER,
+    GAME_WON
+}
@@ -0,0 +1,513 @@
+package pacman.com;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Seluruh logika game tanpa Gdx.input, Gdx.graphics, Gdx.audio, atau Texture.
+ * Main hanya mengisi {@link InputFrame}, memanggil {@link #step(float, InputFrame)}, lalu menggambar hasilnya,
+ * sehingga simulasi ini juga bisa dijalankan di test biasa atau backend headless.
+ */
+public class GameWorld {
+
+    /** Kejadian yang perlu direspon di luar simulasi (misalnya suara). */
+    public interface Listener {
+        void onGameStarted();
+
+        void onPacmanDied();
+
+        void onPowerFoodEaten();
+
+        void onPowerFoodExpired();
+
+        void onRestart();
+    }
+
+    private static final Listener NO_LISTENER = new Listener() {
+        @Override public void onGameStarted() { }
+        @Override public void onPacmanDied() { }
+        @Override public void onPowerFoodEaten() { }
+        @Override public void onPowerFoodExpired() { }
+        @Override public void onRestart() { }
+    };
+
+    // Id entity di SpatialHash: Pacman, lalu hantu biasa, hantu gerombolan, dan power-up (urut indeks array)
+    private static final int PACMAN_ID = 0;
+    // Naikkan jika isi writeSnapshot berubah (2: GhostSwarm, 3: RailMover, 4: hantu keluar kandang)
+    private static final int SNAPSHOT_VERSION = 4;
+
+    private final Maze maze;
+    private Pacman pacman;
+    private Array<Ghost> ghosts;
+    private GhostSwarm swarm; // Mode gerombolan; kosong (0 hantu) di game biasa
+    private NavigationField navigation; // Peta jarak BFS ke Pacman, dibagi semua hantu
+    private final RailGraph rails; // Lorong antar simpul tempat Pacman dan hantu bergerak
+    private DotGrid dots;
+    private final PowerUpManager powerUpManager;
+    private final Array<PowerUp> powerUps; // Power-up aktif milik powerUpManager (paling banyak MAX_ACTIVE)
+    private final SpatialHash spatialHash; // Broad-phase tabrakan per tile
+    private final ContactList contacts = new ContactList(); // Kontak dengan Pacman pada step ini
+    private final IntArray candidates = new IntArray(); // Hasil query SpatialHash yang dipakai ulang
+
+    private int score;
+    private int lives;
+    private float gameTime;
+    private float powerUpSpawnTimer;
+    private final SeededRandom random;
+    private final long seed;
+    private final GameConfig config;
+
+    private GameState currentState;
+    private float respawnTimer, powerUpRemainingTime; // untuk waktu hidup, untuk waktu power upnya
+    private Listener listener = NO_LISTENER;
+    private final Trace trace; // Jejak kejadian (mode hantu, mati, power-up, state) di ring buffer
+    private int tick; // Nomor step simulasi, dicap ke setiap record trace
+    private FrameProfiler profiler = FrameProfiler.DISABLED; // Waktu per fase step (Main memasang profiler-nya)
+
+    public GameWorld() {
+        this(new GameConfig(), new Random().nextLong());
+    }
+
+    /**
+     * Dunia dengan parameter keseimbangan {@code config} dan semua keacakan (spawn power-up, patroli hantu)
+     * diturunkan dari {@code seed}, sehingga seed yang sama dengan input yang sama menghasilkan game yang sama.
+     */
+    public GameWorld(GameConfig config, long seed) {
+        this(config, seed, new Maze());
+    }
+
+    /** Sama seperti {@link #GameWorld(GameConfig, long)} tetapi dengan labirin sendiri (misalnya dari {@link Maze#load}). */
+    public GameWorld(GameConfig config, long seed, Maze maze) {
+        this.config = config;
+        this.maze = maze;
+        this.seed = seed;
+        random = new SeededRandom(seed);
+        trace = Trace.fromSystemProperties();
+        spatialHash = new SpatialHash(maze.getNumCols(), maze.getNumRows(), maze.getTileSize());
+        powerUpManager = new PowerUpManager(maze);
+        powerUps = powerUpManager.getActive();
+        rails = new RailGraph(maze);
+        startGame();
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : NO_LISTENER;
+    }
+
+    /** Ukur fase step (Pacman, AI hantu, tabrakan) ke {@code profiler}; null = tidak diukur. */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler != null ? profiler : FrameProfiler.DISABLED;
+    }
+
+    private void startGame() {
+        rails.refresh();
+        if (pacman == null) {
+            createEntities();
+        } else {
+            resetEntities(); // Restart: objek yang sudah ada dipakai ulang, tidak ada alokasi besar baru
+        }
+        initializeDots(); // dimunculkan dotnya
+
+        powerUpManager.clear(); // skill game sebelumnya kembali ke pool
+        spatialHash.clear();
+        updateSpatialHash();
+        powerUpSpawnTimer = 5f; //waktu awal (timer) selama 5 detik sebelum power-up pertama muncul di dalam game.
+
+        score = 0; // score awal
+        lives = 3; // darah awal
+        setState(GameState.MENU); // Mulai dari menu
+        gameTime = 0; //waktu awal
+        respawnTimer = 0;
+        powerUpRemainingTime = 0;
+    }
+
+    private void createEntities() {
+        // Labirin dibuat sekali di konstruktor; titik spawn dibaca dari labirin, bukan angka tetap
+        Vector2 pacmanStartPos = spawnPosition(maze.getPacmanTileX(), maze.getPacmanTileY()); //lokasi pacman
+        pacman = new Pacman(pacmanStartPos, maze, rails);
+
+        navigation = new NavigationField(maze);
+        navigation.setTarget(pacman.getCenter().x, pacman.getCenter().y);
+
+        ghosts = new Array<>();
+        if (config.getSwarmSize() == 0) {
+            for (GhostType type : GhostType.values()) { //lokasi ghost
+                ghosts.add(new Ghost(spawnPosition(maze.getGhostTileX(type), maze.getGhostTileY(type)), type,
+                    pacman, maze, navigation, rails, config, new SeededRandom(random.nextLong())));
+            }
+            for (int i = 0; i < ghosts.size; i++) ghosts.get(i).attachTrace(trace);
+            swarm = new GhostSwarm(maze, navigation, config, 0, 0); // Tanpa swarm, urutan acak tetap seperti dulu
+        } else {
+            swarm = new GhostSwarm(maze, navigation, config, config.getSwarmSize(), random.nextLong());
+        }
+        dots = new DotGrid(maze.getNumCols(), maze.getNumRows(), maze.getTileSize());
+    }
+
+    // Sama dengan createEntities (termasuk urutan angka acak yang diambil), tapi tanpa membuat objek baru
+    private void resetEntities() {
+        pacman.respawn();
+        navigation.invalidate();
+        navigation.setTarget(pacman.getCenter().x, pacman.getCenter().y);
+        if (config.getSwarmSize() == 0) {
+            for (int i = 0; i < ghosts.size; i++) ghosts.get(i).reset(random.nextLong());
+        } else {
+            swarm.reset(random.nextLong());
+        }
+    }
+
+    // Sudut kiri-bawah entity di tile spawn (5 piksel dari tepi tile pada ukuran tile 40)
+    private Vector2 spawnPosition(int tileX, int tileY) {
+        float tileSize = maze.getTileSize();
+        return new Vector2(tileX * tileSize + tileSize / 8, tileY * tileSize + tileSize / 8);
+    }
+
+    /**
+     * Maju satu langkah simulasi sebesar {@code delta} detik. Main memanggilnya dengan langkah tetap
+     * ({@link FixedTimestep}) sehingga hasilnya tidak bergantung pada FPS.
+     */
+    public void step(float delta, InputFrame input) {
+        trace.setTick(++tick);
+        //Jika game dalam mode menu, tunggu tombol start (ENTER).
+        if (currentState == GameState.MENU) {
+            if (input.isStartPressed()) {
+                setState(GameState.PLAYING);
+                listener.onGameStarted();
+            }
+            return;
+        }
+        //Kalau pemain menekan tombol R, game di-reset lewat restartGame()
+        // dan step() langsung berhenti (return).
+        if (input.isRestartPressed()) {
+            restartGame();
+            return;
+        }
+        //Posisi akhir step sebelumnya disimpan untuk interpolasi render
+        pacman.storePreviousPosition();
+        for (int i = 0; i < ghosts.size; i++) { ghosts.get(i).storePreviousPosition(); }
+        swarm.storePreviousPositions();
+        //Kalau game dalam status PLAYING, maka:
+        if (currentState == GameState.PLAYING) {
+            //Total waktu game ditambah.
+            gameTime += delta;
+            //Hitung mundur timer Power-Up
+            powerUpSpawnTimer -= delta;
+            //Setiap detik, timer dikurangi (delta).
+            if (powerUpSpawnTimer <= 0) {
+                //Kalau habis, spawn PowerUp baru.
+                spawnRandomPowerUp();
+                //Timer di-reset ke angka acak antara 8-15 detik.
+                powerUpSpawnTimer = 8f + random.nextFloat() * 7f;
+            }
+            //Perbarui posisi dan logika dari Pacman, Ghost, dan PowerUp.
+            profiler.start(FrameProfiler.PACMAN);
+            if (input.hasDirection()) pacman.setNextDirection(input.getDirection());
+            pacman.update(delta);
+            profiler.stop(FrameProfiler.PACMAN);
+            profiler.start(FrameProfiler.GHOST_AI);
+            // Peta jarak hanya dihitung ulang kalau Pacman masuk tile baru
+            navigation.setTarget(pacman.getCenter().x, pacman.getCenter().y);
+            for (int i = 0; i < ghosts.size; i++) { ghosts.get(i).update(delta); }
+            swarm.update(delta, pacman.getCenter().x, pacman.getCenter().y);
+            profiler.stop(FrameProfiler.GHOST_AI);
+            powerUpManager.update(delta);
+            //Cek apakah Pacman menyentuh dot, PowerUp, atau Ghost.
+            profiler.start(FrameProfiler.CONTACTS);
+            updateSpatialHash();
+            findContacts();
+            profiler.stop(FrameProfiler.CONTACTS);
+            profiler.start(FrameProfiler.DOT_COLLISIONS);
+            checkDotCollisions();
+            profiler.stop(FrameProfiler.DOT_COLLISIONS);
+            profiler.start(FrameProfiler.POWER_UP_COLLISIONS);
+            checkPowerUpCollisions();
+            profiler.stop(FrameProfiler.POWER_UP_COLLISIONS);
+            profiler.start(FrameProfiler.GHOST_COLLISIONS);
+            checkGhostCollisions();
+            profiler.stop(FrameProfiler.GHOST_COLLISIONS);
+            compactPowerUps();
+            //Kalau semua titik (dot) habis, berarti menang.
+            if (dots.getCount() == 0) {
+                setState(GameState.GAME_WON);
+            }
+            //Jika dalam mode RESPWANING/hidup ulang
+        } else if (currentState == GameState.RESPAWNING) {
+            //Kalau Pacman mati dan sedang nunggu respawn:
+            respawnTimer -= delta;
+            //Tunggu beberapa detik (respawnTimer) -> setelah itu reset posisi dan lanjut main lagi.
+            if (respawnTimer <= 0) {
+                resetPositionsAfterDeath();
+                setState(GameState.PLAYING);
+            }
+        }
+
+        if (powerUpRemainingTime > 0) {
+            //Hitung mundur durasi PowerUp (misalnya efek "makan Ghost").
+            powerUpRemainingTime -= delta;
+            if (powerUpRemainingTime <= 0) {
+                listener.onPowerFoodExpired();
+
+                // Reset ghost state jika perlu
+                for (int i = 0; i < ghosts.size; i++) {
+                    ghosts.get(i).setScared(false);
+                }
+                swarm.setScared(false);
+            }
+        }
+    }
+
+    private int ghostId(int index) { return 1 + index; }
+    private int swarmId(int index) { return 1 + ghosts.size + index; }
+    private int powerUpId(int index) { return 1 + ghosts.size + swarm.size() + index; }
+
+    /** Indeks hantu gerombolan untuk id {@link #getSpatialHash()} ini, atau -1 jika id-nya bukan hantu gerombolan. */
+    public int getSwarmIndex(int id) {
+        int index = id - swarmId(0);
+        return index >= 0 && index < swarm.size() ? index : -1;
+    }
+
+    // Pindahkan entity yang bergerak ke sel tile barunya; yang masih di tile yang sama tidak disentuh.
+    // Power-up diam, jadi didaftarkan saat muncul dan dihapus saat diambil/kedaluwarsa.
+    private void updateSpatialHash() {
+        spatialHash.update(PACMAN_ID, pacman.getCenter().x, pacman.getCenter().y);
+        for (int i = 0; i < ghosts.size; i++) {
+            Ghost ghost = ghosts.get(i);
+            spatialHash.update(ghostId(i), ghost.getCenter().x, ghost.getCenter().y);
+        }
+        for (int i = 0; i < swarm.size(); i++) {
+            spatialHash.update(swarmId(i), swarm.getCenterX(i), swarm.getCenterY(i));
+        }
+    }
+
+    private void updateSpatialHash(PowerUp powerUp, int index) {
+        Vector2 position = powerUp.getPosition(), size = powerUp.getSize();
+        spatialHash.update(powerUpId(index), position.x + size.x / 2, position.y + size.y / 2);
+    }
+
+    // Power-up yang diambil/kedaluwarsa kembali ke pool; indeks sisanya bergeser, jadi id-nya didaftarkan ulang
+    private void compactPowerUps() {
+        int before = powerUps.size;
+        if (powerUpManager.compact() == 0) return;
+        for (int i = 0; i < before; i++) spatialHash.remove(powerUpId(i));
+        for (int i = 0; i < powerUps.size; i++) updateSpatialHash(powerUps.get(i), i);
+    }
+
+    /**
+     * Broad-phase: ambil entity di sel sekitar Pacman dari SpatialHash, lalu tes AABB hanya untuk mereka.
+     * Hasilnya pasangan (Pacman, id) urut id di {@link #contacts}, diproses checkPowerUpCollisions dan
+     * checkGhostCollisions; biaya tergantung kepadatan di sekitar Pacman, bukan jumlah entity.
+     */
+    void findContacts() {
+        contacts.clear();
+        candidates.clear();
+        Vector2 position = pacman.getPosition(), size = pacman.getSize();
+        spatialHash.query(position.x, position.y, size.x, size.y, candidates);
+        for (int i = 0; i < candidates.size; i++) {
+            int id = candidates.get(i);
+            if (id != PACMAN_ID && touchesPacman(id)) contacts.add(PACMAN_ID, id);
+        }
+        contacts.sort(); // Urutan tetap (hantu biasa, gerombolan, power-up) agar simulasi deterministik
+    }
+
+    private boolean touchesPacman(int id) {
+        int index = id - ghostId(0);
+        if (index < ghosts.size) return pacman.collidesWith(ghosts.get(index));
+        index -= ghosts.size;
+        if (index < swarm.size()) {
+            Vector2 position = pacman.getPosition(), size = pacman.getSize();
+            return swarm.overlaps(index, position.x, position.y, size.x, size.y);
+        }
+        PowerUp powerUp = powerUps.get(index - swarm.size());
+        return powerUp.isActive() && pacman.collidesWith(powerUp);
+    }
+
+    void checkGhostCollisions() {
+        //Mengecek apakah permainan sedang berjalan
+        if (currentState != GameState.PLAYING) return;
+        int firstSwarmId = swarmId(0), firstPowerUpId = powerUpId(0);
+        for (int c = 0; c < contacts.size(); c++) {
+            int id = contacts.getSecond(c);
+            if (id >= firstPowerUpId) break; // Kontak urut id: sisanya power-up
+            if (id < firstSwarmId) {
+                Ghost ghost = ghosts.get(id - ghostId(0));
+                // Kotak Ghost dan Pacman saling tumpang tindih (sudah dites AABB di findContacts).
+                if (ghost.isScared()) {
+                    trace.record(ghost.getTraceId(), Trace.GHOST_EATEN, ghost.getPosition().x, ghost.getPosition().y);
+                    ghost.respawn();
+                    //Ghost akan dihapus dari map dan dikembalikan ke kandang.
+                    spatialHash.update(id, ghost.getCenter().x, ghost.getCenter().y);
+                    score += 200;//tambah score 200
+                } else if (!pacman.isPoweredUp()) {
+                    // Pacman paling banyak mati sekali per step, walau beberapa hantu menumpuk di tile yang sama
+                    killPacman();
+                    return;
+                }
+            } else {
+                // Hantu gerombolan: Pacman paling banyak mati sekali per step
+                int i = id - firstSwarmId;
+                if (swarm.isScared(i)) {
+                    trace.record(1 + swarm.getType(i).ordinal(), Trace.GHOST_EATEN, swarm.getX(i), swarm.getY(i));
+                    swarm.respawn(i);
+                    spatialHash.update(id, swarm.getCenterX(i), swarm.getCenterY(i));
+                    score += 200;
+                } else if (!pacman.isPoweredUp()) {
+                    killPacman();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void killPacman() {
+        //Pacman mati (animasi, suara).
+        pacman.die();
+        trace.record(Trace.PACMAN, Trace.PACMAN_DIED, pacman.getPosition().x, pacman.getPosition().y);
+        listener.onPacmanDied();
+        lives--;//darah berkurang
+        if (lives <= 0) {
+            setState(GameState.GAME_OVER);// game kalah
+        } else {
+            setState(GameState.RESPAWNING); //hidup kembali
+            respawnTimer = 1.5f; //1.5 detik untuk respawn
+        }
+    }
+
+    private void resetPositionsAfterDeath() {
+        pacman.respawn(); // Ganti ini dari sekedar set position
+        for (int i = 0; i < ghosts.size; i++) {
+            ghosts.get(i).respawn();
+        }
+        swarm.respawnAll();
+        updateSpatialHash();
+        pacman.setPoweredUp(false, 0);
+    }
+
+    public void restartGame() {
+        listener.onRestart();
+        startGame(); //Mulai game dari awal
+    }
+
+    void initializeDots() {
+        dots.clear();
+        // Dot diletakkan sesuai file labirin ('.' dan '*')
+        for (int y = 0; y < maze.getNumRows(); y++) {
+            for (int x = 0; x < maze.getNumCols(); x++) {
+                if (maze.hasDotAt(x, y)) {
+                    dots.add(x, y);
+                }
+            }
+        }
+    }
+
+    void spawnRandomPowerUp() {
+        // Tile diambil dari tabel tile legal PowerUpManager; instance dipakai ulang dari pool
+        PowerUp powerUp = powerUpManager.spawn(random, config);
+        if (powerUp == null) return;
+        updateSpatialHash(powerUp, powerUps.size - 1);
+        trace.record(Trace.WORLD, Trace.POWER_UP_SPAWNED, powerUp.getPosition().x, powerUp.getPosition().y);
+    }
+
+    void checkDotCollisions() {
+        // Hanya tile di bawah Pacman yang dicek, bukan semua dot
+        int eaten = dots.eat(pacman.getPosition().x, pacman.getPosition().y, pacman.getSize().x, pacman.getSize().y);
+        score += 10 * eaten;
+    }
+
+    void checkPowerUpCollisions() {
+        int firstPowerUpId = powerUpId(0);
+        for (int c = 0; c < contacts.size(); c++) {
+            int id = contacts.getSecond(c);
+            if (id < firstPowerUpId) continue;
+            PowerUp powerUp = powerUps.get(id - firstPowerUpId);
+            if (powerUp.isActive()) {
+                score += powerUp.getScoreValue();
+                trace.record(Trace.PACMAN, Trace.POWER_UP_COLLECTED, powerUp.getPosition().x, powerUp.getPosition().y);
+                if (powerUp instanceof PowerFood) {
+                    pacman.setPoweredUp(true, 5f);
+                    for (int g = 0; g < ghosts.size; g++) ghosts.get(g).setScared(true);
+                    swarm.setScared(true);
+                    listener.onPowerFoodEaten();
+                    powerUpRemainingTime = 5f;
+                }
+                powerUp.collect();
+            }
+        }
+    }
+
+    /**
+     * Tulis seluruh state simulasi (tanpa trace dan listener) untuk keyframe replay. Dengan input yang sama,
+     * dunia yang dipulihkan lewat {@link #readSnapshot(DataInput)} berjalan persis sama seperti aslinya.
+     */
+    public void writeSnapshot(DataOutput out) throws IOException {
+        out.writeByte(SNAPSHOT_VERSION);
+        out.writeInt(tick);
+        out.writeByte(currentState.ordinal());
+        out.writeInt(score);
+        out.writeByte(lives);
+        out.writeFloat(gameTime);
+        out.writeFloat(powerUpSpawnTimer);
+        out.writeFloat(respawnTimer);
+        out.writeFloat(powerUpRemainingTime);
+        out.writeLong(random.getState());
+        pacman.writeState(out);
+        for (int i = 0; i < ghosts.size; i++) ghosts.get(i).writeState(out);
+        swarm.writeState(out);
+        dots.writeState(out);
+        powerUpManager.writeState(out);
+    }
+
+    /** Pulihkan state dari {@link #writeSnapshot(DataOutput)}. Listener tidak dipanggil. */
+    public void readSnapshot(DataInput in) throws IOException {
+        int version = in.readByte();
+        if (version != SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version " + version);
+        tick = in.readInt();
+        currentState = GameState.values()[in.readByte()];
+        score = in.readInt();
+        lives = in.readByte();
+        gameTime = in.readFloat();
+        powerUpSpawnTimer = in.readFloat();
+        respawnTimer = in.readFloat();
+        powerUpRemainingTime = in.readFloat();
+        random.setState(in.readLong());
+        pacman.readState(in);
+        for (int i = 0; i < ghosts.size; i++) ghosts.get(i).readState(in);
+        swarm.readState(in);
+        dots.readState(in);
+        powerUpManager.readState(in);
+        spatialHash.clear();
+        updateSpatialHash();
+        for (int i = 0; i < powerUps.size; i++) updateSpatialHash(powerUps.get(i), i);
+        trace.setTick(tick);
+        navigation.invalidate();
+        navigation.setTarget(pacman.getCenter().x, pacman.getCenter().y);
+    }
+
+    // Semua perpindahan state lewat sini agar tercatat di trace
+    private void setState(GameState state) {
+        if (state != currentState) {
+            currentState = state;
+            trace.record(state.ordinal(), Trace.STATE_CHANGED, pacman.getPosition().x, pacman.getPosition().y);
+        }
+    }
+
+    public GameConfig getConfig() { return config; }
+    public long getSeed() { return seed; }
+    public Maze getMaze() { return maze; }
+    public Pacman getPacman() { return pacman; }
+    public Array<Ghost> getGhosts() { return ghosts; }
+    public GhostSwarm getSwarm() { return swarm; }
+    public SpatialHash getSpatialHash() { return spatialHash; }
+    public NavigationField getNavigation() { return navigation; }
+    public DotGrid getDots() { return dots; }
+    public Array<PowerUp> getPowerUps() { return powerUps; }
+    public int getScore() { return score; }
+    public int getLives() { return lives; }
+    public float getGameTime() { return gameTime; }
+    public GameState getState() { return currentState; }
+    public Trace getTrace() { return trace; }
+    public int getTick() { return tick; }
+}
@@ -1,121 +1,159 @@
 package pacman.com;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class Ghost extends Entity {
     private final GhostType type;
     private final float speed;
+    private final float detectionRange; // Jarak (piksel) di mana hantu mulai mengejar
     private final Vector2 startPosition;
     private boolean isScared;
     private float scaredTime;
     private final Pacman pacman;
     private final Maze maze;
-    private Vector2 currentDirection;
-    private final Random random;
+    private final NavigationField navigation; // Peta jarak BFS ke Pacman, dibagi semua hantu
+    private final RailMover mover; // Posisi di graf rel; position selalu diturunkan dari sini
+    private int heading = RailGraph.DOWN; // Arah terakhir, dipakai melarang berbalik arah di simpul
+    // Spawn di dalam dinding kandang (pink dan blue di labirin klasik): hantu keluar dulu menembus dinding sampai
+    // simpul spawn-nya, sejauh releaseLeft piksel ke releaseDirection, sama lamanya seperti sebelum ada graf rel
+    private int releaseDirection = RailGraph.NONE;
+    private float releaseLeft;
+    private final SeededRandom random;
 
-    private final Texture normalTexture;
-    private final Texture scaredTexture;
+    private static final String SCARED_TEXTURE = "scaredGhost.png";
 
-    public Ghost(Vector2 startPosition, GhostType type, Pacman pacman, Maze maze) {
-        super(startPosition, GhostType.getTexturePath(type), new Vector2(30, 30));
+    // Wadah sementara yang dipakai ulang setiap frame agar update() tidak membuat objek baru
+    private final int[] validDirections = new int[RailGraph.DX.length];
+    private final Vector2 center = new Vector2();
+    private Trace trace = Trace.DISABLED;
+    private int traceMode; // Mode terakhir yang dicatat ke trace (Trace.GHOST_CHASE/PATROL/SCARED)
 
-        this.normalTexture = new Texture(GhostType.getTexturePath(type));
-        this.scaredTexture = new Texture("scaredGhost.png");
-        this.texture = normalTexture;
+    /**
+     * Hantu dengan kecepatan dan jangkauan dari {@code config}, dan patroli acak dari {@code random} (untuk simulasi
+     * yang bisa diulang). Bergerak di atas {@code rails}; kalau {@code startPosition} ada di dinding, hantu bergeser
+     * dulu ke simpul spawn yang segaris dengannya.
+     */
+    public Ghost(Vector2 startPosition, GhostType type, Pacman pacman, Maze maze, NavigationField navigation,
+                 RailGraph rails, GameConfig config, SeededRandom random) {
+        super(startPosition, GhostType.getTexturePath(type), new Vector2(30, 30));
 
         this.startPosition = new Vector2(startPosition);
         this.type = type;
         this.pacman = pacman;
         this.maze = maze;
-        this.speed = type.getBaseSpeed();
-        this.random = new Random();
-        this.currentDirection = new Vector2(0, -1);
+        this.navigation = navigation;
+        this.speed = config.getGhostSpeed(type);
+        this.detectionRange = config.getDetectionRangeTiles(type) * maze.getTileSize();
+        this.random = random;
+        float tileSize = maze.getTileSize();
+        this.mover = new RailMover(rails, startPosition.x - (float) Math.floor(startPosition.x / tileSize) * tileSize);
+        placeAtStart();
+    }
+
+    /** Catat pergantian mode hantu ini ke trace milik GameWorld. */
+    public void attachTrace(Trace trace) {
+        this.trace = trace;
+    }
+
+    public int getTraceId() {
+        return 1 + type.ordinal();
+    }
+
+    // Hanya pergantian mode yang dicatat, bukan setiap frame
+    private void traceMode(int mode) {
+        if (mode != traceMode) {
+            traceMode = mode;
+            trace.record(getTraceId(), mode, position.x, position.y);
+        }
     }
 
     @Override
     public void update(float delta) {
         if (isScared) {
-            // Jika takut, lari kembali ke markas
+            // Jika takut, lari menjauhi Pacman mengikuti peta jarak yang sama
             scaredTime -= delta;
             if (scaredTime <= 0) {
                 setScared(false);
             }
-            move(delta, startPosition, true); // true = lari (fleeing)
+            traceMode(Trace.GHOST_SCARED);
+            move(delta, Trace.GHOST_SCARED);
         } else {
             // --- INI LOGIKA UTAMA YANG ANDA INGINKAN ---
-            float detectionRange = getDetectionRange();
             float distanceToPacman = getCenter().dst(pacman.getCenter());
 
             if (distanceToPacman < detectionRange) {
                 // Jika Pacman di dalam jangkauan, KEJAR!
-                System.out.println(type + " MENGEJAR PACMAN"); // Debugging
-                move(delta, pacman.getCenter(), false); // false = kejar (not fleeing)
+                traceMode(Trace.GHOST_CHASE);
+                move(delta, Trace.GHOST_CHASE);
             } else {
                 // Jika Pacman jauh, PATROLI/BERKELIARAN.
-                System.out.println(type + " BERPATROLI"); // Debugging
-                patrol(delta);
+                traceMode(Trace.GHOST_PATROL);
+                move(delta, Trace.GHOST_PATROL);
             }
         }
     }
 
-    private void move(float delta, Vector2 target, boolean isFleeing) {
-        if (isAtTileCenter() || isAboutToHitWall()) {
-            List<Vector2> validDirections = getValidDirections();
-            if (!validDirections.isEmpty()) {
-                currentDirection.set(chooseBestDirection(validDirections, target, isFleeing));
+    // Maju di sepanjang lorong; arah baru hanya dipilih saat tiba di simpul (persimpangan, tikungan, jalan buntu)
+    private void move(float delta, int mode) {
+        float remaining = speed * delta;
+        if (releaseLeft > 0) {
+            float step = Math.min(remaining, releaseLeft);
+            releaseLeft -= step;
+            remaining -= step;
+            if (releaseLeft > 0) {
+                applyPosition();
+                return;
             }
         }
-        position.mulAdd(currentDirection, speed * delta);
-    }
-
-    // Metode BARU untuk patroli/berkeliaran
-    private void patrol(float delta) {
-        // Logikanya adalah memilih arah acak di setiap persimpangan
-        if (isAtTileCenter() || isAboutToHitWall()) {
-            List<Vector2> validDirections = getValidDirections();
-            if (!validDirections.isEmpty()) {
-                // Pilih salah satu arah secara acak dari yang tersedia
-                currentDirection.set(validDirections.get(random.nextInt(validDirections.size())));
+        while (true) {
+            if (mover.isAtNode()) {
+                int direction = chooseDirection(mode);
+                mover.depart(direction);
+                if (direction == RailGraph.NONE) break;
+                heading = direction;
             }
+            remaining = mover.advance(remaining);
+            if (!mover.isAtNode()) break;
         }
-        position.mulAdd(currentDirection, speed * delta);
+        applyPosition();
     }
 
-    private float getDetectionRange() {
-        // Beri setiap hantu jangkauan deteksi yang berbeda untuk kepribadian unik
-        float tileSize = maze.getTileSize();
-        switch (type) {
-            case RED: return tileSize * 8;    // Merah paling peka
-            case PINK: return tileSize * 6;   // Pink cukup peka
-            case BLUE: return tileSize * 7;   // Biru normal
-            case ORANGE: return tileSize * 5; // Oranye paling tidak peka
-            default: return tileSize * 6;
+    private int chooseDirection(int mode) {
+        int validCount = getValidDirections();
+        if (validCount == 0) return RailGraph.NONE;
+        if (mode == Trace.GHOST_PATROL) {
+            // Patroli: pilih salah satu arah secara acak dari yang tersedia
+            return validDirections[random.nextInt(validCount)];
         }
+        return chooseBestDirection(validCount, mode == Trace.GHOST_SCARED);
     }
 
-    private Vector2 chooseBestDirection(List<Vector2> directions, Vector2 target, boolean isFleeing) {
-        Vector2 bestDirection = directions.get(0);
-        float bestMetric = -1;
+    // Pilih arah yang tile tetangganya paling dekat (kejar) atau paling jauh (kabur) dari Pacman
+    // menurut jarak jalur BFS, bukan jarak garis lurus, agar hantu tidak bolak-balik di jalan buntu.
+    private int chooseBestDirection(int count, boolean isFleeing) {
+        int bestDirection = validDirections[0];
+        RailGraph rails = mover.getRails();
+        int tileX = rails.getNodeTileX(mover.getNode());
+        int tileY = rails.getNodeTileY(mover.getNode());
+        long bestMetric = isFleeing ? -1 : Long.MAX_VALUE;
 
-        for (Vector2 dir : directions) {
-            Vector2 nextTilePos = new Vector2(getCenter()).mulAdd(dir, maze.getTileSize());
-            float distanceToTarget = nextTilePos.dst2(target);
+        for (int i = 0; i < count; i++) {
+            int dir = validDirections[i];
+            int distance = navigation.getDistance(tileX + RailGraph.DX[dir], tileY + RailGraph.DY[dir]);
+            if (distance == NavigationField.UNREACHABLE) continue;
 
             if (isFleeing) { // Cari jarak terjauh
-                if (distanceToTarget > bestMetric) {
-                    bestMetric = distanceToTarget;
+                if (distance > bestMetric) {
+                    bestMetric = distance;
                     bestDirection = dir;
                 }
             } else { // Cari jarak terdekat
-                if (bestMetric == -1 || distanceToTarget < bestMetric) {
-                    bestMetric = distanceToTarget;
+                if (distance < bestMetric) {
+                    bestMetric = distance;
                     bestDirection = dir;
                 }
             }
@@ -123,66 +161,54 @@ public class Ghost extends Entity {
         return bestDirection;
     }
 
-    // Semua metode bantuan di bawah ini biarkan seperti sebelumnya karena sudah bagus
-    private List<Vector2> getValidDirections() {
-        List<Vector2> validDirs = new ArrayList<>();
-        Vector2[] possibleDirections = {new Vector2(1, 0), new Vector2(-1, 0), new Vector2(0, 1), new Vector2(0, -1)};
-        Vector2 oppositeDirection = new Vector2(-currentDirection.x, -currentDirection.y);
-
-        for (Vector2 dir : possibleDirections) {
-            if (dir.equals(oppositeDirection) && countValidExits() > 1) {
-                continue;
-            }
-            if (isPathClear(dir)) {
-                validDirs.add(dir);
-            }
-        }
-        if (validDirs.isEmpty() && isPathClear(oppositeDirection)) {
-            validDirs.add(oppositeDirection);
-        }
-        return validDirs;
-    }
-
-    private int countValidExits() {
+    // Mengisi validDirections dengan lorong yang keluar dari simpul ini dan mengembalikan jumlahnya.
+    // Berbalik arah hanya boleh di jalan buntu.
+    private int getValidDirections() {
+        RailGraph rails = mover.getRails();
+        int node = mover.getNode();
+        int opposite = heading ^ 1;
         int count = 0;
-        Vector2[] possibleDirections = {new Vector2(1, 0), new Vector2(-1, 0), new Vector2(0, 1), new Vector2(0, -1)};
-        for (Vector2 dir : possibleDirections) {
-            if (isPathClear(dir)) {
-                count++;
+        for (int dir = 0; dir < RailGraph.DX.length; dir++) {
+            if (dir != opposite && rails.canLeave(node, dir)) {
+                validDirections[count++] = dir;
             }
         }
+        if (count == 0 && rails.canLeave(node, opposite)) {
+            validDirections[count++] = opposite;
+        }
         return count;
     }
 
-    private boolean isPathClear(Vector2 direction) {
-        if(direction.isZero()) return false;
-        Vector2 checkPos = new Vector2(position).mulAdd(direction, 2.0f);
-        Rectangle checkBounds = new Rectangle(checkPos.x, checkPos.y, size.x, size.y);
-        return !maze.collidesWithWall(checkBounds);
-    }
-
-    private boolean isAtTileCenter() {
-        float tolerance = speed * Gdx.graphics.getDeltaTime() / 2f;
+    private void placeAtStart() {
         float tileSize = maze.getTileSize();
-        Vector2 center = getCenter();
-        float tileCenterX = (float) (Math.floor(center.x / tileSize) * tileSize + tileSize / 2);
-        float tileCenterY = (float) (Math.floor(center.y / tileSize) * tileSize + tileSize / 2);
-        return center.dst(tileCenterX, tileCenterY) < tolerance;
+        int tileX = (int) Math.floor(startPosition.x / tileSize), tileY = (int) Math.floor(startPosition.y / tileSize);
+        mover.place(tileX, tileY);
+        // Simpul spawn segaris dengan tile spawn (lihat RailGraph), jadi jaraknya lurus ke satu arah
+        RailGraph rails = mover.getRails();
+        int dx = rails.getNodeTileX(mover.getNode()) - tileX, dy = rails.getNodeTileY(mover.getNode()) - tileY;
+        releaseDirection = RailGraph.directionOf(dx, dy);
+        releaseLeft = (Math.abs(dx) + Math.abs(dy)) * tileSize;
+        applyPosition();
     }
 
-    private boolean isAboutToHitWall() {
-        if(currentDirection.isZero()) return true;
-        return !isPathClear(currentDirection);
+    // Posisi dunia dari rel, atau di antara tile spawn dan simpulnya selama masih keluar dari kandang
+    private void applyPosition() {
+        mover.apply(position);
+        if (releaseLeft > 0) {
+            position.x -= RailGraph.DX[releaseDirection] * releaseLeft;
+            position.y -= RailGraph.DY[releaseDirection] * releaseLeft;
+        }
     }
 
+    // Vektor yang dikembalikan dipakai ulang; salin jika perlu disimpan
     public Vector2 getCenter() {
-        return new Vector2(position.x + size.x / 2, position.y + size.y / 2);
+        return center.set(position.x + size.x / 2, position.y + size.y / 2);
     }
 
-    // ... Metode setScared, isScared, respawn, dispose ...
+    // ... Metode setScared, isScared, respawn ...
     public void setScared(boolean scared) {
         this.isScared = scared;
-        this.texture = scared ? scaredTexture : normalTexture;
+        this.texturePath = scared ? SCARED_TEXTURE : GhostType.getTexturePath(type);
         if (scared) {
             this.scaredTime = 10f;
         }
@@ -193,15 +219,38 @@ public class Ghost extends Entity {
     }
 
     public void respawn() {
-        position.set(startPosition);
+        placeAtStart();
+        previousPosition.set(position); // Teleport, jangan diinterpolasi dari posisi lama
         setScared(false);
-        currentDirection.set(0, -1);
+        heading = RailGraph.DOWN;
     }
 
-    @Override
-    public void dispose() {
-        normalTexture.dispose();
-        scaredTexture.dispose();
+    /** Kembali seperti baru dibuat, dengan patroli acak dari {@code seed}; dipakai restart agar objek tidak dibuat ulang. */
+    public void reset(long seed) {
+        respawn();
+        scaredTime = 0;
+        random.setSeed(seed);
+        traceMode = 0;
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        writePosition(out);
+        out.writeBoolean(isScared);
+        out.writeFloat(scaredTime);
+        out.writeByte(heading);
+        out.writeFloat(releaseLeft);
+        mover.writeState(out);
+        out.writeLong(random.getState());
+    }
+
+    void readState(DataInput in) throws IOException {
+        readPosition(in);
+        setScared(in.readBoolean());
+        scaredTime = in.readFloat();
+        heading = in.readByte();
+        releaseLeft = in.readFloat();
+        mover.readState(in);
+        random.setState(in.readLong());
     }
 
 }
@@ -0,0 +1,276 @@
+package pacman.com;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Mode gerombolan (swarm): ribuan hantu disimpan sebagai array primitif paralel (posisi, arah, jenis, waktu takut),
+ * bukan satu objek {@link Ghost} per hantu, dan di-update dalam satu loop rapat tanpa panggilan virtual.
+ * Aturan geraknya sama dengan Ghost: kejar Pacman lewat {@link NavigationField} dalam jangkauan deteksi jenisnya,
+ * kabur saat takut, dan berkeliaran acak di luar jangkauan. Arah hanya dipilih saat hantu tepat di tengah tile.
+ *
+ * <p>Hantu dikelompokkan per jenis (indeks {@link #getTypeStart} sampai {@link #getTypeEnd}), sehingga renderer
+ * bisa menggambar satu jenis sekaligus dengan satu gambar.
+ */
+public class GhostSwarm {
+    /** Ukuran kotak tabrakan satu hantu, sama dengan {@link Ghost}. */
+    public static final float SIZE = 30f;
+    private static final int SAFE_TILES = 6; // Hantu tidak di-spawn sedekat ini (tile) dari spawn Pacman
+    private static final float SCARED_SECONDS = 10f;
+    // Arah: 0 kanan, 1 kiri, 2 atas, 3 bawah; arah kebalikan = d ^ 1
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+    private static final int DOWN = 3;
+    private static final GhostType[] TYPES = GhostType.values(); // values() membuat array baru setiap dipanggil
+
+    private final Maze maze;
+    private final NavigationField navigation;
+    private final SeededRandom random;
+    private final int count;
+    // Posisi disimpan sebagai titik tengah hantu (bukan pojok kiri-bawah seperti Entity)
+    private final float[] x;
+    private final float[] y;
+    private final float[] previousX;
+    private final float[] previousY;
+    private final float[] spawnX;
+    private final float[] spawnY;
+    private final byte[] direction;
+    private final byte[] type; // GhostType.ordinal()
+    private final float[] scaredTime; // > 0 berarti takut
+    private final int[] typeStart = new int[TYPES.length + 1];
+    private final float[] speedOfType = new float[TYPES.length];
+    private final float[] rangeSquaredOfType = new float[TYPES.length];
+    private final int[] exits = new int[DX.length]; // Wadah sementara untuk pilihan arah patroli
+    // Tile spawn yang sah, disimpan agar restart tidak memindai dan mengalokasikan ulang seluruh labirin
+    private int[] candidates;
+    private int candidateCount;
+    private int candidatesVersion;
+
+    /**
+     * {@code count} hantu di tile acak yang bisa dilewati dan tidak dekat spawn Pacman. Semua keacakan
+     * (tile spawn, patroli) diturunkan dari {@code seed}.
+     */
+    public GhostSwarm(Maze maze, NavigationField navigation, GameConfig config, int count, long seed) {
+        this.maze = maze;
+        this.navigation = navigation;
+        this.random = new SeededRandom(seed);
+        this.count = count;
+        x = new float[count];
+        y = new float[count];
+        previousX = new float[count];
+        previousY = new float[count];
+        spawnX = new float[count];
+        spawnY = new float[count];
+        direction = new byte[count];
+        type = new byte[count];
+        scaredTime = new float[count];
+
+        float tileSize = maze.getTileSize();
+        for (GhostType ghostType : TYPES) {
+            int t = ghostType.ordinal();
+            speedOfType[t] = config.getGhostSpeed(ghostType);
+            float range = config.getDetectionRangeTiles(ghostType) * tileSize;
+            rangeSquaredOfType[t] = range * range;
+            typeStart[t] = (int) ((long) count * t / TYPES.length);
+        }
+        typeStart[TYPES.length] = count;
+        for (int t = 0; t < TYPES.length; t++) {
+            for (int i = typeStart[t]; i < typeStart[t + 1]; i++) type[i] = (byte) t;
+        }
+        spawn();
+    }
+
+    /** Sebar ulang semua hantu seperti baru dibuat dengan {@code seed}; dipakai restart tanpa array baru. */
+    public void reset(long seed) {
+        random.setSeed(seed);
+        spawn();
+    }
+
+    // Pilih tile spawn acak (boleh berbagi tile) dari semua tile kosong yang cukup jauh dari Pacman
+    private void spawn() {
+        if (count == 0) return;
+        int numCols = maze.getNumCols();
+        if (candidates == null || candidatesVersion != maze.getVersion()) findCandidates();
+        if (candidateCount == 0) throw new IllegalStateException("Maze has no free tile for swarm ghosts");
+        float tileSize = maze.getTileSize();
+        for (int i = 0; i < count; i++) {
+            int tile = candidates[random.nextInt(candidateCount)];
+            spawnX[i] = (tile % numCols + 0.5f) * tileSize;
+            spawnY[i] = (tile / numCols + 0.5f) * tileSize;
+            respawn(i);
+        }
+    }
+
+    private void findCandidates() {
+        int numCols = maze.getNumCols(), numRows = maze.getNumRows();
+        int pacmanX = maze.getPacmanTileX(), pacmanY = maze.getPacmanTileY();
+        candidatesVersion = maze.getVersion();
+        candidates = new int[numCols * numRows];
+        candidateCount = 0;
+        for (int tileY = 0; tileY < numRows; tileY++) {
+            for (int tileX = 0; tileX < numCols; tileX++) {
+                if (maze.isWallTile(tileX, tileY)) continue;
+                if (Math.abs(tileX - pacmanX) + Math.abs(tileY - pacmanY) <= SAFE_TILES) continue;
+                candidates[candidateCount++] = tileY * numCols + tileX;
+            }
+        }
+    }
+
+    /** Simpan posisi sekarang untuk interpolasi render; dipanggil GameWorld di awal setiap step. */
+    public void storePreviousPositions() {
+        System.arraycopy(x, 0, previousX, 0, count);
+        System.arraycopy(y, 0, previousY, 0, count);
+    }
+
+    /** Gerakkan semua hantu satu step; {@code pacmanX/Y} adalah titik tengah Pacman. */
+    public void update(float delta, float pacmanX, float pacmanY) {
+        float tileSize = maze.getTileSize();
+        for (int i = 0; i < count; i++) {
+            int t = type[i];
+            boolean scared = scaredTime[i] > 0;
+            if (scared) scaredTime[i] -= delta;
+            float cx = x[i], cy = y[i];
+            float step = speedOfType[t] * delta;
+            int d = direction[i];
+            int tileX = (int) (cx / tileSize), tileY = (int) (cy / tileSize);
+            float centerX = (tileX + 0.5f) * tileSize, centerY = (tileY + 0.5f) * tileSize;
+            // Jarak yang tersisa ke tengah tile searah gerak; negatif = sudah lewat tengah
+            float toCenter = DX[d] * (centerX - cx) + DY[d] * (centerY - cy);
+            if (toCenter >= 0 && toCenter <= step) {
+                // Sampai di tengah tile pada step ini: pilih arah baru, sisa langkah dipakai ke arah itu
+                cx = centerX;
+                cy = centerY;
+                step -= toCenter;
+                float dx = cx - pacmanX, dy = cy - pacmanY;
+                if (scared) {
+                    d = chooseByDistance(tileX, tileY, d, true);
+                } else if (dx * dx + dy * dy < rangeSquaredOfType[t]) {
+                    d = chooseByDistance(tileX, tileY, d, false);
+                } else {
+                    d = chooseRandom(tileX, tileY, d);
+                }
+                if (d < 0) { // Terkurung: diam di tengah tile
+                    x[i] = cx;
+                    y[i] = cy;
+                    continue;
+                }
+                direction[i] = (byte) d;
+            }
+            x[i] = cx + DX[d] * step;
+            y[i] = cy + DY[d] * step;
+        }
+    }
+
+    // Arah ke tile tetangga yang paling dekat (kejar) atau paling jauh (kabur) dari Pacman menurut peta jarak.
+    // Berbalik arah hanya jika tidak ada jalan lain; jika tidak ada tetangga yang terjangkau, pakai jalan pertama.
+    private int chooseByDistance(int tileX, int tileY, int current, boolean fleeing) {
+        int reverse = current ^ 1;
+        int best = -1, fallback = -1;
+        long bestMetric = fleeing ? -1 : Long.MAX_VALUE;
+        for (int d = 0; d < DX.length; d++) {
+            if (d == reverse || maze.isWallTile(tileX + DX[d], tileY + DY[d])) continue;
+            if (fallback < 0) fallback = d;
+            int distance = navigation.getDistance(tileX + DX[d], tileY + DY[d]);
+            if (distance == NavigationField.UNREACHABLE) continue;
+            if (fleeing ? distance > bestMetric : distance < bestMetric) {
+                bestMetric = distance;
+                best = d;
+            }
+        }
+        if (best >= 0) return best;
+        if (fallback >= 0) return fallback;
+        return maze.isWallTile(tileX + DX[reverse], tileY + DY[reverse]) ? -1 : reverse;
+    }
+
+    // Jalan acak yang tidak berbalik arah (kecuali di jalan buntu)
+    private int chooseRandom(int tileX, int tileY, int current) {
+        int reverse = current ^ 1;
+        int exitCount = 0;
+        for (int d = 0; d < DX.length; d++) {
+            if (d != reverse && !maze.isWallTile(tileX + DX[d], tileY + DY[d])) exits[exitCount++] = d;
+        }
+        if (exitCount > 0) return exits[random.nextInt(exitCount)];
+        return maze.isWallTile(tileX + DX[reverse], tileY + DY[reverse]) ? -1 : reverse;
+    }
+
+    /** Tes AABB hantu ke-i dengan kotak ini (pojok kiri-bawah + ukuran), sama seperti {@link Entity#collidesWith}. */
+    public boolean overlaps(int i, float boxX, float boxY, float width, float height) {
+        float half = SIZE / 2;
+        return x[i] - half < boxX + width && x[i] + half > boxX && y[i] - half < boxY + height && y[i] + half > boxY;
+    }
+
+    /** Semua hantu takut ({@code true}, selama 10 detik seperti Ghost) atau kembali normal. */
+    public void setScared(boolean scared) {
+        float time = scared ? SCARED_SECONDS : 0f;
+        for (int i = 0; i < count; i++) scaredTime[i] = time;
+    }
+
+    /** Kembalikan hantu ke tile spawn-nya (misalnya setelah dimakan). */
+    public void respawn(int i) {
+        x[i] = spawnX[i];
+        y[i] = spawnY[i];
+        previousX[i] = x[i]; // Teleport, jangan diinterpolasi dari posisi lama
+        previousY[i] = y[i];
+        direction[i] = DOWN;
+        scaredTime[i] = 0;
+    }
+
+    public void respawnAll() {
+        for (int i = 0; i < count; i++) respawn(i);
+    }
+
+    public int size() { return count; }
+
+    /** Indeks hantu pertama dengan jenis ini. */
+    public int getTypeStart(GhostType ghostType) { return typeStart[ghostType.ordinal()]; }
+
+    /** Indeks setelah hantu terakhir dengan jenis ini. */
+    public int getTypeEnd(GhostType ghostType) { return typeStart[ghostType.ordinal() + 1]; }
+
+    public GhostType getType(int i) { return TYPES[type[i]]; }
+
+    public boolean isScared(int i) { return scaredTime[i] > 0; }
+
+    public float getCenterX(int i) { return x[i]; }
+
+    public float getCenterY(int i) { return y[i]; }
+
+    /** Pojok kiri-bawah hantu ke-i, seperti {@link Entity#getPosition()}. */
+    public float getX(int i) { return x[i] - SIZE / 2; }
+
+    public float getY(int i) { return y[i] - SIZE / 2; }
+
+    public float getInterpolatedX(int i, float alpha) {
+        return previousX[i] + (x[i] - previousX[i]) * alpha - SIZE / 2;
+    }
+
+    public float getInterpolatedY(int i, float alpha) {
+        return previousY[i] + (y[i] - previousY[i]) * alpha - SIZE / 2;
+    }
+
+    // Snapshot replay: tile spawn dan jenis ikut seed, jadi cukup state yang berubah
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(count);
+        out.writeLong(random.getState());
+        for (int i = 0; i < count; i++) {
+            out.writeFloat(x[i]);
+            out.writeFloat(y[i]);
+            out.writeByte(direction[i]);
+            out.writeFloat(scaredTime[i]);
+        }
+    }
+
+    void readState(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size != count) throw new IOException("Snapshot has " + size + " swarm ghosts, world has " + count);
+        random.setState(in.readLong());
+        for (int i = 0; i < count; i++) {
+            x[i] = in.readFloat();
+            y[i] = in.readFloat();
+            direction[i] = in.readByte();
+            scaredTime[i] = in.readFloat();
+        }
+        storePreviousPositions();
+    }
+}
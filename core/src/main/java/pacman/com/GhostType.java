@@ -12,6 +12,10 @@ public enum GhostType {
         this.speedMultiplier = speedMultiplier; //
     }
 
+    public float getSpeedMultiplier() {
+        return speedMultiplier;
+    }
+
     public float getBaseSpeed() {
         return 100f * speedMultiplier; // Calculates base speed
     }
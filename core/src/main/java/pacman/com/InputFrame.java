@@ -0,0 +1,56 @@
+package pacman.com;
+
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * Input satu tick simulasi. Diisi oleh Main dari keyboard (atau oleh test/bot secara langsung),
+ * lalu dibaca oleh {@link GameWorld#step(float, InputFrame)}. Tidak bergantung pada Gdx.input.
+ */
+public class InputFrame {
+    private final Vector2 direction = new Vector2(); // (0,0) = tidak ada arah baru
+    private boolean startPressed;
+    private boolean restartPressed;
+
+    public InputFrame clear() {
+        direction.setZero();
+        startPressed = false;
+        restartPressed = false;
+        return this;
+    }
+
+    public InputFrame setDirection(float x, float y) {
+        direction.set(x, y);
+        return this;
+    }
+
+    public InputFrame setStartPressed(boolean startPressed) {
+        this.startPressed = startPressed;
+        return this;
+    }
+
+    public InputFrame setRestartPressed(boolean restartPressed) {
+        this.restartPressed = restartPressed;
+        return this;
+    }
+
+    public Vector2 getDirection() {
+        return direction;
+    }
+
+    /** Tidak ada input yang menunggu step berikutnya. */
+    public boolean isEmpty() {
+        return !hasDirection() && !startPressed && !restartPressed;
+    }
+
+    public boolean hasDirection() {
+        return !direction.isZero();
+    }
+
+    public boolean isStartPressed() {
+        return startPressed;
+    }
+
+    public boolean isRestartPressed() {
+        return restartPressed;
+    }
+}
@@ -0,0 +1,53 @@
+package pacman.com;
+
+/**
+ * Antrean input dari thread render ke thread simulasi: ring buffer int dengan satu penulis dan satu pembaca, tanpa
+ * kunci dan tanpa alokasi. Setiap entri adalah byte input replay ({@link ReplayFormat#encode(InputFrame)}) atau
+ * perintah {@link SimulationThread} di bit yang lebih tinggi.
+ */
+final class InputQueue {
+    static final int EMPTY = -1;
+
+    private final int[] entries;
+    private final int mask;
+    private volatile long written; // Hanya ditulis penulis
+    private volatile long read; // Hanya ditulis pembaca
+
+    /** @param capacity pangkat dua */
+    InputQueue(int capacity) {
+        entries = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    /** Dipanggil penulis. Mengembalikan false (entri dibuang) jika antrean penuh. */
+    boolean offer(int entry) {
+        long index = written;
+        if (index - read == entries.length) return false;
+        entries[(int) index & mask] = entry;
+        written = index + 1; // Tulis volatile menerbitkan isi entri ke pembaca
+        return true;
+    }
+
+    /** Dipanggil pembaca: entri berikutnya, atau {@link #EMPTY}. */
+    int poll() {
+        long index = read;
+        if (index == written) return EMPTY;
+        int entry = entries[(int) index & mask];
+        read = index + 1;
+        return entry;
+    }
+
+    /** Jumlah entri yang pernah masuk. */
+    long getWritten() {
+        return written;
+    }
+
+    /** Jumlah entri yang sudah diambil pembaca. */
+    long getRead() {
+        return read;
+    }
+
+    boolean isEmpty() {
+        return read == written;
+    }
+}
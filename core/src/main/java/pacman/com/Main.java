@@ -6,10 +6,10 @@ import com.badlogic.gdx.Gdx;
 //Gdx adalah akses hal inti LibGDX (input, audio, file, dll).
 import com.badlogic.gdx.Input;
 //Input dipakai buat cek tombol keyboard (misalnya: Input.Keys.ENTER).
-import com.badlogic.gdx.audio.Music;
-//Music = untuk file audio panjang (seperti lagu background).
-import com.badlogic.gdx.audio.Sound;
-//Sound = untuk efek suara pendek (seperti suara mati atau makan).
+import com.badlogic.gdx.assets.AssetManager;
+//AssetManager: memuat gambar menu dan audio di thread latar belakang sambil menu sudah tampil.
+import com.badlogic.gdx.files.FileHandle;
+//FileHandle: file tujuan untuk menyimpan trace.
 import com.badlogic.gdx.graphics.GL20;
 //Dipakai untuk Gdx.gl.glClear(). membersihkan layar di setiap frame (pakai OpenGL).
 import com.badlogic.gdx.graphics.OrthographicCamera;
@@ -20,48 +20,74 @@ import com.badlogic.gdx.graphics.g2d.BitmapFont;
 //BitmapFont: untuk menampilkan teks seperti skor dan nyawa.
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 //SpriteBatch: menggambar semua objek dalam satu batch (efisien untuk performa).
-import com.badlogic.gdx.math.Rectangle;
-//Rectangle: dipakai untuk hitbox (tabrakan).
-import com.badlogic.gdx.math.Vector2;
-//Vector2: representasi posisi 2D (x dan y).
-import com.badlogic.gdx.utils.Array;
-//Array: array milik LibGDX, mirip ArrayList tapi lebih ringan.
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+//GLProfiler: menghitung draw call dan texture bind per frame untuk FrameProfiler.
+import com.badlogic.gdx.math.Matrix4;
+//Matrix4: proyeksi koordinat layar untuk overlay profiler.
+import com.badlogic.gdx.utils.GdxRuntimeException;
+//Dilempar FileHandle jika file tidak ditemukan.
+import com.badlogic.gdx.utils.TimeUtils;
+//Mengukur lama pemuatan aset saat startup.
 import com.badlogic.gdx.utils.viewport.FitViewport;
 //FitViewport: menyesuaikan tampilan game ke ukuran layar tapi tetap menjaga rasio aspek.
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+//Untuk menulis isi trace ke file dan membaca file labirin.
+import java.io.File;
+//File replay yang direkam/diputar.
+import java.lang.management.ManagementFactory;
+//Uptime JVM untuk log waktu startup.
 import java.util.Random;
-//Untuk acak posisi power-up, menentukan jenis power-up, dan variasi lainnya.
-
-enum GameState {
-    MENU,
-    PLAYING,
-    RESPAWNING,
-    GAME_OVER,
-    GAME_WON
-}
+//Seed acak untuk game baru.
 
-public class Main extends ApplicationAdapter {
+public class Main extends ApplicationAdapter implements GameWorld.Listener, SimulationThread.Host {
     private SpriteBatch batch; // untuk menggambar (gambar, font)
     private OrthographicCamera camera; // kamera untuk atur tampilan game
     private FitViewport viewport; // atur ukuran layar
     private BitmapFont font; // teks skor & lives
-    private Texture menuBackground, dotTexture; // gambar background dan titik
-
-    private Pacman pacman;
-    private Array<Ghost> ghosts;
-    private Array<Rectangle> dots;
-    private Array<PowerUp> powerUps;
-    private Maze maze;
-
-    private int score;
-    private int lives;
-    private float gameTime;
-    private float powerUpSpawnTimer;
-    private Random random;
-
-    private GameState currentState;
-    private float respawnTimer,powerUpRemainingTime; // untuk waktu hidup, untuk waktu power upnya
-    private Music music, musicScared; //suara musik dan musik ketika ada powerup
-    private Sound soundDie; //suara pas pacman mati
+    private Texture menuBackground; // gambar background menu (null sampai selesai dimuat)
+    private AssetManager assetManager; // gambar menu dan audio, dimuat sekali di latar belakang
+    private long loadStartMillis;
+    private final StringBuilder loadingText = new StringBuilder("Loading 0%");
+    private int shownLoadingPercent;
+    private static final String MENU_BACKGROUND = "MainScreenMenu.png";
+    private static final int LOADING_MILLIS_PER_FRAME = 8; // Jatah waktu pemuat per frame di thread render
+
+    // Waktu dari JVM mulai sampai frame pertama dan sampai aset siap ditulis ke log ("[Startup] ...").
+    // -Dpacman.exitAfterLoad=true menutup game setelah aset siap (StartupBenchmark, cdsArchive, run agent native-image)
+    private static final boolean EXIT_AFTER_LOAD = Boolean.getBoolean("pacman.exitAfterLoad");
+    private boolean firstFrameLogged;
+    private Assets assets; // atlas sprite bersama (termasuk font)
+
+    private GameWorld world; // seluruh logika game (tanpa grafis/input/audio)
+    private WorldRenderer worldRenderer; // menggambar isi world
+    private final InputFrame input = new InputFrame(); // input keyboard yang menunggu dipakai step berikutnya
+    private FixedTimestep timestep; // simulasi dengan langkah tetap, terpisah dari FPS layar
+    private final FrameScheduler scheduler = new FrameScheduler(); // jeda (P/ESC) dan render hanya saat perlu
+    // -Dpacman.simThread=true: world di-step di thread sendiri dan layar digambar dari snapshot terbitannya.
+    // null = simulasi di thread render seperti biasa, snapshot diisi sendiri setiap frame sebelum digambar.
+    private SimulationThread simulation;
+    private final RenderSnapshot localSnapshot = new RenderSnapshot();
+
+    private AudioManager audio; // musik tema, loop scared, dan suara mati (dimuat sekali)
+
+    // Replay: sesi direkam ke -Dpacman.record (default pacman-last.replay, kosong = mati),
+    // atau diputar dari -Dpacman.replay=<file> menggantikan keyboard (panah kiri/kanan = mundur/maju 10 detik)
+    private ReplayWriter recorder;
+    private ReplayReader replay;
+    private static final int REPLAY_SEEK_SECONDS = 10;
+
+    // Ukuran layar paling besar dalam tile; labirin yang lebih besar digulir mengikuti Pacman
+    private static final int MAX_VIEW_COLS = 24;
+    private static final int MAX_VIEW_ROWS = 22;
+
+    // Profiler per fase: F3 = overlay, -Dpacman.profile=<file.csv> = tulis setiap frame, JMX selalu terdaftar
+    private FrameProfiler profiler;
+    private GLProfiler glProfiler;
+    private ProfilerOverlay profilerOverlay;
+    private BitmapFont overlayFont; // ukuran asli, overlay digambar di koordinat layar
+    private final Matrix4 overlayProjection = new Matrix4();
 
 
 
@@ -69,64 +95,53 @@ public class Main extends ApplicationAdapter {
     public void create() {
         batch = new SpriteBatch();
         //Membuat SpriteBatch untuk menggambar objek 2D (gambar, tulisan, animasi).
-        font = new BitmapFont();
+        assets = Assets.acquire();
+        //Memuat semua sprite sekali ke satu atlas yang dibagi (lihat Assets).
+        font = assets.newFont();
         font.getData().setScale(2);
         //Memperbesar ukuran font jadi 2x lipat dari ukuran standar. (contoh :score dan darahnya)
-        menuBackground = new Texture("MainScreenMenu.png");
-        //Memuat gambar background untuk menu utama dari file gambar MainScreenMenu.png.
-        random = new Random();
+        loadStartMillis = TimeUtils.millis();
+        assetManager = new AssetManager();
+        assetManager.load(MENU_BACKGROUND, Texture.class);
+        AudioManager.queue(assetManager);
+        //Gambar background menu dan audio di-decode di thread AssetManager; menu sudah tampil sambil menunggu.
+        scheduler.setLoading(true);
         camera = new OrthographicCamera();
 
         // === PERBAIKAN KUNCI ADA DI SINI ===
-        // 1. BUAT MAZE DULUAN agar kita tahu ukurannya
-        maze = new Maze();
+        // 1. BUAT WORLD (DAN MAZE) DULUAN agar kita tahu ukurannya
+        String replayPath = System.getProperty("pacman.replay");
+        Maze maze = loadMaze(System.getProperty("pacman.maze"));
+        if (replayPath != null) {
+            startReplay(Gdx.files.local(replayPath).file(), maze);
+        }
+        if (world == null) {
+            // -Dpacman.swarm=<jumlah> mengganti empat hantu dengan gerombolan (mode uji beban)
+            GameConfig config = new GameConfig().setSwarmSize(Integer.getInteger("pacman.swarm", 0));
+            world = new GameWorld(config, new Random().nextLong(), maze);
+            timestep = FixedTimestep.fromSystemProperties();
+            startRecording(System.getProperty("pacman.record", "pacman-last.replay"));
+        }
+        world.setListener(this);
+        startProfiler();
+        if (Boolean.getBoolean("pacman.simThread")) startSimulationThread();
 
         // 2. SETELAH MAZE ADA, BARU BUAT VIEWPORT menggunakan ukurannya
-        viewport = new FitViewport(maze.getWidth(), maze.getHeight(), camera);
+        viewport = new FitViewport(
+            Math.min(world.getMaze().getWidth(), MAX_VIEW_COLS * world.getMaze().getTileSize()),
+            Math.min(world.getMaze().getHeight(), MAX_VIEW_ROWS * world.getMaze().getTileSize()), camera);
         //FitViewport menjaga rasio aspek saat jendela diresize.
         viewport.apply(); // Terapkan viewport
         camera.position.set(viewport.getWorldWidth() / 2, viewport.getWorldHeight() / 2, 0);
+        worldRenderer = new WorldRenderer(batch, font, viewport);
+        worldRenderer.setProfiler(profiler);
 
-        // 3. MULAI GAME setelah semua komponen dasar siap
-        startGame();
-    }
-
-    private void startGame() {
-        maze = new Maze();
-        music = Gdx.audio.newMusic(Gdx.files.internal("Pac-man theme remix - By Arsenic1987.mp3"));
-        music.setLooping(true);
-        music.setVolume(.3f);
-
-        // --- KOORDINAT SPAWN SUDAH DIPASTIKAN AMAN UNTUK LABIRIN BARU ---
-        Vector2 pacmanStartPos = new Vector2(
-            9 * maze.getTileSize() + 5,
-            5 * maze.getTileSize() + 5); //lokasi pacman
-        pacman = new Pacman(pacmanStartPos, maze);
-
-        ghosts = new Array<>();
-        ghosts.add(new Ghost(new Vector2(9 * maze.getTileSize() + 5, 11 * maze.getTileSize() + 5), GhostType.RED, pacman, maze));
-        ghosts.add(new Ghost(new Vector2(8 * maze.getTileSize() + 5, 10 * maze.getTileSize() + 5), GhostType.PINK, pacman, maze));
-        ghosts.add(new Ghost(new Vector2(10 * maze.getTileSize() + 5, 10 * maze.getTileSize() + 5), GhostType.BLUE, pacman, maze));
-        ghosts.add(new Ghost(new Vector2(9 * maze.getTileSize() + 5, 9 * maze.getTileSize() + 5), GhostType.ORANGE, pacman, maze));
-        //lokasi ghost
-        dots = new Array<>();
-        if (dotTexture == null) {
-            dotTexture = new Texture("dot.png");
-        } // pointnya
-
-        initializeDots(); // dimunculkan dotnya
-
-        powerUps = new Array<>(); // skillnya dibuat
-        powerUpSpawnTimer = 5f; //waktu awal (timer) selama 5 detik sebelum power-up pertama muncul di dalam game.
-
-        score = 0; // score awal
-        lives = 3; // darah awal
-        currentState = GameState.MENU; // Mulai dari menu
-        gameTime = 0; //waktu awal
+        // 3. SEMUA AUDIO dibuat sekali setelah selesai dimuat (updateLoading), bukan saat kejadian di tengah frame
     }
 
     @Override
     public void render() {
+        profiler.beginFrame();
         Gdx.gl.glClearColor(0, 0, 0, 1);// atur warna latar (hitam)
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT); //// bersihkan/tampilkan layar dengan warna itu
 
@@ -134,167 +149,354 @@ public class Main extends ApplicationAdapter {
         batch.setProjectionMatrix(camera.combined); //Menyinkronkan SpriteBatch dengan kamera.
         //Supaya objek yang digambar mengikuti pandangan kamera (zoom, posisi, dst).
 
+        //Menjalankan logika game (gerak pacman, collision, timer, dll) dengan langkah tetap, di thread ini
+        //atau di SimulationThread (-Dpacman.simThread=true) yang menerima input lewat antrean.
+        if (scheduler.isLoading()) updateLoading();
+        profiler.start(FrameProfiler.INPUT);
+        handlePauseKey();
+        if (!scheduler.isSimulating()) {
+            // Dijeda: tidak ada input game maupun step, hanya tombol P/ESC di atas yang dibaca
+        } else if (replay != null) {
+            handleReplayKeys();
+        } else {
+            pollInput();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) profilerOverlay.toggle();
+        handleTraceKeys();
+        if (simulation != null) {
+            simulation.setSimulating(scheduler.isSimulating());
+            simulation.offer(input); // Dipakai step berikutnya di thread simulasi
+            input.clear();
+        }
+        profiler.stop(FrameProfiler.INPUT);
+        float delta = scheduler.frameDelta(Gdx.graphics.getDeltaTime(), timestep.getStepSeconds());
+        if (scheduler.isSimulating()) {
+            if (simulation == null) step(delta);
+            audio.update(delta); // crossfade tema <-> loop scared
+        }
+
+        RenderSnapshot snapshot = currentSnapshot();
         //Jika game dalam mode menu, tampilkan layar menu (renderMenu()).
-        if (currentState == GameState.MENU) {
+        if (snapshot.getState() == GameState.MENU) {
             renderMenu();
-            //Jika user menekan ENTER, ubah state ke PLAYING dan mulai musik.
-            if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER)) {
-                currentState = GameState.PLAYING;
-                music.play();
-            }
+        } else {
+            // posisi diinterpolasi antara dua step terakhir
+            float alpha = simulation != null ? simulation.getAlpha(snapshot) : timestep.getAlpha();
+            worldRenderer.render(snapshot, alpha);
+            //Frame lalu ditampilkan ke layar.
+        }
+
+        renderProfilerOverlay();
+        profiler.endFrame(glProfiler.getDrawCalls(), glProfiler.getTextureBindings());
+        glProfiler.reset();
+        if (!firstFrameLogged) {
+            firstFrameLogged = true;
+            logStartup("First frame");
+        }
+        // Menu, game over, menang, dan jeda tidak bergerak: frame berikutnya baru digambar saat ada input
+        boolean inputPending = simulation != null ? simulation.hasPendingInput(snapshot) : !input.isEmpty();
+        scheduler.update(snapshot.getState(), scheduler.isSimulating() && (inputPending || audio.isFading()));
+    }
+
+    // Bisa 0, 1, atau beberapa step per frame tergantung FPS; input ditahan sampai dipakai satu step
+    private void step(float delta) {
+        int steps = timestep.advance(delta);
+        for (int i = 0; i < steps; i++) {
+            if (replay != null && !replay.next(input)) break; // Replay habis: dunia berhenti di tick terakhir
+            GameState stateBefore = world.getState();
+            world.step(timestep.getStepSeconds(), input);
+            afterStep(input, stateBefore);
+            input.clear();
+        }
+    }
+
+    // Yang digambar frame ini: terbitan terakhir thread simulasi, atau salinan dunia saat ini
+    private RenderSnapshot currentSnapshot() {
+        if (simulation != null) return simulation.latest();
+        localSnapshot.capture(world);
+        return localSnapshot;
+    }
+
+    // State untuk input dan penjadwalan frame; dengan thread simulasi dibaca dari snapshot, bukan dari dunia
+    private GameState currentState() {
+        return simulation != null ? simulation.latest().getState() : world.getState();
+    }
+
+    private void startSimulationThread() {
+        if (replay != null) {
+            Gdx.app.log("Simulation", "Simulation thread is not used while playing a replay");
             return;
         }
-        //Menjalankan logika game (gerak pacman, collision, timer, dll).
-        update(Gdx.graphics.getDeltaTime());
+        world.setProfiler(null); // Fase step tidak diukur: FrameProfiler hanya dibaca dan ditulis thread render
+        simulation = new SimulationThread(world, timestep, this, this);
+        simulation.start();
+        Gdx.app.log("Simulation", "Running the simulation on its own thread");
+    }
+
+    // Beri AssetManager sedikit waktu setiap frame; setelah semuanya siap audio dibuat dan game bisa dimulai
+    private void updateLoading() {
+        boolean done = assetManager.update(LOADING_MILLIS_PER_FRAME);
+        if (menuBackground == null && assetManager.isLoaded(MENU_BACKGROUND)) {
+            menuBackground = assetManager.get(MENU_BACKGROUND, Texture.class);
+        }
+        if (!done) return;
+        audio = new AudioManager(assetManager);
+        scheduler.setLoading(false);
+        Gdx.app.log("Assets", "Loaded in " + TimeUtils.timeSinceMillis(loadStartMillis) + " ms");
+        logStartup("Ready");
+        if (EXIT_AFTER_LOAD) Gdx.app.exit(); // Frame menu ini tetap selesai digambar
+    }
 
-        batch.begin();
-        //Semua objek 2D harus digambar di antara batch.begin() dan batch.end().
-
-        maze.render(batch);//menggambar labirin.
-        for (Rectangle dot : dots) { batch.draw(dotTexture, dot.x, dot.y, dot.width, dot.height); }
-        //menggambar semua titik makanan (dot).
-        for (PowerUp powerUp : powerUps) { if (powerUp.isActive()) powerUp.render(batch); }
-        //menggambar power-up aktif.
-        pacman.render(batch);
-        //menggambar pacman.
-        for (Ghost ghost : ghosts) { ghost.render(batch); }
-        //menggambar ghost
-
-        font.draw(batch, "Score: " + score, 20, viewport.getWorldHeight() - 20);
-        //mengambar score dan lokasinya
-        font.draw(batch, "Lives: " + lives, viewport.getWorldWidth() - 150, viewport.getWorldHeight() - 20);
-        //mengambar darah dan lokasinya
-
-
-        //Menampilkan teks "GAME OVER" dan Menunggu tombol R ditekan untuk restart game
-        if (currentState == GameState.GAME_OVER) {
-            font.draw(batch, "GAME OVER", viewport.getWorldWidth() / 2 - 100, viewport.getWorldHeight() / 2 + 50);
-            font.draw(batch, "Press R to restart", viewport.getWorldWidth() / 2 - 120, viewport.getWorldHeight() / 2);
-            if (Gdx.input.isKeyJustPressed(Input.Keys.R)) restartGame();
-            //Sama seperti GAME_OVER, tapi untuk kasus menang.
-        } else if (currentState == GameState.GAME_WON) {
-            font.draw(batch, "YOU WIN!", viewport.getWorldWidth() / 2 - 100, viewport.getWorldHeight() / 2 + 50);
-            font.draw(batch, "Press R to restart", viewport.getWorldWidth() / 2 - 120, viewport.getWorldHeight() / 2);
-            if (Gdx.input.isKeyJustPressed(Input.Keys.R)) restartGame();
+    private void logStartup(String event) {
+        Gdx.app.log("Startup", event + " after " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+    }
+
+    // P atau ESC menjeda/melanjutkan permainan yang sedang berjalan
+    private void handlePauseKey() {
+        if (!Gdx.input.isKeyJustPressed(Input.Keys.P) && !Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) return;
+        GameState state = currentState();
+        if (!scheduler.isPaused() && state != GameState.PLAYING && state != GameState.RESPAWNING) return;
+        setPaused(!scheduler.isPaused());
+    }
+
+    private void setPaused(boolean paused) {
+        boolean wasSimulating = scheduler.isSimulating();
+        scheduler.setPaused(paused);
+        worldRenderer.setPaused(paused);
+        updateAudioPause(wasSimulating);
+    }
+
+    // Suara ikut berhenti selama simulasi berhenti (dijeda atau jendela di latar belakang)
+    private void updateAudioPause(boolean wasSimulating) {
+        if (audio == null) return;
+        if (wasSimulating && !scheduler.isSimulating()) {
+            audio.pause();
+            input.clear();
+        } else if (!wasSimulating && scheduler.isSimulating()) {
+            audio.resume();
+        }
+    }
+
+    private void startProfiler() {
+        profiler = new FrameProfiler();
+        world.setProfiler(profiler);
+        profiler.registerMBean();
+        glProfiler = new GLProfiler(Gdx.graphics);
+        glProfiler.enable();
+        profilerOverlay = new ProfilerOverlay(profiler);
+        overlayFont = assets.newFont();
+        String csvPath = System.getProperty("pacman.profile");
+        if (csvPath == null || csvPath.isEmpty()) return;
+        File file = Gdx.files.local(csvPath).file();
+        try {
+            profiler.startCsv(file);
+            Gdx.app.log("Profile", "Writing frame times to " + file.getAbsolutePath());
+        } catch (IOException e) {
+            Gdx.app.error("Profile", "Could not write " + file.getPath(), e);
         }
-        //Selesai menggambar semua objek dalam frame ini.
-        //Frame lalu ditampilkan ke layar.
+    }
+
+    // Overlay F3 di pojok kiri atas layar, tidak ikut kamera dunia
+    private void renderProfilerOverlay() {
+        if (!profilerOverlay.isVisible()) return;
+        overlayProjection.setToOrtho2D(0, 0, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        batch.setProjectionMatrix(overlayProjection);
+        batch.begin();
+        profilerOverlay.draw(batch, overlayFont, Gdx.graphics.getDeltaTime(), 8, Gdx.graphics.getHeight() - 8);
         batch.end();
     }
 
-    private void update(float delta) {
-        //Kalau pemain menekan tombol R, game di-reset lewat restartGame()
-        // dan fungsi update() langsung berhenti (return).
-        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
-            restartGame();
+    // Membaca keyboard sekali per frame ke dalam InputFrame (satu arah per frame, urutan A, D, W, S).
+    // Tidak di-clear di sini: tombol yang ditekan di frame tanpa step tetap sampai ke step berikutnya.
+    private void pollInput() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.A)) {
+            input.setDirection(-1, 0);
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.D)) {
+            input.setDirection(1, 0);
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.W)) {
+            input.setDirection(0, 1);
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.S)) {
+            input.setDirection(0, -1);
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.ENTER)) input.setStartPressed(true);
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) input.setRestartPressed(true);
+    }
+
+    // Labirin dari -Dpacman.maze=<file> (relatif ke folder assets), atau labirin klasik
+    private Maze loadMaze(String path) {
+        if (path == null) return new Maze();
+        FileHandle file = Gdx.files.internal(path);
+        try (Reader reader = file.reader(64 * 1024, "UTF-8")) {
+            Maze maze = Maze.load(reader);
+            Gdx.app.log("Maze", path + ": " + maze.getNumCols() + "x" + maze.getNumRows() + " tiles");
+            return maze;
+        } catch (IOException | GdxRuntimeException e) {
+            Gdx.app.error("Maze", "Could not load " + path + ", using the classic maze", e);
+            return new Maze();
+        }
+    }
+
+    private void startReplay(File file, Maze maze) {
+        try {
+            replay = new ReplayReader(file);
+            world = replay.createWorld(maze);
+            timestep = new FixedTimestep(replay.getStepsPerSecond());
+            Gdx.app.log("Replay", "Playing " + file.getAbsolutePath() + " (" + replay.getEndTick() + " ticks)");
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "Could not play " + file.getPath(), e);
+            replay = null;
+            world = null;
+        }
+    }
+
+    private void startRecording(String path) {
+        if (path.isEmpty()) return;
+        File file = Gdx.files.local(path).file();
+        try {
+            recorder = new ReplayWriter(file, world, timestep.getStepsPerSecond(),
+                ReplayWriter.DEFAULT_KEYFRAME_SECONDS * timestep.getStepsPerSecond());
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "Could not record to " + file.getPath(), e);
+        }
+    }
+
+    // Input step yang baru dijalankan ditambahkan ke rekaman; kalau gagal menulis, rekaman dihentikan
+    private void record(InputFrame stepInput) {
+        if (recorder == null) return;
+        try {
+            recorder.record(stepInput, world);
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "Recording stopped", e);
+            closeRecorder();
+        }
+    }
+
+    private void closeRecorder() {
+        try {
+            recorder.close();
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "Could not close recording", e);
+        }
+        recorder = null;
+    }
+
+    // Panah kiri/kanan saat memutar replay: lompat 10 detik (tanpa suara selama maju cepat)
+    private void handleReplayKeys() {
+        int seekTicks = REPLAY_SEEK_SECONDS * replay.getStepsPerSecond();
+        int target;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.LEFT)) {
+            target = replay.getTick() - seekTicks;
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.RIGHT)) {
+            target = replay.getTick() + seekTicks;
+        } else {
             return;
         }
-        //Kalau game dalam status PLAYING, maka:
-        if (currentState == GameState.PLAYING) {
-            //Total waktu game ditambah.
-            gameTime += delta;
-            //Hitung mundur timer Power-Up
-            powerUpSpawnTimer -= delta;
-            //Setiap detik, timer dikurangi (delta).
-            if (powerUpSpawnTimer <= 0) {
-                //Kalau habis, spawn PowerUp baru.
-                spawnRandomPowerUp();
-                //Timer di-reset ke angka acak antara 8–15 detik.
-                powerUpSpawnTimer = 8f + random.nextFloat() * 7f;
-            }
-            //Perbarui posisi dan logika dari Pacman, Ghost, dan PowerUp.
-            pacman.update(delta);
-            for (Ghost ghost : ghosts) { ghost.update(delta); }
-            for (PowerUp powerUp : powerUps) { powerUp.update(delta); }
-            //Cek apakah Pacman menyentuh dot, PowerUp, atau Ghost.
-            checkDotCollisions();
-            checkPowerUpCollisions();
-            checkGhostCollisions();
-            //Kalau semua titik (dot) habis, berarti menang.
-            if (dots.size == 0) {
-                currentState = GameState.GAME_WON;
-            }
-            //Jika dalam mode RESPWANING/hidup ulang
-        } else if (currentState == GameState.RESPAWNING) {
-            //Kalau Pacman mati dan sedang nunggu respawn:
-            respawnTimer -= delta;
-            //Tunggu beberapa detik (respawnTimer) → setelah itu reset posisi dan lanjut main lagi.
-            if (respawnTimer <= 0) {
-                resetPositionsAfterDeath();
-                currentState = GameState.PLAYING;
-            }
+        world.setListener(null);
+        try {
+            replay.seek(world, target);
+        } catch (IOException e) {
+            Gdx.app.error("Replay", "Seek failed", e);
         }
+        world.setListener(this);
+        audio.stopAll();
+        if (world.getState() == GameState.PLAYING) audio.playTheme();
+    }
 
-        if (powerUpRemainingTime > 0) {
-            //Hitung mundur durasi PowerUp (misalnya efek "makan Ghost").
-            powerUpRemainingTime -= delta;
-            if (powerUpRemainingTime <= 0 && musicScared != null) {
-                musicScared.stop();
-                musicScared.dispose();
-                musicScared = null;
-
-                // Reset ghost state jika perlu
-                for (Ghost ghost : ghosts) {
-                    ghost.setScared(false);
-                }
-            }
+    // F8 = nyalakan/matikan trace, F9 = simpan trace sekarang; trace juga disimpan otomatis saat game over.
+    // Trace milik thread yang menjalankan step, jadi dengan thread simulasi tombolnya dikirim lewat antrean input.
+    private void handleTraceKeys() {
+        int command = 0;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F8)) command |= SimulationThread.TRACE_TOGGLE;
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F9)) command |= SimulationThread.TRACE_DUMP;
+        if (simulation != null) {
+            simulation.offerCommand(command);
+        } else {
+            handleCommand(command);
         }
+    }
 
+    @Override
+    public void handleCommand(int command) {
+        Trace trace = world.getTrace();
+        if ((command & SimulationThread.TRACE_TOGGLE) != 0) {
+            trace.setEnabled(!trace.isEnabled());
+            Gdx.app.log("Trace", trace.isEnabled() ? "enabled" : "disabled");
+        }
+        if ((command & SimulationThread.TRACE_DUMP) != 0) dumpTrace(trace);
     }
 
-    private void checkGhostCollisions() {
-        //Mengecek apakah permainan sedang berjalan
-        if (currentState != GameState.PLAYING) return;
-        //ni adalah bounding box (kotak pembatas) untuk Pacman.
-        //Digunakan untuk mendeteksi tabrakan dengan Ghost.
-        Rectangle pacmanBounds = new Rectangle(pacman.getPosition().x, pacman.getPosition().y, pacman.getSize().x, pacman.getSize().y);
-        for (Ghost ghost : ghosts) {
-            //Membuat bounding box untuk Ghost.
-            Rectangle ghostBounds = new Rectangle(ghost.getPosition().x, ghost.getPosition().y, ghost.getSize().x, ghost.getSize().y);
-            if (pacmanBounds.overlaps(ghostBounds)) {
-               // Mengecek apakah kotak Ghost dan Pacman saling tumpang tindih (tabrakan).
-                if (ghost.isScared()) {
-                    ghost.respawn();
-                    //Ghost akan dihapus dari map dan dikembalikan ke kandang.
-                    score += 200;//tambah score 200
-                } else if (!pacman.isPoweredUp()) {
-                    //Pacman mati (animasi, suara).
-                    pacman.die();
-                    soundDie = Gdx.audio.newSound(Gdx.files.internal("Pac-Man Death - Sound Effect (HD).mp3"));
-                    soundDie.play();
-                    lives--;//darah berkurang
-                    if (lives <= 0) {
-                        currentState = GameState.GAME_OVER;// game kalah
-                    } else {
-                        currentState = GameState.RESPAWNING; //hidup kembali
-                        respawnTimer = 1.5f; //1.5 detik untuk respawn
-                    }
-                }
-            }
+    // Dipanggil setelah setiap step, di thread yang menjalankan step
+    @Override
+    public void afterStep(InputFrame stepInput, GameState stateBefore) {
+        record(stepInput);
+        Trace trace = world.getTrace();
+        if (stateBefore != GameState.GAME_OVER && world.getState() == GameState.GAME_OVER && trace.isEnabled()) {
+            dumpTrace(trace);
         }
     }
 
-    private void resetPositionsAfterDeath() {
-        pacman.respawn(); // Ganti ini dari sekedar set position
-        for(Ghost ghost : ghosts) {
-            ghost.respawn();
+    private void dumpTrace(Trace trace) {
+        FileHandle file = Gdx.files.local("pacman-trace.log");
+        try (Writer writer = file.writer(false, "UTF-8")) {
+            trace.dump(writer);
+            Gdx.app.log("Trace", trace.size() + " events written to " + file.file().getAbsolutePath());
+        } catch (IOException e) {
+            Gdx.app.error("Trace", "Could not write " + file.path(), e);
         }
-        pacman.setPoweredUp(false, 0);
     }
 
-    private void restartGame() {
-        disposeCurrentGameAssets(); //// Bersihkan semua objek/aset yang sedang dipakai
-        startGame(); //Mulai game dari awal
+    // --- Respon kejadian dari GameWorld (audio) ---
+
+    @Override
+    public void onGameStarted() {
+        audio.playTheme();
+    }
+
+    @Override
+    public void onPacmanDied() {
+        audio.playDeath();
+    }
+
+    @Override
+    public void onPowerFoodEaten() {
+        audio.startScared();
+    }
+
+    @Override
+    public void onPowerFoodExpired() {
+        audio.stopScared();
+    }
+
+    @Override
+    public void onRestart() {
+        audio.stopAll();
     }
 
-    private void disposeCurrentGameAssets() {
-        if (pacman != null) pacman.dispose(); //hapus objek Pacman dari memori (jika ada).
-        if(ghosts != null) { for(Ghost g : ghosts) g.dispose(); } //semua Ghost dihapus satu per satu.
-        if(powerUps != null) { for(PowerUp p : powerUps) p.dispose(); } //semua item power-up (Cherry, PowerFood, dll) dibuang.
-        if(music != null) music.stop();
+    // Jendela kehilangan fokus atau diminimalkan (Lwjgl3Launcher): permainan yang berjalan dijeda dan
+    // rendering turun ke idle FPS backend sampai jendela aktif lagi
+    @Override
+    public void pause() {
+        if (world == null) return;
+        boolean wasSimulating = scheduler.isSimulating();
+        GameState state = currentState();
+        if (state == GameState.PLAYING || state == GameState.RESPAWNING) {
+            scheduler.setPaused(true); // Pemain kembali ke layar PAUSED, bukan langsung dikejar hantu
+            worldRenderer.setPaused(true);
+        }
+        scheduler.setBackground(true);
+        updateAudioPause(wasSimulating);
+        if (simulation != null) simulation.setSimulating(false);
+        scheduler.update(state, false);
     }
 
-    // ... Metode-metode lain (initializeDots, spawnRandomPowerUp, dll. biarkan seperti yang sudah ada) ...
+    @Override
+    public void resume() {
+        if (world == null) return;
+        boolean wasSimulating = scheduler.isSimulating();
+        scheduler.setBackground(false);
+        updateAudioPause(wasSimulating);
+        Gdx.graphics.requestRendering();
+    }
 
     @Override
     public void resize(int width, int height) {
@@ -303,96 +505,43 @@ public class Main extends ApplicationAdapter {
 
     @Override
     public void dispose() {
-        disposeCurrentGameAssets();
-        if (maze != null) maze.dispose();
+        if (simulation != null) simulation.stop(); // Step terakhir selesai sebelum rekaman ditutup
+        if (recorder != null) closeRecorder();
+        if (profiler != null) profiler.dispose();
+        if (glProfiler != null) glProfiler.disable();
+        if (overlayFont != null) overlayFont.dispose();
+        if (worldRenderer != null) worldRenderer.dispose();
         if (batch != null) batch.dispose();
         if (font != null) font.dispose();
-        if (menuBackground != null) menuBackground.dispose();
-        if (dotTexture != null) dotTexture.dispose();
-        if (music != null) music.dispose();
-        if (musicScared != null) {musicScared.stop();musicScared.dispose();}
+        if (assets != null) Assets.release();
+        if (audio != null) audio.dispose();
+        if (assetManager != null) assetManager.dispose(); // termasuk gambar menu
     }
 
     private void renderMenu() {
+        camera.position.set(viewport.getWorldWidth() / 2, viewport.getWorldHeight() / 2, 0); // Kamera bisa bergeser saat bermain
+        camera.update();
+        batch.setProjectionMatrix(camera.combined);
         batch.begin();
-        batch.draw(menuBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
-        font.draw(batch, "Press ENTER to Start", viewport.getWorldWidth() / 2 - 150, viewport.getWorldHeight() / 2 - 100);
-        batch.end();
-    }
-
-    private void initializeDots() {
-        dots.clear();
-        float tileSize = maze.getTileSize();
-        for (int y = 0; y < maze.getHeight() / tileSize; y++) {
-            for (int x = 0; x < maze.getWidth() / tileSize; x++) {
-                float centerX = x * tileSize + tileSize / 2;
-                float centerY = y * tileSize + tileSize / 2;
-                if (!maze.isWallAt(centerX, centerY) && !isNearInitialEntityPosition(centerX, centerY)) {
-                    dots.add(new Rectangle(centerX - 5, centerY - 5, 10, 10));
-                }
-            }
+        if (menuBackground != null) {
+            batch.draw(menuBackground, 0, 0, viewport.getWorldWidth(), viewport.getWorldHeight());
         }
-    }
-
-    private boolean isNearInitialEntityPosition(float x, float y) {
-        float spawnTolerance = maze.getTileSize() * 3.5f;
-        // Gunakan posisi spawn yang sudah diperbaiki
-        if (Vector2.dst(x, y, 9 * maze.getTileSize() + 5, 6 * maze.getTileSize() + 5) < spawnTolerance) return true;
-        // Cek juga area kandang hantu
-        Rectangle ghostHouse = new Rectangle(7 * maze.getTileSize(), 9 * maze.getTileSize(), 5 * maze.getTileSize(), 4 * maze.getTileSize());
-        return ghostHouse.contains(x, y);
-    }
-
-    private void spawnRandomPowerUp() {
-        int activePowerUpsCount = 0;
-        for (PowerUp pu : powerUps) if (pu.isActive()) activePowerUpsCount++;
-        if (activePowerUpsCount >= 5) return;
-
-        float x, y;
-        int attempts = 0;
-        float tileSize = maze.getTileSize();
-        do {
-            int tileX = random.nextInt((int)(maze.getWidth() / tileSize));
-            int tileY = random.nextInt((int)(maze.getHeight() / tileSize));
-            x = tileX * tileSize + (tileSize / 2) - 10;
-            y = tileY * tileSize + (tileSize / 2) - 10;
-            attempts++;
-        } while ((maze.collidesWithWall(new Rectangle(x, y, 20, 20)) || isNearInitialEntityPosition(x + 10, y + 10)) && attempts < 100);
-
-        if (attempts < 100) {
-            float rand = random.nextFloat();
-            if (rand < 0.35f) powerUps.add(new Cherry(new Vector2(x, y)));  //35%
-            else if (rand < 0.60f) powerUps.add(new Cherry2(new Vector2(x, y))); //25%
-            else powerUps.add(new PowerFood(new Vector2(x, y))); //45%
-        }
-    }
-
-    private void checkDotCollisions() {
-        Rectangle pacmanBounds = new Rectangle(pacman.getPosition().x, pacman.getPosition().y, pacman.getSize().x, pacman.getSize().y);
-        for (int i = dots.size - 1; i >= 0; i--) {
-            if (pacmanBounds.overlaps(dots.get(i))) {
-                dots.removeIndex(i);
-                score += 10;
-            }
+        if (scheduler.isLoading()) {
+            font.draw(batch, loadingText(), viewport.getWorldWidth() / 2 - 80, viewport.getWorldHeight() / 2 - 100);
+        } else {
+            font.draw(batch, "Press ENTER to Start", viewport.getWorldWidth() / 2 - 150, viewport.getWorldHeight() / 2 - 100);
         }
+        batch.end();
     }
 
-    private void checkPowerUpCollisions() {
-        Rectangle pacmanBounds = new Rectangle(pacman.getPosition().x, pacman.getPosition().y, pacman.getSize().x, pacman.getSize().y);
-        for (int i = powerUps.size - 1; i >= 0; i--) {
-            PowerUp powerUp = powerUps.get(i);
-            if (powerUp.isActive() && pacmanBounds.overlaps(new Rectangle(powerUp.getPosition().x, powerUp.getPosition().y, powerUp.getSize().x, powerUp.getSize().y))) {
-                score += powerUp.getScoreValue();
-                if (powerUp instanceof PowerFood) {
-                    pacman.setPoweredUp(true, 5f);
-                    for (Ghost ghost : ghosts) ghost.setScared(true);
-                    musicScared = Gdx.audio.newMusic(Gdx.files.internal("Pac man scared ghost sound.mp3"));
-                    musicScared.setLooping(true);
-                    musicScared.play();
-                    powerUpRemainingTime = 5f;
-                }
-                powerUp.collect();
-            }
+    // "Loading NN%", disusun ulang hanya saat persennya berubah
+    private CharSequence loadingText() {
+        int percent = (int) (assetManager.getProgress() * 100);
+        if (percent != shownLoadingPercent) {
+            shownLoadingPercent = percent;
+            loadingText.setLength(0);
+            loadingText.append("Loading ").append(percent).append('%');
         }
+        return loadingText;
     }
 }
@@ -1,20 +1,42 @@
 package pacman.com;
 
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.math.Rectangle;
-import java.util.ArrayList;
-import java.util.List;
+import com.badlogic.gdx.utils.IntArray;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Locale;
 
+/**
+ * Labirin berbasis tile. Dinding dan dot awal disimpan sebagai bitset (1 bit per tile), jadi labirin
+ * 1000x1000 tile hanya butuh sekitar 250 KB dan setiap query tetap O(1) berapa pun ukurannya.
+ *
+ * <p>Format file labirin ({@link #load(Reader)}), dibaca baris demi baris tanpa menyimpan string-nya:
+ * <pre>
+ * # komentar
+ * pacman 9 16          (opsional) tile spawn Pacman: kolom, baris dari atas
+ * ghost red 9 10       (opsional) tile spawn hantu per GhostType
+ * house 7 9 5 4        (opsional) kandang hantu: kolom, baris atas, lebar, tinggi (tile)
+ * WWWWWWW              baris labirin, dari atas ke bawah
+ * W.*P GW
+ * </pre>
+ * Karakter tile: {@code W} dinding, {@code .} dot, {@code *} dot + tempat PowerFood muncul, {@code P} spawn Pacman,
+ * {@code G} kandang hantu (tempat spawn hantu jika tidak ada baris {@code ghost}), spasi = jalan kosong.
+ * Baris yang lebih pendek dari baris pertama dianggap dinding di sisa kolomnya.
+ */
 public class Maze {
-    private final Texture wallTexture;
-    private final List<Rectangle> walls;
-    private final float width;
-    private final float height;
-    private final float tileSize;
+    public static final float TILE_SIZE = 40f;
 
     // --- DESAIN LABIRIN FINAL (19x22) ---
-    private final String[] layout = {
+    private static final String[] CLASSIC = {
+        "pacman 9 16",
+        "ghost red 9 10",
+        "ghost pink 8 11",
+        "ghost blue 10 11",
+        "ghost orange 9 12",
+        "house 7 9 5 4",
         "WWWWWWWWWWWWWWWWWWW",
         "W........W........W",
         "W.WW.WWW.W.WWW.WW.W",
@@ -22,57 +44,280 @@ public class Maze {
         "W.................W",
         "W.WW.W.WWWWW.W.WW.W",
         "W....W...W...W....W",
+        "WWWW.WWW.W.WWW.WWWW",
+        "WWWW.W.......W.WWWW",
+        "WWWW.W.WGGGW.W.WWWW", // G = Ghost house
+        "WWWW.W.W   W.W.WWWW",
+        "WWWW.W.WWWWW.W.WWWW",
+        "WWWW.W.     .W.WWWW",
         "WWWW.WWW W WWW.WWWW",
-        "WWWW.W       W.WWWW",
-        "WWWW.W WGGGW W.WWWW", // G = Ghost house
-        "WWWW.W W...W W.WWWW",
-        "WWWW.W WWWWW W.WWWW",
-        "WWWW.W       W.WWWW",
-        "WWWW.WWW W WWW.WWWW",
-        "W........W........W",
-        "W.WW.WWW.W.WWW.WW.W",
-        "W*...............*W",
-        "WW.W.W.WWWWW.W.W.WW",
-        "W..W.W...W...W.W..W",
+        "W.....   W  ......W",
+        "W.WW.WWW W WWW.WW.W",
+        "W*....   P   ....*W",
+        "WW.W.W WWWWW.W.W.WW",
+        "W..W.W.  W ..W.W..W",
         "W.WW...WWWWW...WW.W",
         "W.................W",
         "WWWWWWWWWWWWWWWWWWW"
     };
 
+    private final float tileSize = TILE_SIZE;
+    private int numCols;
+    private int numRows;
+    private float width;
+    private float height;
+    private long[] wallBits; // Bit (baris dari atas * numCols + kolom); akses lewat index() yang memakai tileY dari bawah
+    private long[] dotBits;
+    private int wallCount;
+    private int version; // Naik setiap layout berubah, dipakai renderer untuk membangun ulang cache dinding
+
+    // Titik spawn dalam koordinat tile (tileY dihitung dari bawah, sama seperti posisi dunia)
+    private int pacmanTileX, pacmanTileY;
+    private final int[] ghostTileX = new int[GhostType.values().length];
+    private final int[] ghostTileY = new int[GhostType.values().length];
+    private final Rectangle house = new Rectangle(); // Dalam tile
+    private final IntArray pelletTiles = new IntArray(); // tileY * numCols + tileX
+
+    /** Labirin klasik bawaan. */
     public Maze() {
-        this.tileSize = 40f;
-        this.wallTexture = new Texture("wall.png");
-        this.walls = new ArrayList<>();
-        this.width = layout[0].length() * tileSize;
-        this.height = layout.length * tileSize;
-        initializeWalls();
+        setLayout(CLASSIC);
+    }
+
+    /** Baca labirin dari file teks (lihat format di atas). Reader dibaca sampai habis tetapi tidak ditutup. */
+    public static Maze load(Reader reader) throws IOException {
+        Maze maze = new Maze(false);
+        maze.parse(reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader, 64 * 1024));
+        return maze;
     }
 
-    private void initializeWalls() {
-        walls.clear();
-        int numRows = layout.length;
-        for (int row = 0; row < numRows; row++) {
-            for (int col = 0; col < layout[row].length(); col++) {
-                char symbol = layout[row].charAt(col);
-                if (symbol == 'W') { // Hanya 'W' yang dianggap dinding
-                    float x = col * tileSize;
-                    float y = (numRows - 1 - row) * tileSize;
-                    walls.add(new Rectangle(x, y, tileSize, tileSize));
+    private Maze(boolean classic) {
+        if (classic) setLayout(CLASSIC);
+    }
+
+    /** Ganti layout labirin (baris-baris format file di atas); dinding, spawn, dan versi ikut diperbarui. */
+    public void setLayout(String[] newLayout) {
+        StringBuilder text = new StringBuilder();
+        for (String line : newLayout) text.append(line).append('\n');
+        try {
+            parse(new BufferedReader(new StringReader(text.toString())));
+        } catch (IOException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    private void parse(BufferedReader in) throws IOException {
+        int cols = 0, rows = 0;
+        long[] walls = new long[16];
+        long[] dots = new long[16];
+        int walls1 = 0;
+        int[] headerPacman = null;
+        int[][] headerGhosts = new int[GhostType.values().length][];
+        int[] headerHouse = null;
+        int pacmanLine = 0, houseLine = 0; // Nomor baris header, untuk pesan error
+        int[] ghostLines = new int[GhostType.values().length];
+        int markerPacman = -1; // Dalam indeks baris dari atas, dikonversi setelah jumlah baris diketahui
+        IntArray houseTiles = new IntArray();
+        IntArray pellets = new IntArray();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = in.readLine()) != null) {
+            lineNumber++;
+            if (line.startsWith("#")) continue;
+            if (rows == 0 && (line.isEmpty() || Character.isLowerCase(line.charAt(0)))) {
+                if (line.isEmpty()) continue;
+                String[] parts = line.trim().split("\\s+");
+                try {
+                    switch (parts[0]) {
+                        case "pacman": headerPacman = ints(parts, 1, 2); pacmanLine = lineNumber; break;
+                        case "ghost":
+                            int type = GhostType.valueOf(parts[1].toUpperCase(Locale.ROOT)).ordinal();
+                            headerGhosts[type] = ints(parts, 2, 2);
+                            ghostLines[type] = lineNumber;
+                            break;
+                        case "house": headerHouse = ints(parts, 1, 4); houseLine = lineNumber; break;
+                        default: throw new IOException("unknown key '" + parts[0] + "'");
+                    }
+                } catch (RuntimeException e) {
+                    throw new IOException("Maze line " + lineNumber + ": " + line, e);
                 }
+                continue;
             }
+            if (rows == 0) {
+                cols = line.length();
+                if (cols == 0) throw new IOException("Maze line " + lineNumber + ": first row is empty");
+            } else if (line.length() > cols) {
+                throw new IOException("Maze line " + lineNumber + ": row is longer than the first row (" + cols + ")");
+            }
+            int rowStart = rows * cols;
+            int needed = ((rows + 1) * cols + 63) >>> 6;
+            if (needed > walls.length) {
+                walls = Arrays.copyOf(walls, Math.max(needed, walls.length * 2));
+                dots = Arrays.copyOf(dots, walls.length);
+            }
+            for (int col = 0; col < cols; col++) {
+                int bit = rowStart + col;
+                char symbol = col < line.length() ? line.charAt(col) : 'W';
+                switch (symbol) {
+                    case 'W': walls[bit >>> 6] |= 1L << bit; walls1++; break;
+                    case '.': dots[bit >>> 6] |= 1L << bit; break;
+                    case '*': dots[bit >>> 6] |= 1L << bit; pellets.add(bit); break;
+                    case 'P': markerPacman = bit; break;
+                    case 'G': houseTiles.add(bit); break;
+                    case ' ': break;
+                    default: throw new IOException("Maze line " + lineNumber + ": unknown tile '" + symbol + "'");
+                }
+            }
+            rows++;
+        }
+        if (rows == 0) throw new IOException("Maze has no rows");
+
+        // Semua spawn dan kandang dihitung dan dicek dulu (kolom, baris dari atas); field labirin baru diganti
+        // setelah tidak ada lagi yang bisa gagal, jadi labirin yang gagal di-parse tetap utuh
+
+        // Kandang hantu: baris 'house' atau kotak yang melingkupi semua tile 'G'
+        int houseX = 0, houseTop = 0, houseWidth = 0, houseHeight = 0;
+        if (headerHouse != null) {
+            houseX = headerHouse[0];
+            houseTop = headerHouse[1];
+            houseWidth = headerHouse[2];
+            houseHeight = headerHouse[3];
+            if (houseWidth <= 0 || houseHeight <= 0 || houseX < 0 || houseTop < 0
+                || houseX + houseWidth > cols || houseTop + houseHeight > rows) {
+                throw new IOException("Maze line " + houseLine + ": house is outside the " + cols + "x" + rows + " maze");
+            }
+        } else if (houseTiles.size > 0) {
+            int minX = cols, maxX = -1, minY = rows, maxY = -1;
+            for (int i = 0; i < houseTiles.size; i++) {
+                int x = houseTiles.get(i) % cols, y = houseTiles.get(i) / cols;
+                minX = Math.min(minX, x); maxX = Math.max(maxX, x);
+                minY = Math.min(minY, y); maxY = Math.max(maxY, y);
+            }
+            houseX = minX;
+            houseTop = minY;
+            houseWidth = maxX - minX + 1;
+            houseHeight = maxY - minY + 1;
+        }
+
+        // Spawn Pacman
+        int pacmanX, pacmanTop;
+        if (headerPacman != null) {
+            pacmanX = headerPacman[0];
+            pacmanTop = headerPacman[1];
+            checkSpawn(walls, cols, rows, pacmanX, pacmanTop, false, pacmanLine, "pacman");
+        } else if (markerPacman >= 0) {
+            pacmanX = markerPacman % cols;
+            pacmanTop = markerPacman / cols;
+        } else {
+            throw new IOException("Maze has no Pacman spawn ('P' tile or 'pacman' line)");
+        }
+
+        // Spawn hantu: baris 'ghost' atau tile 'G' berurutan. Hantu boleh mulai di dinding dalam kandang
+        // (seperti pink dan blue di labirin klasik), karena mereka keluar kandang dulu sebelum mengejar.
+        int ghostCount = GhostType.values().length;
+        int[] ghostX = new int[ghostCount], ghostTop = new int[ghostCount];
+        for (GhostType type : GhostType.values()) {
+            int i = type.ordinal();
+            if (headerGhosts[i] != null) {
+                ghostX[i] = headerGhosts[i][0];
+                ghostTop[i] = headerGhosts[i][1];
+                boolean inHouse = ghostX[i] >= houseX && ghostX[i] < houseX + houseWidth
+                    && ghostTop[i] >= houseTop && ghostTop[i] < houseTop + houseHeight;
+                checkSpawn(walls, cols, rows, ghostX[i], ghostTop[i], inHouse, ghostLines[i],
+                    type.name().toLowerCase(Locale.ROOT) + " ghost");
+            } else if (houseTiles.size > 0) {
+                int bit = houseTiles.get(i % houseTiles.size);
+                ghostX[i] = bit % cols;
+                ghostTop[i] = bit / cols;
+            } else {
+                throw new IOException("Maze has no spawn for the " + type + " ghost ('G' tile or 'ghost' line)");
+            }
+        }
+
+        numCols = cols;
+        numRows = rows;
+        width = numCols * tileSize;
+        height = numRows * tileSize;
+        wallBits = walls;
+        dotBits = dots;
+        wallCount = walls1;
+        version++;
+        pacmanTileX = pacmanX;
+        pacmanTileY = numRows - 1 - pacmanTop;
+        for (int i = 0; i < ghostCount; i++) {
+            ghostTileX[i] = ghostX[i];
+            ghostTileY[i] = numRows - 1 - ghostTop[i];
+        }
+        if (houseHeight > 0) {
+            house.set(houseX, numRows - houseTop - houseHeight, houseWidth, houseHeight);
+        } else {
+            house.set(0, 0, 0, 0);
+        }
+
+        pelletTiles.clear();
+        for (int i = 0; i < pellets.size; i++) {
+            int bit = pellets.get(i);
+            pelletTiles.add((numRows - 1 - bit / numCols) * numCols + bit % numCols);
         }
     }
 
-    public void render(SpriteBatch batch) {
-        for (Rectangle wall : walls) {
-            batch.draw(wallTexture, wall.x, wall.y, wall.width, wall.height);
+    // Spawn dari header harus di dalam labirin dan bukan dinding (kecuali wallAllowed)
+    private static void checkSpawn(long[] walls, int cols, int rows, int x, int top, boolean wallAllowed,
+                                   int lineNumber, String what) throws IOException {
+        if (x < 0 || x >= cols || top < 0 || top >= rows) {
+            throw new IOException("Maze line " + lineNumber + ": " + what + " spawn " + x + "," + top
+                + " is outside the " + cols + "x" + rows + " maze");
+        }
+        int bit = top * cols + x;
+        if (!wallAllowed && (walls[bit >>> 6] & (1L << bit)) != 0) {
+            throw new IOException("Maze line " + lineNumber + ": " + what + " spawn " + x + "," + top + " is a wall");
         }
     }
 
+    private static int[] ints(String[] parts, int from, int count) {
+        if (parts.length != from + count) throw new IllegalArgumentException("expected " + count + " numbers");
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) values[i] = Integer.parseInt(parts[from + i]);
+        return values;
+    }
+
+    // Indeks bit untuk tile (tileY dari bawah); bit disimpan berurutan seperti baris file (dari atas)
+    private int index(int tileX, int tileY) {
+        return (numRows - 1 - tileY) * numCols + tileX;
+    }
+
+    /** Apakah tile ini dinding. Di luar peta dianggap dinding. */
+    public boolean isWallTile(int tileX, int tileY) {
+        if (tileY < 0 || tileY >= numRows || tileX < 0 || tileX >= numCols) return true;
+        int bit = index(tileX, tileY);
+        return (wallBits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /** Apakah tile ini berisi dot di awal game ('.' atau '*'). */
+    public boolean hasDotAt(int tileX, int tileY) {
+        if (tileY < 0 || tileY >= numRows || tileX < 0 || tileX >= numCols) return false;
+        int bit = index(tileX, tileY);
+        return (dotBits[bit >>> 6] & (1L << bit)) != 0;
+    }
+
     public boolean collidesWithWall(Rectangle boundingBox) {
-        for (Rectangle wall : walls) {
-            if (boundingBox.overlaps(wall)) {
-                return true;
+        return collidesWithWall(boundingBox.x, boundingBox.y, boundingBox.width, boundingBox.height);
+    }
+
+    public boolean collidesWithWall(float x, float y, float boxWidth, float boxHeight) {
+        // Hanya cek tile yang tertutup kotak (biasanya 1-4 tile), bukan semua dinding.
+        // Batas kiri/bawah inklusif dan kanan/atas eksklusif, sama seperti Rectangle.overlaps.
+        int minCol = Math.max(0, (int) Math.floor(x / tileSize));
+        int maxCol = Math.min(numCols - 1, (int) Math.ceil((x + boxWidth) / tileSize) - 1);
+        int minRow = Math.max(0, (int) Math.floor(y / tileSize));
+        int maxRow = Math.min(numRows - 1, (int) Math.ceil((y + boxHeight) / tileSize) - 1);
+        for (int tileY = minRow; tileY <= maxRow; tileY++) {
+            int rowOffset = (numRows - 1 - tileY) * numCols;
+            for (int tileX = minCol; tileX <= maxCol; tileX++) {
+                int bit = rowOffset + tileX;
+                if ((wallBits[bit >>> 6] & (1L << bit)) != 0) {
+                    return true;
+                }
             }
         }
         return false;
@@ -82,28 +327,30 @@ public class Maze {
         // Cek berdasarkan tile, bukan piksel, agar lebih akurat
         int tileX = (int) (x / tileSize);
         int tileY = (int) (y / tileSize);
-        int numRows = layout.length;
-
-        // Konversi koordinat Y game ke koordinat array
-        int row = numRows - 1 - tileY;
 
-        if (row < 0 || row >= numRows || tileX < 0 || tileX >= layout[0].length()) {
+        if (tileY < 0 || tileY >= numRows || tileX < 0 || tileX >= numCols) {
             return true; // Anggap di luar peta sebagai dinding
         }
-        return layout[row].charAt(tileX) == 'W';
+        int bit = index(tileX, tileY);
+        return (wallBits[bit >>> 6] & (1L << bit)) != 0;
     }
 
     public float getWidth() { return width; }
     public float getHeight() { return height; }
     public float getTileSize() { return tileSize; }
+    public int getNumCols() { return numCols; }
+    public int getVersion() { return version; }
+    public int getNumRows() { return numRows; }
+    public int getWallCount() { return wallCount; }
 
-    public void dispose() {
-        if (wallTexture != null) {
-            wallTexture.dispose();
-        }
-    }
+    public int getPacmanTileX() { return pacmanTileX; }
+    public int getPacmanTileY() { return pacmanTileY; }
+    public int getGhostTileX(GhostType type) { return ghostTileX[type.ordinal()]; }
+    public int getGhostTileY(GhostType type) { return ghostTileY[type.ordinal()]; }
 
-    public String[] getLayout() {
-        return layout;
-    }
+    /** Kandang hantu dalam satuan tile (x, y dari bawah, lebar, tinggi); jangan diubah. */
+    public Rectangle getHouseTiles() { return house; }
+
+    /** Tile tempat PowerFood muncul ('*'), sebagai tileY * numCols + tileX; jangan diubah. */
+    public IntArray getPelletTiles() { return pelletTiles; }
 }
@@ -0,0 +1,167 @@
+package pacman.com;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+
+/**
+ * Lapisan dinding statis. Labirin dibagi menjadi chunk {@link #CHUNK_TILES} x {@link #CHUNK_TILES} tile; dinding
+ * setiap chunk diunggah sekali ke {@link SpriteCache} miliknya sendiri, seukuran jumlah dinding chunk itu (bukan
+ * seluruh labirin), dan setiap frame hanya chunk yang terlihat kamera yang digambar. Cache dibangun ulang otomatis
+ * saat labirin atau layout-nya ({@link Maze#getVersion()}) berubah.
+ */
+class MazeLayer implements Disposable {
+    /** Lebar/tinggi satu chunk dalam tile; juga dipakai {@link DotLayer}. */
+    static final int CHUNK_TILES = 16;
+
+    private final TextureRegion wallRegion;
+    private ChunkShader shader; // Satu shader untuk semua SpriteCache chunk, bukan satu compile per chunk
+    private SpriteCache[] chunkCaches = new SpriteCache[0]; // [chunkY * chunkCols + chunkX], null = chunk tanpa dinding
+    private int[] chunkCacheIds = new int[0]; // Id cache di SpriteCache chunk tersebut
+    private int chunkCols;
+    private int chunkRows;
+    private Maze builtFor;
+    private int builtVersion;
+
+    MazeLayer(TextureRegion wallRegion) {
+        this.wallRegion = wallRegion;
+    }
+
+    /**
+     * Gambar dinding chunk yang beririsan dengan {@code view} (koordinat dunia).
+     * Dipanggil di luar batch.begin()/end() karena SpriteCache punya begin/end sendiri.
+     */
+    void render(Maze maze, Matrix4 projection, Rectangle view) {
+        if (maze != builtFor || maze.getVersion() != builtVersion) {
+            rebuild(maze);
+        }
+        float chunkSize = CHUNK_TILES * maze.getTileSize();
+        int minX = Math.max(0, (int) Math.floor(view.x / chunkSize));
+        int maxX = Math.min(chunkCols - 1, (int) Math.floor((view.x + view.width) / chunkSize));
+        int minY = Math.max(0, (int) Math.floor(view.y / chunkSize));
+        int maxY = Math.min(chunkRows - 1, (int) Math.floor((view.y + view.height) / chunkSize));
+        if (minX > maxX || minY > maxY) return;
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        for (int chunkY = minY; chunkY <= maxY; chunkY++) {
+            for (int chunkX = minX; chunkX <= maxX; chunkX++) {
+                int chunk = chunkY * chunkCols + chunkX;
+                SpriteCache cache = chunkCaches[chunk];
+                if (cache == null) continue;
+                cache.setProjectionMatrix(projection);
+                cache.begin();
+                cache.draw(chunkCacheIds[chunk]);
+                cache.end();
+            }
+        }
+    }
+
+    private void rebuild(Maze maze) {
+        builtFor = maze;
+        builtVersion = maze.getVersion();
+        disposeCaches();
+        chunkCols = (maze.getNumCols() + CHUNK_TILES - 1) / CHUNK_TILES;
+        chunkRows = (maze.getNumRows() + CHUNK_TILES - 1) / CHUNK_TILES;
+        chunkCaches = new SpriteCache[chunkCols * chunkRows];
+        chunkCacheIds = new int[chunkCols * chunkRows];
+
+        float tileSize = maze.getTileSize();
+        for (int chunkY = 0; chunkY < chunkRows; chunkY++) {
+            for (int chunkX = 0; chunkX < chunkCols; chunkX++) {
+                int minTileX = chunkX * CHUNK_TILES, maxTileX = Math.min(maze.getNumCols(), minTileX + CHUNK_TILES);
+                int minTileY = chunkY * CHUNK_TILES, maxTileY = Math.min(maze.getNumRows(), minTileY + CHUNK_TILES);
+                int walls = countWalls(maze, minTileX, maxTileX, minTileY, maxTileY);
+                if (walls == 0) continue;
+                if (shader == null) shader = new ChunkShader();
+                SpriteCache cache = new SpriteCache(walls, shader, false);
+                cache.beginCache();
+                for (int tileY = minTileY; tileY < maxTileY; tileY++) {
+                    for (int tileX = minTileX; tileX < maxTileX; tileX++) {
+                        if (maze.isWallTile(tileX, tileY)) {
+                            cache.add(wallRegion, tileX * tileSize, tileY * tileSize, tileSize, tileSize);
+                        }
+                    }
+                }
+                chunkCaches[chunkY * chunkCols + chunkX] = cache;
+                chunkCacheIds[chunkY * chunkCols + chunkX] = cache.endCache();
+            }
+        }
+    }
+
+    private static int countWalls(Maze maze, int minTileX, int maxTileX, int minTileY, int maxTileY) {
+        int walls = 0;
+        for (int tileY = minTileY; tileY < maxTileY; tileY++) {
+            for (int tileX = minTileX; tileX < maxTileX; tileX++) {
+                if (maze.isWallTile(tileX, tileY)) walls++;
+            }
+        }
+        return walls;
+    }
+
+    private void disposeCaches() {
+        for (SpriteCache cache : chunkCaches) {
+            if (cache != null) cache.dispose();
+        }
+        chunkCaches = new SpriteCache[0];
+        chunkCacheIds = new int[0];
+    }
+
+    @Override
+    public void dispose() {
+        disposeCaches();
+        if (shader != null) {
+            shader.release();
+            shader = null;
+        }
+        builtFor = null;
+    }
+
+    /**
+     * Shader bawaan SpriteCache (sumbernya sama dengan SpriteCache.createDefaultShader()). SpriteCache.dispose()
+     * selalu ikut membuang shader-nya, jadi dispose() di sini tidak melakukan apa-apa; shader baru dibuang lewat
+     * {@link #release()} setelah semua cache chunk dibuang.
+     */
+    private static final class ChunkShader extends ShaderProgram {
+        private static final String VERTEX = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+            + "attribute vec4 " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+            + "attribute vec2 " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+            + "uniform mat4 u_projectionViewMatrix;\n"
+            + "varying vec4 v_color;\n"
+            + "varying vec2 v_texCoords;\n"
+            + "void main() {\n"
+            + "   v_color = " + ShaderProgram.COLOR_ATTRIBUTE + ";\n"
+            + "   v_color.a = v_color.a * (255.0/254.0);\n"
+            + "   v_texCoords = " + ShaderProgram.TEXCOORD_ATTRIBUTE + "0;\n"
+            + "   gl_Position = u_projectionViewMatrix * " + ShaderProgram.POSITION_ATTRIBUTE + ";\n"
+            + "}\n";
+        private static final String FRAGMENT = "#ifdef GL_ES\n"
+            + "precision mediump float;\n"
+            + "#endif\n"
+            + "varying vec4 v_color;\n"
+            + "varying vec2 v_texCoords;\n"
+            + "uniform sampler2D u_texture;\n"
+            + "void main() {\n"
+            + "  gl_FragColor = v_color * texture2D(u_texture, v_texCoords);\n"
+            + "}";
+
+        ChunkShader() {
+            super(VERTEX, FRAGMENT);
+            if (!isCompiled()) throw new IllegalArgumentException("Error compiling shader: " + getLog());
+        }
+
+        @Override
+        public void dispose() {
+            // Dipanggil oleh setiap SpriteCache.dispose(); shader masih dipakai chunk lain
+        }
+
+        void release() {
+            super.dispose();
+        }
+    }
+}
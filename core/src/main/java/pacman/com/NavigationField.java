@@ -0,0 +1,123 @@
+package pacman.com;
+
+import java.util.Arrays;
+
+/**
+ * Peta jarak BFS (dalam langkah tile) dari tile Pacman ke setiap tile yang bisa dilewati di {@link Maze}.
+ * Dihitung ulang hanya saat Pacman pindah tile dan dibagi oleh semua hantu, sehingga keputusan arah
+ * hantu cukup membaca jarak tile tetangga (O(1)) — lebih dekat untuk mengejar, lebih jauh untuk kabur.
+ *
+ * <p>BFS berhenti di {@link #MAX_DISTANCE} langkah dan tile yang tidak tercapai ditandai lewat nomor stempel
+ * (tanpa mengosongkan array), jadi biaya hitung ulang tergantung area di sekitar Pacman, bukan ukuran labirin.
+ * Labirin klasik jauh lebih kecil dari batas ini, jadi di sana hasilnya sama dengan BFS penuh.
+ */
+public class NavigationField {
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    /** Jarak terjauh (langkah tile) yang dihitung; lebih jauh dari ini dianggap UNREACHABLE. */
+    public static final int MAX_DISTANCE = 96;
+
+    private final Maze maze;
+    private int numCols;
+    private int numRows;
+    private int[] distances; // [tileY * numCols + tileX], tileY dihitung dari bawah seperti Maze
+    private int[] stamps; // distances[i] hanya berlaku jika stamps[i] == stamp
+    private int stamp;
+    private int[] queue; // Antrian BFS yang dipakai ulang
+    private int mazeVersion;
+    private int targetTile = -1;
+    private int rebuildCount;
+
+    public NavigationField(Maze maze) {
+        this.maze = maze;
+        resize();
+    }
+
+    // Sesuaikan ukuran array dengan layout labirin saat ini
+    private void resize() {
+        mazeVersion = maze.getVersion();
+        numCols = maze.getNumCols();
+        numRows = maze.getNumRows();
+        distances = new int[numCols * numRows];
+        stamps = new int[numCols * numRows];
+        stamp = 0;
+        // Antrian paling banyak sebanyak tile dalam jarak MAX_DISTANCE (belah ketupat), atau seluruh labirin
+        queue = new int[(int) Math.min((long) numCols * numRows, 2L * (MAX_DISTANCE + 1) * (MAX_DISTANCE + 1))];
+        targetTile = -1;
+    }
+
+    /**
+     * Set titik tujuan (biasanya tengah Pacman) dalam koordinat dunia.
+     *
+     * @return true jika tile-nya berubah dan peta jarak dihitung ulang
+     */
+    public boolean setTarget(float worldX, float worldY) {
+        if (maze.getVersion() != mazeVersion) {
+            resize(); // Layout berubah (Maze.setLayout), hitung ulang dari awal
+        }
+        float tileSize = maze.getTileSize();
+        int tileX = (int) Math.floor(worldX / tileSize);
+        int tileY = (int) Math.floor(worldY / tileSize);
+        if (tileX < 0 || tileY < 0 || tileX >= numCols || tileY >= numRows) return false;
+        int tile = tileY * numCols + tileX;
+        if (tile == targetTile) return false;
+        targetTile = tile;
+        rebuild(tileX, tileY);
+        return true;
+    }
+
+    /** Lupakan tile tujuan terakhir agar setTarget berikutnya pasti menghitung ulang (misalnya setelah seek replay). */
+    public void invalidate() {
+        targetTile = -1;
+    }
+
+    private void rebuild(int startX, int startY) {
+        if (++stamp == 0) { // Nomor stempel berputar: kosongkan sekali
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        rebuildCount++;
+        if (isBlocked(startX, startY)) return;
+        int head = 0, tail = 0;
+        int start = startY * numCols + startX;
+        distances[start] = 0;
+        stamps[start] = stamp;
+        queue[tail++] = start;
+        while (head < tail) {
+            int tile = queue[head++];
+            int next = distances[tile] + 1;
+            if (next > MAX_DISTANCE) break; // Antrian BFS urut jarak: sisanya juga lebih jauh
+            int tileX = tile % numCols;
+            int tileY = tile / numCols;
+            tail = visit(tileX + 1, tileY, next, tail);
+            tail = visit(tileX - 1, tileY, next, tail);
+            tail = visit(tileX, tileY + 1, next, tail);
+            tail = visit(tileX, tileY - 1, next, tail);
+        }
+    }
+
+    private int visit(int tileX, int tileY, int distance, int tail) {
+        if (isBlocked(tileX, tileY)) return tail;
+        int tile = tileY * numCols + tileX;
+        if (stamps[tile] == stamp) return tail;
+        stamps[tile] = stamp;
+        distances[tile] = distance;
+        queue[tail] = tile;
+        return tail + 1;
+    }
+
+    private boolean isBlocked(int tileX, int tileY) {
+        return maze.isWallTile(tileX, tileY);
+    }
+
+    /** Jarak langkah tile dari tile ini ke Pacman, atau {@link #UNREACHABLE} untuk dinding / luar peta. */
+    public int getDistance(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= numCols || tileY >= numRows) return UNREACHABLE;
+        int tile = tileY * numCols + tileX;
+        return stamps[tile] == stamp ? distances[tile] : UNREACHABLE;
+    }
+
+    /** Berapa kali peta jarak sudah dihitung ulang (untuk benchmark/diagnostik). */
+    public int getRebuildCount() {
+        return rebuildCount;
+    }
+}
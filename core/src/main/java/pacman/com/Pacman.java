@@ -1,106 +1,123 @@
 package pacman.com;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.math.Rectangle;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class Pacman extends Entity {
-    private Texture leftTexture, rightTexture, upTexture, downTexture;
+    private static final String LEFT_TEXTURE = "pacmanLeft.png";
+    private static final String RIGHT_TEXTURE = "pacmanRight.png";
+    private static final String UP_TEXTURE = "pacmanUp.png";
+    private static final String DOWN_TEXTURE = "pacmanDown.png";
+    // Urutan kode gambar di snapshot replay
+    private static final String[] TEXTURES = {LEFT_TEXTURE, RIGHT_TEXTURE, UP_TEXTURE, DOWN_TEXTURE};
+
     private boolean poweredUp;
     private float powerUpTime;
     private Maze maze;
     private Vector2 currentDirection;
     private Vector2 nextDirection;
-    private Vector2 targetPosition;
-    private boolean isMoving;
+    private final RailMover mover; // Posisi di graf rel; position selalu diturunkan dari sini
     private float moveSpeed = 100f;
 
     // Tambahan
     private boolean isDead = false;
     private Vector2 spawnPosition;
+    // Wadah sementara yang dipakai ulang agar update() tidak membuat objek baru
+    private final Vector2 center = new Vector2();
 
     public Pacman(Vector2 startPosition, Maze maze) {
-        super(startPosition, "pacmanRight.png", new Vector2(maze.getTileSize() * 0.85f, maze.getTileSize() * 0.85f));
+        this(startPosition, maze, new RailGraph(maze));
+    }
+
+    /** Pacman yang bergerak di atas {@code rails} (dibagi dengan hantu); {@code startPosition} harus di tile simpul. */
+    public Pacman(Vector2 startPosition, Maze maze, RailGraph rails) {
+        super(startPosition, RIGHT_TEXTURE, new Vector2(maze.getTileSize() * 0.85f, maze.getTileSize() * 0.85f));
         this.maze = maze;
         this.spawnPosition = new Vector2(startPosition);
 
-        leftTexture = new Texture("pacmanLeft.png");
-        rightTexture = new Texture("pacmanRight.png");
-        upTexture = new Texture("pacmanUp.png");
-        downTexture = new Texture("pacmanDown.png");
         poweredUp = false;
         powerUpTime = 0;
 
         currentDirection = new Vector2(1, 0);
         nextDirection = new Vector2(1, 0);
-        targetPosition = new Vector2(position).add(currentDirection.cpy().scl(maze.getTileSize()));
-        isMoving = true;
+        mover = new RailMover(rails, startPosition.x - tileOf(startPosition.x) * maze.getTileSize());
+        placeAtSpawn();
     }
 
     @Override
     public void update(float delta) {
         if (isDead) return;
 
-        float stepSize = maze.getTileSize();
-
-        // Input arah baru (hanya disimpan dulu)
-        if (Gdx.input.isKeyJustPressed(Input.Keys.A)) {
-            nextDirection.set(-1, 0);
-            texture = leftTexture;
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.D)) {
-            nextDirection.set(1, 0);
-            texture = rightTexture;
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.W)) {
-            nextDirection.set(0, 1);
-            texture = upTexture;
-        } else if (Gdx.input.isKeyJustPressed(Input.Keys.S)) {
-            nextDirection.set(0, -1);
-            texture = downTexture;
-        }
-
-        if (isMoving) {
-            Vector2 directionToTarget = new Vector2(targetPosition).sub(position).nor();
-            float distanceToMove = moveSpeed * delta;
-            float distanceRemaining = targetPosition.dst(position);
-
-            if (distanceToMove >= distanceRemaining) {
-                position.set(targetPosition);
-                isMoving = false;
-            } else {
-                position.add(directionToTarget.scl(distanceToMove));
-            }
-        }
-
-        if (!isMoving) {
-            if (canMove(nextDirection)) {
+        // Arah hanya dipilih di simpul, dan berbalik arah hanya di batas tile (seperti gerak per tile sebelum ada
+        // graf rel); sisa langkah setelah tiba dipakai terus, jadi kecepatan tidak bergantung pada ukuran step
+        int next = RailGraph.directionOf(nextDirection.x, nextDirection.y);
+        float remaining = moveSpeed * delta;
+        while (true) {
+            if (mover.isAtNode()) {
+                int direction = chooseDirection(next);
+                mover.depart(direction);
+                if (direction == RailGraph.NONE) break;
+            } else if (mover.isAtTileBoundary() && next == (mover.getDirection() ^ 1)) {
+                mover.reverse();
                 currentDirection.set(nextDirection);
             }
-
-            if (canMove(currentDirection)) {
-                targetPosition.set(position).add(currentDirection.cpy().scl(stepSize));
-                isMoving = true;
-            }
+            if (remaining <= 0) break;
+            remaining = mover.advanceToTile(remaining);
         }
+        mover.apply(position);
 
         if (poweredUp) {
             powerUpTime -= delta;
             if (powerUpTime <= 0) {
                 poweredUp = false;
-                texture = rightTexture;
+                texturePath = RIGHT_TEXTURE;
             }
         }
     }
 
-    private boolean canMove(Vector2 direction) {
-        Vector2 target = new Vector2(position).add(direction.cpy().scl(maze.getTileSize()));
-        Rectangle bounds = new Rectangle(target.x, target.y, size.x, size.y);
-        return !maze.collidesWithWall(bounds);
+    // Input arah baru (hanya disimpan dulu), dipanggil GameWorld dari InputFrame
+    public void setNextDirection(Vector2 direction) {
+        if (isDead || direction.isZero()) return;
+        nextDirection.set(direction);
+        if (direction.x < 0) {
+            texturePath = LEFT_TEXTURE;
+        } else if (direction.x > 0) {
+            texturePath = RIGHT_TEXTURE;
+        } else if (direction.y > 0) {
+            texturePath = UP_TEXTURE;
+        } else {
+            texturePath = DOWN_TEXTURE;
+        }
+    }
+
+    // Arah input jika ada lorong ke sana, jika tidak lanjut lurus, jika buntu diam (arah terakhir tetap disimpan)
+    private int chooseDirection(int next) {
+        RailGraph rails = mover.getRails();
+        if (next != RailGraph.NONE && rails.canLeave(mover.getNode(), next)) {
+            currentDirection.set(nextDirection);
+            return next;
+        }
+        int current = RailGraph.directionOf(currentDirection.x, currentDirection.y);
+        return current != RailGraph.NONE && rails.canLeave(mover.getNode(), current) ? current : RailGraph.NONE;
+    }
+
+    private int tileOf(float coordinate) {
+        return (int) Math.floor(coordinate / maze.getTileSize());
     }
 
+    // Pacman mulai langsung berjalan ke kanan (jika ada lorong), seperti sebelum ada graf rel
+    private void placeAtSpawn() {
+        mover.place(tileOf(spawnPosition.x), tileOf(spawnPosition.y));
+        mover.depart(chooseDirection(RailGraph.RIGHT));
+        mover.apply(position);
+    }
+
+    // Vektor yang dikembalikan dipakai ulang; salin jika perlu disimpan
     public Vector2 getCenter() {
-        return new Vector2(position.x + size.x / 2, position.y + size.y / 2);
+        return center.set(position.x + size.x / 2, position.y + size.y / 2);
     }
 
     public Vector2 getDirection() {
@@ -111,7 +128,7 @@ public class Pacman extends Entity {
         this.poweredUp = poweredUp;
         this.powerUpTime = duration;
         if (poweredUp) {
-            texture = rightTexture;
+            texturePath = RIGHT_TEXTURE;
         }
     }
 
@@ -125,33 +142,48 @@ public class Pacman extends Entity {
 
     public void resetDirection() {
         this.currentDirection.set(1, 0);
-        this.texture = this.rightTexture;
+        this.texturePath = RIGHT_TEXTURE;
     }
 
     // Tambahan
     public void die() {
         isDead = true;
-        isMoving = false;
     }
 
     public void respawn() {
         isDead = false;
-        position.set(spawnPosition);
         currentDirection.set(1, 0);
         nextDirection.set(1, 0);
-        targetPosition.set(position).add(currentDirection.cpy().scl(maze.getTileSize()));
-        texture = rightTexture;
-        isMoving = true;
+        placeAtSpawn();
+        previousPosition.set(position); // Teleport, jangan diinterpolasi dari posisi lama
+        texturePath = RIGHT_TEXTURE;
         poweredUp = false; // Reset power-up state
         powerUpTime = 0;  // Reset power-up timer
     }
 
-    @Override
-    public void dispose() {
-        super.dispose();
-        leftTexture.dispose();
-        rightTexture.dispose();
-        upTexture.dispose();
-        downTexture.dispose();
+    void writeState(DataOutput out) throws IOException {
+        writePosition(out);
+        int textureCode = 0;
+        while (textureCode < TEXTURES.length - 1 && !TEXTURES[textureCode].equals(texturePath)) textureCode++;
+        out.writeByte(textureCode);
+        out.writeBoolean(poweredUp);
+        out.writeFloat(powerUpTime);
+        out.writeFloat(currentDirection.x);
+        out.writeFloat(currentDirection.y);
+        out.writeFloat(nextDirection.x);
+        out.writeFloat(nextDirection.y);
+        mover.writeState(out);
+        out.writeBoolean(isDead);
+    }
+
+    void readState(DataInput in) throws IOException {
+        readPosition(in);
+        texturePath = TEXTURES[in.readByte()];
+        poweredUp = in.readBoolean();
+        powerUpTime = in.readFloat();
+        currentDirection.set(in.readFloat(), in.readFloat());
+        nextDirection.set(in.readFloat(), in.readFloat());
+        mover.readState(in);
+        isDead = in.readBoolean();
     }
 }
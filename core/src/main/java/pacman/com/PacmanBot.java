@@ -0,0 +1,142 @@
+package pacman.com;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * Pemain otomatis sederhana untuk simulasi tanpa keyboard: berjalan ke dot terdekat menurut jarak BFS
+ * dan menghindari tile yang dekat dengan hantu yang tidak takut. Mengisi {@link InputFrame} yang sama
+ * seperti Main, sehingga GameWorld tidak tahu bedanya pemain manusia dan bot.
+ */
+public class PacmanBot {
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    private static final int DANGER_TILES = 2; // Jarak Manhattan (tile) ke hantu yang dianggap berbahaya
+    private static final int DANGER_PENALTY = 1000;
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private Maze maze;
+    private DotGrid dots;
+    private int numCols;
+    private int numRows;
+    private int[] dotDistance = new int[0]; // [tileY * numCols + tileX] = langkah ke dot terdekat
+    private int[] queue = new int[0];
+    private int dotCount = -1; // Jumlah dot saat dotDistance terakhir dihitung
+    private final IntArray nearby = new IntArray(); // Hasil query SpatialHash yang dipakai ulang
+
+    /** Tulis arah pilihan bot untuk tick ini ke {@code input}. Tidak membuat objek baru. */
+    public void decide(GameWorld world, InputFrame input) {
+        if (world.getMaze() != maze || world.getDots() != dots) {
+            attach(world.getMaze(), world.getDots());
+        }
+        if (dots.getCount() != dotCount) {
+            rebuild();
+        }
+
+        float tileSize = maze.getTileSize();
+        Pacman pacman = world.getPacman();
+        int tileX = (int) Math.floor(pacman.getCenter().x / tileSize);
+        int tileY = (int) Math.floor(pacman.getCenter().y / tileSize);
+
+        int bestDir = -1;
+        long bestCost = Long.MAX_VALUE;
+        for (int d = 0; d < DX.length; d++) {
+            int nx = tileX + DX[d];
+            int ny = tileY + DY[d];
+            if (isBlocked(nx, ny)) continue;
+            int distance = dotDistance[ny * numCols + nx];
+            long cost = distance == UNREACHABLE ? numCols * numRows : distance;
+            if (!pacman.isPoweredUp()) {
+                cost += DANGER_PENALTY * (long) (dangerAt(world.getGhosts(), nx, ny) + dangerAt(world, nx, ny));
+            }
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestDir = d;
+            }
+        }
+        if (bestDir >= 0) {
+            input.setDirection(DX[bestDir], DY[bestDir]);
+        }
+    }
+
+    private void attach(Maze maze, DotGrid dots) {
+        this.maze = maze;
+        this.dots = dots;
+        numCols = maze.getNumCols();
+        numRows = maze.getNumRows();
+        if (dotDistance.length != numCols * numRows) {
+            dotDistance = new int[numCols * numRows];
+            queue = new int[numCols * numRows];
+        }
+        dotCount = -1;
+    }
+
+    // BFS dari semua dot sekaligus: hasilnya jarak setiap tile ke dot terdekat
+    private void rebuild() {
+        dotCount = dots.getCount();
+        Arrays.fill(dotDistance, UNREACHABLE);
+        int head = 0, tail = 0;
+        for (int tileY = 0; tileY < numRows; tileY++) {
+            for (int tileX = 0; tileX < numCols; tileX++) {
+                if (dots.hasDot(tileX, tileY)) {
+                    int tile = tileY * numCols + tileX;
+                    dotDistance[tile] = 0;
+                    queue[tail++] = tile;
+                }
+            }
+        }
+        while (head < tail) {
+            int tile = queue[head++];
+            int tileX = tile % numCols;
+            int tileY = tile / numCols;
+            int next = dotDistance[tile] + 1;
+            for (int d = 0; d < DX.length; d++) {
+                int nx = tileX + DX[d];
+                int ny = tileY + DY[d];
+                if (isBlocked(nx, ny)) continue;
+                int neighbour = ny * numCols + nx;
+                if (dotDistance[neighbour] != UNREACHABLE) continue;
+                dotDistance[neighbour] = next;
+                queue[tail++] = neighbour;
+            }
+        }
+    }
+
+    // Jumlah hantu tidak takut yang berada dalam DANGER_TILES dari tile ini
+    private int dangerAt(Array<Ghost> ghosts, int tileX, int tileY) {
+        float tileSize = maze.getTileSize();
+        int danger = 0;
+        for (int i = 0; i < ghosts.size; i++) {
+            Ghost ghost = ghosts.get(i);
+            if (ghost.isScared()) continue;
+            int ghostX = (int) Math.floor(ghost.getCenter().x / tileSize);
+            int ghostY = (int) Math.floor(ghost.getCenter().y / tileSize);
+            if (Math.abs(ghostX - tileX) + Math.abs(ghostY - tileY) <= DANGER_TILES) danger++;
+        }
+        return danger;
+    }
+
+    // Hantu gerombolan: hanya yang ada di sel SpatialHash sekitar tile ini yang dicek
+    private int dangerAt(GameWorld world, int tileX, int tileY) {
+        GhostSwarm swarm = world.getSwarm();
+        if (swarm.size() == 0) return 0;
+        float tileSize = maze.getTileSize();
+        nearby.clear();
+        world.getSpatialHash().query((tileX - DANGER_TILES) * tileSize, (tileY - DANGER_TILES) * tileSize,
+            2 * DANGER_TILES * tileSize, 2 * DANGER_TILES * tileSize, nearby);
+        int danger = 0;
+        for (int k = 0; k < nearby.size; k++) {
+            int i = world.getSwarmIndex(nearby.get(k));
+            if (i < 0 || swarm.isScared(i)) continue;
+            int ghostX = (int) Math.floor(swarm.getCenterX(i) / tileSize);
+            int ghostY = (int) Math.floor(swarm.getCenterY(i) / tileSize);
+            if (Math.abs(ghostX - tileX) + Math.abs(ghostY - tileY) <= DANGER_TILES) danger++;
+        }
+        return danger;
+    }
+
+    private boolean isBlocked(int tileX, int tileY) {
+        return maze.isWallTile(tileX, tileY);
+    }
+}
@@ -2,6 +2,9 @@ package pacman.com;
 
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public abstract class PowerUp extends Entity {
     protected float duration; // Total duration of the power-up effect
@@ -25,6 +28,14 @@ public abstract class PowerUp extends Entity {
         }
     }
 
+    /** Aktifkan lagi instance ini di posisi baru dengan durasi penuh (dipakai ulang dari pool). */
+    void spawn(float x, float y) {
+        position.set(x, y);
+        previousPosition.set(position);
+        remainingTime = duration;
+        active = true;
+    }
+
     public Rectangle getBounds() {
         return new Rectangle(position.x, position.y, size.x, size.y);
     }
@@ -35,6 +46,16 @@ public abstract class PowerUp extends Entity {
         return active; //
     }
 
+    void writeState(DataOutput out) throws IOException {
+        writePosition(out);
+        out.writeFloat(remainingTime);
+    }
+
+    void readState(DataInput in) throws IOException {
+        readPosition(in);
+        remainingTime = in.readFloat();
+    }
+
     public void collect() {
         active = false; // Deactivate after collection
     }
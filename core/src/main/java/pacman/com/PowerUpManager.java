@@ -0,0 +1,178 @@
+package pacman.com;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.Pool;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Siklus hidup power-up. Cherry, Cherry2, dan PowerFood diambil dari {@link Pool} dan dikembalikan setelah diambil
+ * Pacman atau kedaluwarsa ({@link #compact()}), sehingga daftar aktif paling banyak {@link #MAX_ACTIVE} entri dan
+ * sesi panjang tidak menumpuk objek. Lokasi spawn dipilih O(1) dari tabel tile legal yang dihitung sekali per
+ * layout labirin, bukan dengan mencoba tile acak sampai 100 kali.
+ */
+public class PowerUpManager {
+    public static final int MAX_ACTIVE = 5;
+    // Kode jenis di snapshot replay
+    private static final int CHERRY = 0, CHERRY2 = 1, POWER_FOOD = 2;
+    private static final float POWER_UP_SIZE = 20f;
+    private static final float SPAWN_TOLERANCE_TILES = 3.5f; // Jarak minimum dari spawn Pacman
+
+    private final Maze maze;
+    private final Array<PowerUp> active = new Array<>(MAX_ACTIVE);
+    private final IntArray spawnTiles = new IntArray(); // tileY * numCols + tileX, tileY dari bawah
+    private int spawnTilesVersion = -1; // Maze.getVersion() saat tabel dibuat
+
+    private final Pool<Cherry> cherries = new Pool<Cherry>(MAX_ACTIVE) {
+        @Override
+        protected Cherry newObject() {
+            return new Cherry(new Vector2());
+        }
+    };
+    private final Pool<Cherry2> cherries2 = new Pool<Cherry2>(MAX_ACTIVE) {
+        @Override
+        protected Cherry2 newObject() {
+            return new Cherry2(new Vector2());
+        }
+    };
+    private final Pool<PowerFood> powerFoods = new Pool<PowerFood>(MAX_ACTIVE) {
+        @Override
+        protected PowerFood newObject() {
+            return new PowerFood(new Vector2());
+        }
+    };
+
+    public PowerUpManager(Maze maze) {
+        this.maze = maze;
+    }
+
+    /**
+     * Munculkan satu power-up di tile legal acak dengan peluang jenis dari {@code config}.
+     *
+     * @return power-up baru (sudah masuk {@link #getActive()}), atau null jika sudah ada MAX_ACTIVE atau tidak ada tile legal
+     */
+    public PowerUp spawn(SeededRandom random, GameConfig config) {
+        if (active.size >= MAX_ACTIVE) return null;
+        if (spawnTilesVersion != maze.getVersion()) buildSpawnTiles();
+        if (spawnTiles.size == 0) return null;
+
+        int numCols = maze.getNumCols();
+        int tile = spawnTiles.get(random.nextInt(spawnTiles.size));
+        float rand = random.nextFloat();
+        PowerUp powerUp;
+        if (rand < config.getCherryChance()) powerUp = cherries.obtain(); //35%
+        else if (rand < config.getCherryChance() + config.getCherry2Chance()) powerUp = cherries2.obtain(); //25%
+        else { //40%
+            powerUp = powerFoods.obtain();
+            // Labirin dengan tile '*' menaruh PowerFood di salah satu tile itu
+            IntArray pellets = maze.getPelletTiles();
+            if (pellets.size > 0) tile = pellets.get(random.nextInt(pellets.size));
+        }
+        float tileSize = maze.getTileSize();
+        float offset = (tileSize - POWER_UP_SIZE) / 2;
+        powerUp.spawn((tile % numCols) * tileSize + offset, (tile / numCols) * tileSize + offset);
+        active.add(powerUp);
+        return powerUp;
+    }
+
+    // Tile legal: bukan dinding, tidak dekat spawn Pacman, dan di luar kandang hantu
+    private void buildSpawnTiles() {
+        spawnTilesVersion = maze.getVersion();
+        spawnTiles.clear();
+        for (int tileY = 0; tileY < maze.getNumRows(); tileY++) {
+            for (int tileX = 0; tileX < maze.getNumCols(); tileX++) {
+                if (!maze.isWallTile(tileX, tileY) && !isNearInitialEntityPosition(tileX, tileY)) {
+                    spawnTiles.add(tileY * maze.getNumCols() + tileX);
+                }
+            }
+        }
+    }
+
+    private boolean isNearInitialEntityPosition(int tileX, int tileY) {
+        float tileSize = maze.getTileSize();
+        float x = (tileX + 0.5f) * tileSize, y = (tileY + 0.5f) * tileSize;
+        // Sekitar tile spawn Pacman dari labirin
+        float spawnX = (maze.getPacmanTileX() + 0.5f) * tileSize, spawnY = (maze.getPacmanTileY() + 0.5f) * tileSize;
+        if (Vector2.dst(x, y, spawnX, spawnY) < SPAWN_TOLERANCE_TILES * tileSize) return true;
+        // Cek juga area kandang hantu
+        Rectangle house = maze.getHouseTiles();
+        return house.x * tileSize <= x && (house.x + house.width) * tileSize >= x
+            && house.y * tileSize <= y && (house.y + house.height) * tileSize >= y;
+    }
+
+    public void update(float delta) {
+        for (int i = 0; i < active.size; i++) active.get(i).update(delta);
+    }
+
+    /**
+     * Keluarkan power-up yang sudah diambil atau kedaluwarsa dan kembalikan ke pool. Urutan sisanya tetap.
+     *
+     * @return jumlah power-up yang dikeluarkan
+     */
+    public int compact() {
+        int kept = 0;
+        for (int i = 0; i < active.size; i++) {
+            PowerUp powerUp = active.get(i);
+            if (powerUp.isActive()) {
+                active.set(kept++, powerUp);
+            } else {
+                free(powerUp);
+            }
+        }
+        int removed = active.size - kept;
+        active.truncate(kept);
+        return removed;
+    }
+
+    /** Kembalikan semua power-up ke pool (game baru). */
+    public void clear() {
+        for (int i = 0; i < active.size; i++) free(active.get(i));
+        active.clear();
+    }
+
+    private void free(PowerUp powerUp) {
+        switch (typeOf(powerUp)) {
+            case CHERRY: cherries.free((Cherry) powerUp); break;
+            case CHERRY2: cherries2.free((Cherry2) powerUp); break;
+            default: powerFoods.free((PowerFood) powerUp); break;
+        }
+    }
+
+    private static int typeOf(PowerUp powerUp) {
+        return powerUp instanceof Cherry ? CHERRY : powerUp instanceof Cherry2 ? CHERRY2 : POWER_FOOD;
+    }
+
+    /** Power-up yang sedang ada di labirin, urut waktu muncul. Jangan diubah dari luar. */
+    public Array<PowerUp> getActive() {
+        return active;
+    }
+
+    // Snapshot replay: power-up yang sudah tidak aktif tidak lagi ikut simulasi, jadi tidak perlu disimpan
+    void writeState(DataOutput out) throws IOException {
+        int activeCount = 0;
+        for (int i = 0; i < active.size; i++) if (active.get(i).isActive()) activeCount++;
+        out.writeByte(activeCount);
+        for (int i = 0; i < active.size; i++) {
+            PowerUp powerUp = active.get(i);
+            if (!powerUp.isActive()) continue;
+            out.writeByte(typeOf(powerUp));
+            powerUp.writeState(out);
+        }
+    }
+
+    void readState(DataInput in) throws IOException {
+        clear();
+        int count = in.readByte();
+        for (int i = 0; i < count; i++) {
+            int type = in.readByte();
+            PowerUp powerUp = type == CHERRY ? cherries.obtain() : type == CHERRY2 ? cherries2.obtain() : powerFoods.obtain();
+            powerUp.spawn(0, 0);
+            powerUp.readState(in);
+            active.add(powerUp);
+        }
+    }
+}
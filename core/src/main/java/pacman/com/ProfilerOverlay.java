@@ -0,0 +1,71 @@
+package pacman.com;
+
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * Teks ringkasan {@link FrameProfiler} di pojok layar (F3): persentil waktu frame, rata-rata tiap fase,
+ * draw call, texture bind, dan GC. Teks disusun ulang dua kali per detik saja, bukan setiap frame, agar overlay
+ * sendiri tidak mengubah angka yang diukurnya.
+ */
+public class ProfilerOverlay {
+    private static final float REFRESH_SECONDS = 0.5f;
+
+    private final FrameProfiler profiler;
+    private final StringBuilder text = new StringBuilder(512);
+    private float sinceRefresh = REFRESH_SECONDS;
+    private boolean visible;
+
+    public ProfilerOverlay(FrameProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void toggle() {
+        visible = !visible;
+        sinceRefresh = REFRESH_SECONDS; // Langsung tampil dengan angka terbaru
+    }
+
+    /** Gambar di koordinat layar ({@code x}, {@code y} = pojok kiri atas); di antara batch.begin() dan end(). */
+    public void draw(SpriteBatch batch, BitmapFont font, float delta, float x, float y) {
+        if (!visible) return;
+        sinceRefresh += delta;
+        if (sinceRefresh >= REFRESH_SECONDS) {
+            sinceRefresh = 0;
+            rebuildText();
+        }
+        font.draw(batch, text, x, y);
+    }
+
+    private void rebuildText() {
+        text.setLength(0);
+        text.append("frame ms  p50 ");
+        appendMillis(profiler.getFrameTimeP50Millis());
+        text.append("  p95 ");
+        appendMillis(profiler.getFrameTimeP95Millis());
+        text.append("  p99 ");
+        appendMillis(profiler.getFrameTimeP99Millis());
+        text.append("\nwork ms   p50 ");
+        appendMillis(profiler.getWorkTimeP50Millis());
+        text.append("  p99 ");
+        appendMillis(profiler.getWorkTimeP99Millis());
+        for (int phase = 0; phase < FrameProfiler.PHASE_COUNT; phase++) {
+            text.append('\n').append(FrameProfiler.getPhaseName(phase)).append("  ");
+            text.append(Math.round(profiler.getPhaseMeanMicros(phase))).append(" us");
+        }
+        text.append("\ndraw calls ").append(profiler.getDrawCalls());
+        text.append("  texture binds ").append(profiler.getTextureBindings());
+        text.append("\ngc ").append(profiler.getGcCount()).append(" (").append(profiler.getGcTimeMillis()).append(" ms)");
+    }
+
+    // Dua desimal tanpa String.format
+    private void appendMillis(double millis) {
+        long hundredths = Math.round(millis * 100);
+        text.append(hundredths / 100).append('.');
+        if (hundredths % 100 < 10) text.append('0');
+        text.append(hundredths % 100);
+    }
+}
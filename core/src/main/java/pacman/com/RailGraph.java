@@ -0,0 +1,168 @@
+package pacman.com;
+
+import java.util.Arrays;
+
+/**
+ * Graf "rel" labirin. Simpul adalah tile tempat arah bisa berubah: persimpangan, tikungan, jalan buntu, ditambah
+ * tile spawn Pacman dan hantu. Sisi adalah lorong lurus di antara dua simpul. Pacman dan {@link Ghost} bergerak
+ * sepanjang sisi lewat {@link RailMover} dan hanya memilih arah saat tiba di simpul, jadi tidak ada tes tabrakan
+ * dinding di tengah lorong.
+ *
+ * <p>Dibangun sekali dari bitset dinding {@link Maze} dalam O(jumlah tile); {@link #refresh()} membangun ulang jika
+ * layout berubah. Arah memakai kode yang sama dengan {@link GhostSwarm}: 0 kanan, 1 kiri, 2 atas, 3 bawah, dan
+ * kebalikan arah {@code d} adalah {@code d ^ 1}.
+ */
+public class RailGraph {
+    public static final int RIGHT = 0;
+    public static final int LEFT = 1;
+    public static final int UP = 2;
+    public static final int DOWN = 3;
+    /** Tidak ada arah (diam di simpul) atau tidak ada sisi ke arah itu. */
+    public static final int NONE = -1;
+    static final int[] DX = {1, -1, 0, 0};
+    static final int[] DY = {0, 0, 1, -1};
+    private static final int[] SPAWN_SEARCH = {DOWN, UP, LEFT, RIGHT};
+
+    private final Maze maze;
+    private int version;
+    private int numCols;
+    private int[] nodeOfTile; // [tileY * numCols + tileX] -> indeks simpul, atau NONE
+    private int[] nodeTile; // Indeks simpul -> tile
+    private int[] target; // [simpul * 4 + arah] -> simpul di ujung lorong, atau NONE jika dinding
+    private int[] length; // [simpul * 4 + arah] -> panjang lorong dalam tile
+    private int nodeCount;
+
+    public RailGraph(Maze maze) {
+        this.maze = maze;
+        build();
+    }
+
+    /** Bangun ulang jika layout labirin berubah sejak graf dibuat. */
+    public void refresh() {
+        if (maze.getVersion() != version) build();
+    }
+
+    private void build() {
+        version = maze.getVersion();
+        numCols = maze.getNumCols();
+        int numRows = maze.getNumRows();
+        if (nodeOfTile == null || nodeOfTile.length != numCols * numRows) {
+            nodeOfTile = new int[numCols * numRows];
+        }
+        Arrays.fill(nodeOfTile, NONE);
+
+        nodeCount = 0;
+        for (int tileY = 0; tileY < numRows; tileY++) {
+            for (int tileX = 0; tileX < numCols; tileX++) {
+                if (isDecisionTile(tileX, tileY)) nodeOfTile[tileY * numCols + tileX] = nodeCount++;
+            }
+        }
+        markSpawn(maze.getPacmanTileX(), maze.getPacmanTileY());
+        for (GhostType type : GhostType.values()) markSpawn(maze.getGhostTileX(type), maze.getGhostTileY(type));
+
+        nodeTile = new int[nodeCount];
+        target = new int[nodeCount * DX.length];
+        length = new int[nodeCount * DX.length];
+        for (int tile = 0; tile < nodeOfTile.length; tile++) {
+            if (nodeOfTile[tile] != NONE) nodeTile[nodeOfTile[tile]] = tile;
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            int tileX = nodeTile[node] % numCols, tileY = nodeTile[node] / numCols;
+            for (int d = 0; d < DX.length; d++) {
+                // Tile selain simpul adalah lorong lurus, jadi cukup jalan lurus sampai simpul berikutnya
+                int x = tileX + DX[d], y = tileY + DY[d], steps = 1;
+                if (maze.isWallTile(x, y)) {
+                    target[node * DX.length + d] = NONE;
+                    continue;
+                }
+                while (nodeOfTile[y * numCols + x] == NONE) {
+                    x += DX[d];
+                    y += DY[d];
+                    steps++;
+                }
+                target[node * DX.length + d] = nodeOfTile[y * numCols + x];
+                length[node * DX.length + d] = steps;
+            }
+        }
+    }
+
+    // Tile jalan yang bukan lorong lurus (tepat dua jalan keluar yang berlawanan)
+    private boolean isDecisionTile(int tileX, int tileY) {
+        if (maze.isWallTile(tileX, tileY)) return false;
+        boolean right = !maze.isWallTile(tileX + 1, tileY), left = !maze.isWallTile(tileX - 1, tileY);
+        boolean up = !maze.isWallTile(tileX, tileY + 1), down = !maze.isWallTile(tileX, tileY - 1);
+        boolean horizontal = right && left && !up && !down;
+        boolean vertical = up && down && !right && !left;
+        return !horizontal && !vertical;
+    }
+
+    // Entity mulai dari tile spawn, jadi tile itu juga harus simpul walau di tengah lorong
+    private void markSpawn(int tileX, int tileY) {
+        int tile = spawnTile(tileX, tileY);
+        if (tile != NONE && nodeOfTile[tile] == NONE) nodeOfTile[tile] = nodeCount++;
+    }
+
+    // Spawn di dalam dinding (dua hantu di labirin klasik) digeser lurus ke tile jalan terdekat, bawah lebih dulu
+    // karena hantu mulai bergerak ke bawah. NONE jika tidak ada tile jalan segaris dengan spawn.
+    private int spawnTile(int tileX, int tileY) {
+        int reach = Math.max(numCols, maze.getNumRows());
+        for (int distance = 0; distance < reach; distance++) {
+            for (int d : SPAWN_SEARCH) {
+                int x = tileX + DX[d] * distance, y = tileY + DY[d] * distance;
+                if (!maze.isWallTile(x, y)) return y * numCols + x;
+            }
+        }
+        return NONE;
+    }
+
+    /** Simpul di tile ini, atau {@link #NONE} jika tile-nya dinding atau lorong lurus. */
+    public int getNode(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= numCols || tileY >= maze.getNumRows()) return NONE;
+        return nodeOfTile[tileY * numCols + tileX];
+    }
+
+    /** Simpul tempat entity dengan tile spawn ini mulai, atau {@link #NONE} jika tidak ada jalan segaris. */
+    public int getSpawnNode(int tileX, int tileY) {
+        int tile = spawnTile(tileX, tileY);
+        return tile == NONE ? NONE : nodeOfTile[tile];
+    }
+
+    public int getNodeTileX(int node) {
+        return nodeTile[node] % numCols;
+    }
+
+    public int getNodeTileY(int node) {
+        return nodeTile[node] / numCols;
+    }
+
+    /** Simpul di ujung lorong dari {@code node} ke arah {@code direction}, atau {@link #NONE} jika ada dinding. */
+    public int getTarget(int node, int direction) {
+        return target[node * DX.length + direction];
+    }
+
+    /** Panjang lorong dari {@code node} ke arah {@code direction} dalam tile (0 jika tidak ada jalan). */
+    public int getLength(int node, int direction) {
+        return length[node * DX.length + direction];
+    }
+
+    public boolean canLeave(int node, int direction) {
+        return target[node * DX.length + direction] != NONE;
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /** Kode arah untuk vektor satuan (dx, dy), atau {@link #NONE} untuk (0, 0). */
+    public static int directionOf(float dx, float dy) {
+        if (dx > 0) return RIGHT;
+        if (dx < 0) return LEFT;
+        if (dy > 0) return UP;
+        if (dy < 0) return DOWN;
+        return NONE;
+    }
+}
@@ -0,0 +1,156 @@
+package pacman.com;
+
+import com.badlogic.gdx.math.Vector2;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Posisi satu entity di atas {@link RailGraph}: simpul terakhir yang dilewati, arah gerak, dan jarak (piksel) dari
+ * simpul itu. Posisi dunia selalu dihitung ulang dari ketiganya, jadi tidak ada error yang menumpuk, dan sisa
+ * langkah saat melewati simpul dipakai di lorong berikutnya: gerakan sama persis berapa pun ukuran step.
+ *
+ * <p>Pemakai memanggil {@link #advance(float)} berulang kali; setiap kali entity tiba di simpul, gerak berhenti di
+ * sana ({@link #isAtNode()}) supaya pemakai bisa memilih arah lewat {@link #depart(int)}. Pacman memakai
+ * {@link #advanceToTile(float)} yang juga berhenti di setiap batas tile.
+ */
+final class RailMover {
+    // Toleransi pembulatan float: langkah yang pas membagi satu tile tetap tiba di batasnya pada tick yang sama
+    private static final float BOUNDARY_EPSILON = 1e-3f;
+
+    private final RailGraph rails;
+    private final float anchor; // Jarak pojok kiri-bawah entity dari pojok kiri-bawah tile
+    private int node;
+    private int direction = RailGraph.NONE; // NONE = diam di simpul
+    private float offset; // Piksel dari simpul ke arah direction
+    private float edgeLength; // Panjang lorong saat ini dalam piksel; 0 = sedang di simpul
+
+    RailMover(RailGraph rails, float anchor) {
+        this.rails = rails;
+        this.anchor = anchor;
+    }
+
+    /** Taruh diam di simpul tile spawn ini (lihat {@link RailGraph#getSpawnNode(int, int)}). */
+    void place(int tileX, int tileY) {
+        int spawnNode = rails.getSpawnNode(tileX, tileY);
+        if (spawnNode == RailGraph.NONE) {
+            throw new IllegalStateException("Tile " + tileX + "," + tileY + " is not walkable");
+        }
+        node = spawnNode;
+        direction = RailGraph.NONE;
+        offset = 0;
+        edgeLength = 0;
+    }
+
+    /** Di simpul: mulai menyusuri lorong ke {@code newDirection}, atau diam jika {@link RailGraph#NONE}. */
+    void depart(int newDirection) {
+        direction = newDirection;
+        offset = 0;
+        edgeLength = newDirection == RailGraph.NONE ? 0 : rails.getLength(node, newDirection) * maze().getTileSize();
+    }
+
+    /** Di tengah lorong: berbalik arah tanpa menunggu simpul. */
+    void reverse() {
+        if (edgeLength == 0) return;
+        node = rails.getTarget(node, direction);
+        direction ^= 1;
+        offset = edgeLength - offset;
+    }
+
+    /**
+     * Maju sejauh {@code distance} piksel ke arah sekarang. Jika lorongnya habis, entity berhenti tepat di simpul
+     * ujungnya ({@link #isAtNode()} menjadi true) dan sisa jarak dikembalikan; selain itu mengembalikan 0.
+     */
+    float advance(float distance) {
+        if (direction == RailGraph.NONE) return 0;
+        offset += distance;
+        if (offset < edgeLength) return 0;
+        float rest = offset - edgeLength;
+        node = rails.getTarget(node, direction);
+        offset = 0;
+        edgeLength = 0;
+        return rest;
+    }
+
+    /**
+     * Seperti {@link #advance(float)}, tetapi juga berhenti di batas tile berikutnya di tengah lorong
+     * ({@link #isAtTileBoundary()}), supaya pemakai bisa berbalik arah di sana. Mengembalikan sisa jarak setelah
+     * tiba di batas tile atau simpul (dipakai di pemanggilan berikutnya), atau 0 jika belum tiba.
+     */
+    float advanceToTile(float distance) {
+        if (direction == RailGraph.NONE) return 0;
+        float tileSize = maze().getTileSize();
+        float boundary = ((int) (offset / tileSize) + 1) * tileSize;
+        float target = Math.min(boundary, edgeLength);
+        if (offset + distance < target - BOUNDARY_EPSILON) {
+            offset += distance;
+            return 0;
+        }
+        float rest = Math.max(0, offset + distance - target);
+        if (target < edgeLength) {
+            offset = target;
+        } else {
+            node = rails.getTarget(node, direction);
+            offset = 0;
+            edgeLength = 0;
+        }
+        return rest;
+    }
+
+    /** Di tengah lorong tepat di batas tile (posisi entity pas di satu tile). */
+    boolean isAtTileBoundary() {
+        return edgeLength > 0 && offset % maze().getTileSize() == 0;
+    }
+
+    /** Tepat di sebuah simpul (baru tiba atau diam), tempat arah boleh diganti. */
+    boolean isAtNode() {
+        return edgeLength == 0;
+    }
+
+    int getNode() {
+        return node;
+    }
+
+    /** Arah gerak sekarang; saat baru tiba di simpul ini masih arah kedatangan. */
+    int getDirection() {
+        return direction;
+    }
+
+    boolean isMoving() {
+        return direction != RailGraph.NONE;
+    }
+
+    RailGraph getRails() {
+        return rails;
+    }
+
+    /** Tulis posisi dunia (pojok kiri-bawah entity) ke {@code position}. */
+    void apply(Vector2 position) {
+        float tileSize = maze().getTileSize();
+        float x = rails.getNodeTileX(node) * tileSize + anchor;
+        float y = rails.getNodeTileY(node) * tileSize + anchor;
+        if (direction != RailGraph.NONE) {
+            x += RailGraph.DX[direction] * offset;
+            y += RailGraph.DY[direction] * offset;
+        }
+        position.set(x, y);
+    }
+
+    private Maze maze() {
+        return rails.getMaze();
+    }
+
+    void writeState(DataOutput out) throws IOException {
+        out.writeInt(node);
+        out.writeByte(direction);
+        out.writeFloat(offset);
+        out.writeFloat(edgeLength);
+    }
+
+    void readState(DataInput in) throws IOException {
+        node = in.readInt();
+        direction = in.readByte();
+        offset = in.readFloat();
+        edgeLength = in.readFloat();
+    }
+}
@@ -0,0 +1,152 @@
+package pacman.com;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Salinan semua yang digambar {@link WorldRenderer} dari satu titik simulasi: state dan HUD, posisi (akhir step
+ * sebelumnya dan terbaru) serta gambar power-up, Pacman dan hantu, gerombolan hantu, dan dot. Diisi lewat
+ * {@link #capture(GameWorld)} oleh thread pemilik dunia. Setelah diterbitkan ke {@link SnapshotBuffer} isinya tidak
+ * diubah lagi sampai dikembalikan, jadi thread render membacanya tanpa kunci.
+ *
+ * <p>Array dialokasikan saat pertama kali dibutuhkan lalu dipakai ulang; dot disalin bertahap (hanya tile yang baru
+ * dimakan), jadi biaya capture sebanding dengan jumlah entity, bukan ukuran labirin.
+ */
+public final class RenderSnapshot {
+    private static final int FLOATS_PER_SPRITE = 6; // x sebelum, y sebelum, x, y, lebar, tinggi
+    private static final int FLOATS_PER_SWARM_GHOST = 4; // x sebelum, y sebelum, x, y (pojok kiri-bawah)
+    private static final GhostType[] GHOST_TYPES = GhostType.values();
+
+    private Maze maze;
+    private GameState state = GameState.MENU;
+    private int tick;
+    private int score;
+    private int lives;
+    // Power-up aktif, lalu Pacman, lalu hantu: urutan yang sama dengan urutan gambar
+    private int spriteCount;
+    private float[] sprites = new float[0];
+    private String[] textures = new String[0];
+    private int pacmanSprite;
+    private int swarmCount;
+    private float[] swarm = new float[0];
+    private boolean[] swarmScared = new boolean[0];
+    private final int[] swarmTypeStart = new int[GHOST_TYPES.length + 1];
+    private DotGrid dots; // Salinan DotGrid dunia, disamakan lewat DotGrid.syncFrom
+
+    // Diisi SimulationThread/SnapshotBuffer, tidak ikut capture
+    volatile long sequence; // Nomor terbit, dibaca SnapshotBuffer dari thread pembaca
+    private long stepNanos; // System.nanoTime() saat step terakhir (untuk interpolasi di thread render)
+    private long inputsUsed; // Jumlah entri InputQueue yang sudah dipakai simulasi sampai snapshot ini
+
+    /** Salin state {@code world} ke snapshot ini; dipanggil di thread yang menjalankan {@link GameWorld#step}. */
+    public void capture(GameWorld world) {
+        maze = world.getMaze();
+        state = world.getState();
+        tick = world.getTick();
+        score = world.getScore();
+        lives = world.getLives();
+
+        Array<PowerUp> powerUps = world.getPowerUps();
+        Array<Ghost> ghosts = world.getGhosts();
+        int maxSprites = powerUps.size + 1 + ghosts.size;
+        if (textures.length < maxSprites) {
+            sprites = new float[maxSprites * FLOATS_PER_SPRITE];
+            textures = new String[maxSprites];
+        }
+        spriteCount = 0;
+        for (int i = 0; i < powerUps.size; i++) {
+            if (powerUps.get(i).isActive()) addSprite(powerUps.get(i));
+        }
+        pacmanSprite = spriteCount;
+        addSprite(world.getPacman());
+        for (int i = 0; i < ghosts.size; i++) addSprite(ghosts.get(i));
+
+        GhostSwarm ghostSwarm = world.getSwarm();
+        swarmCount = ghostSwarm.size();
+        if (swarmScared.length < swarmCount) {
+            swarm = new float[swarmCount * FLOATS_PER_SWARM_GHOST];
+            swarmScared = new boolean[swarmCount];
+        }
+        for (int i = 0; i < swarmCount; i++) {
+            int offset = i * FLOATS_PER_SWARM_GHOST;
+            swarm[offset] = ghostSwarm.getInterpolatedX(i, 0);
+            swarm[offset + 1] = ghostSwarm.getInterpolatedY(i, 0);
+            swarm[offset + 2] = ghostSwarm.getX(i);
+            swarm[offset + 3] = ghostSwarm.getY(i);
+            swarmScared[i] = ghostSwarm.isScared(i);
+        }
+        for (GhostType type : GHOST_TYPES) swarmTypeStart[type.ordinal()] = ghostSwarm.getTypeStart(type);
+        swarmTypeStart[GHOST_TYPES.length] = swarmCount;
+
+        DotGrid worldDots = world.getDots();
+        if (dots == null || dots.getNumCols() != worldDots.getNumCols() || dots.getNumRows() != worldDots.getNumRows()) {
+            dots = new DotGrid(worldDots.getNumCols(), worldDots.getNumRows(), worldDots.getTileSize());
+        }
+        dots.syncFrom(worldDots);
+    }
+
+    private void addSprite(Entity entity) {
+        int offset = spriteCount * FLOATS_PER_SPRITE;
+        sprites[offset] = entity.getInterpolatedX(0);
+        sprites[offset + 1] = entity.getInterpolatedY(0);
+        sprites[offset + 2] = entity.getPosition().x;
+        sprites[offset + 3] = entity.getPosition().y;
+        sprites[offset + 4] = entity.getSize().x;
+        sprites[offset + 5] = entity.getSize().y;
+        textures[spriteCount++] = entity.getTexturePath();
+    }
+
+    void stamp(long stepNanos, long inputsUsed) {
+        this.stepNanos = stepNanos;
+        this.inputsUsed = inputsUsed;
+    }
+
+    long getStepNanos() {
+        return stepNanos;
+    }
+
+    long getInputsUsed() {
+        return inputsUsed;
+    }
+
+    public Maze getMaze() { return maze; }
+    public GameState getState() { return state; }
+    public int getTick() { return tick; }
+    public int getScore() { return score; }
+    public int getLives() { return lives; }
+    public DotGrid getDots() { return dots; }
+
+    public int getSpriteCount() { return spriteCount; }
+
+    /** Indeks sprite Pacman (kamera mengikutinya). */
+    public int getPacmanSprite() { return pacmanSprite; }
+
+    /** Pojok kiri-bawah sprite ke-i antara step sebelumnya (alpha 0) dan terbaru (1). */
+    public float getSpriteX(int i, float alpha) {
+        int offset = i * FLOATS_PER_SPRITE;
+        return sprites[offset] + (sprites[offset + 2] - sprites[offset]) * alpha;
+    }
+
+    public float getSpriteY(int i, float alpha) {
+        int offset = i * FLOATS_PER_SPRITE;
+        return sprites[offset + 1] + (sprites[offset + 3] - sprites[offset + 1]) * alpha;
+    }
+
+    public float getSpriteWidth(int i) { return sprites[i * FLOATS_PER_SPRITE + 4]; }
+    public float getSpriteHeight(int i) { return sprites[i * FLOATS_PER_SPRITE + 5]; }
+    public String getSpriteTexture(int i) { return textures[i]; }
+
+    public int getSwarmCount() { return swarmCount; }
+    public int getSwarmTypeStart(GhostType type) { return swarmTypeStart[type.ordinal()]; }
+    public int getSwarmTypeEnd(GhostType type) { return swarmTypeStart[type.ordinal() + 1]; }
+    public boolean isSwarmScared(int i) { return swarmScared[i]; }
+
+    public float getSwarmX(int i, float alpha) {
+        int offset = i * FLOATS_PER_SWARM_GHOST;
+        return swarm[offset] + (swarm[offset + 2] - swarm[offset]) * alpha;
+    }
+
+    public float getSwarmY(int i, float alpha) {
+        int offset = i * FLOATS_PER_SWARM_GHOST;
+        return swarm[offset + 1] + (swarm[offset + 3] - swarm[offset + 1]) * alpha;
+    }
+}
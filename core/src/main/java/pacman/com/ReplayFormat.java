@@ -0,0 +1,52 @@
+package pacman.com;
+
+/**
+ * Format file replay (semua angka big-endian):
+ * <pre>
+ * header : "PMRP" | versi (byte) | seed (long) | simHz (int) | keyframeInterval (int) | GameConfig (10 float)
+ *          | swarmSize (int)
+ * record : RUN      = 1 | input (byte) | jumlah tick (varint)
+ *          KEYFRAME = 2 | tick (varint) | panjang (varint) | GameWorld.writeSnapshot
+ * </pre>
+ * Setiap tick menyimpan satu byte input (arah + ENTER + R) yang dipadatkan run-length, karena hampir semua
+ * tick tidak berisi tombol baru. Keyframe (termasuk tick 0) memungkinkan seek tanpa mengulang dari awal.
+ */
+final class ReplayFormat {
+    static final int MAGIC = 0x504D5250; // "PMRP"
+    // Naikkan jika header berubah atau simulasi tidak lagi sama untuk seed dan input yang sama
+    // (3: spawn power-up dari tabel tile legal, replay lama tidak bisa diputar ulang dengan hasil yang sama;
+    // 4: Pacman dan hantu bergerak di RailGraph; 5: Pacman kembali per tile, hantu keluar kandang menembus dinding;
+    // 6: sisa langkah Pacman di batas tile diteruskan, Pacman mati paling banyak sekali per step)
+    static final int VERSION = 6;
+    static final int RUN = 1;
+    static final int KEYFRAME = 2;
+
+    // Byte input: bit 0-2 arah, bit 3 start, bit 4 restart
+    private static final int NONE = 0, LEFT = 1, RIGHT = 2, UP = 3, DOWN = 4;
+    private static final int START_BIT = 1 << 3;
+    private static final int RESTART_BIT = 1 << 4;
+
+    private ReplayFormat() {
+    }
+
+    static int encode(InputFrame input) {
+        float x = input.getDirection().x, y = input.getDirection().y;
+        int code = x < 0 ? LEFT : x > 0 ? RIGHT : y > 0 ? UP : y < 0 ? DOWN : NONE;
+        if (input.isStartPressed()) code |= START_BIT;
+        if (input.isRestartPressed()) code |= RESTART_BIT;
+        return code;
+    }
+
+    static void decode(int code, InputFrame input) {
+        input.clear();
+        switch (code & 7) {
+            case LEFT: input.setDirection(-1, 0); break;
+            case RIGHT: input.setDirection(1, 0); break;
+            case UP: input.setDirection(0, 1); break;
+            case DOWN: input.setDirection(0, -1); break;
+            default: break;
+        }
+        input.setStartPressed((code & START_BIT) != 0);
+        input.setRestartPressed((code & RESTART_BIT) != 0);
+    }
+}
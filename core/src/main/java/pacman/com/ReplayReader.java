@@ -0,0 +1,215 @@
+package pacman.com;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Memutar file dari {@link ReplayWriter}. File di-memory-map lalu dipindai sekali untuk membuat indeks keyframe,
+ * sehingga {@link #seek(GameWorld, int)} cukup memulihkan keyframe terdekat lalu menjalankan paling banyak
+ * satu interval keyframe secara headless. File yang terpotong (game crash) tetap bisa diputar sampai record
+ * lengkap terakhir.
+ */
+public class ReplayReader {
+    private final ByteBuffer data;
+    private final int recordsStart;
+    private final long seed;
+    private final int stepsPerSecond;
+    private final int keyframeInterval;
+    private final GameConfig config = new GameConfig();
+
+    // Indeks keyframe: tick, posisi snapshot, panjang snapshot, posisi record berikutnya
+    private final IntArray keyframeTicks = new IntArray();
+    private final IntArray keyframeOffsets = new IntArray();
+    private final IntArray keyframeLengths = new IntArray();
+    private final IntArray keyframeNext = new IntArray();
+    private final int endTick;
+
+    // Posisi pemutaran
+    private int cursor;
+    private int runCode;
+    private int runRemaining;
+    private int tick;
+
+    public ReplayReader(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            data = mapped;
+        }
+        if (data.remaining() < 4 || data.getInt() != ReplayFormat.MAGIC) throw new IOException(file + " is not a replay file");
+        int version = data.get();
+        if (version != ReplayFormat.VERSION) throw new IOException("Unsupported replay version " + version);
+        seed = data.getLong();
+        stepsPerSecond = data.getInt();
+        keyframeInterval = data.getInt();
+        for (GhostType type : GhostType.values()) config.setGhostSpeedMultiplier(type, data.getFloat());
+        for (GhostType type : GhostType.values()) config.setDetectionRangeTiles(type, data.getFloat());
+        float cherryChance = data.getFloat();
+        config.setPowerUpChances(cherryChance, data.getFloat());
+        config.setSwarmSize(data.getInt());
+        recordsStart = data.position();
+        endTick = buildIndex();
+        if (keyframeTicks.size == 0) throw new IOException(file + " has no keyframe");
+    }
+
+    // Pindai semua record sekali; berhenti di record terakhir yang utuh
+    private int buildIndex() {
+        int position = recordsStart;
+        int lastTick = 0;
+        int limit = data.limit();
+        try {
+            while (position < limit) {
+                data.position(position);
+                int type = data.get();
+                if (type == ReplayFormat.RUN) {
+                    data.get();
+                    lastTick += getVarInt();
+                } else if (type == ReplayFormat.KEYFRAME) {
+                    int keyframeTick = getVarInt();
+                    int length = getVarInt();
+                    if (data.position() + length > limit) break;
+                    keyframeTicks.add(keyframeTick);
+                    keyframeOffsets.add(data.position());
+                    keyframeLengths.add(length);
+                    keyframeNext.add(data.position() + length);
+                    data.position(data.position() + length);
+                    lastTick = keyframeTick;
+                } else {
+                    break;
+                }
+                position = data.position();
+            }
+        } catch (RuntimeException truncated) {
+            // Record terakhir terpotong: abaikan
+        }
+        return lastTick;
+    }
+
+    private int getVarInt() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = data.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    public long getSeed() { return seed; }
+    public int getStepsPerSecond() { return stepsPerSecond; }
+    public float getStepSeconds() { return 1f / stepsPerSecond; }
+    public GameConfig getConfig() { return config; }
+    /** Tick keyframe pertama (biasanya 0). */
+    public int getStartTick() { return keyframeTicks.first(); }
+    /** Tick terakhir yang ada di file. */
+    public int getEndTick() { return endTick; }
+    /** Tick dunia setelah input terakhir yang dibaca lewat {@link #next(InputFrame)}. */
+    public int getTick() { return tick; }
+
+    /** Dunia baru dengan seed dan config rekaman, berada di awal replay. */
+    public GameWorld createWorld() throws IOException {
+        return createWorld(new Maze());
+    }
+
+    /** Seperti {@link #createWorld()} untuk rekaman yang dimainkan di labirin lain (labirin tidak ikut direkam). */
+    public GameWorld createWorld(Maze maze) throws IOException {
+        GameWorld world = new GameWorld(config.copy(), seed, maze);
+        seek(world, getStartTick());
+        return world;
+    }
+
+    /**
+     * Pindahkan {@code world} ke {@code targetTick}: pulihkan keyframe terakhir sebelum tick itu, lalu jalankan
+     * sisa tick-nya tanpa render. Listener world tetap dipanggil selama maju cepat; lepas dulu jika tidak perlu.
+     */
+    public void seek(GameWorld world, int targetTick) throws IOException {
+        targetTick = Math.max(getStartTick(), Math.min(targetTick, endTick));
+        int index = Arrays.binarySearch(keyframeTicks.items, 0, keyframeTicks.size, targetTick);
+        if (index < 0) index = -index - 2; // Keyframe terakhir sebelum targetTick
+        restoreKeyframe(world, index);
+
+        InputFrame input = new InputFrame();
+        float stepSeconds = getStepSeconds();
+        while (tick < targetTick && next(input)) {
+            world.step(stepSeconds, input);
+        }
+    }
+
+    private void restoreKeyframe(GameWorld world, int index) throws IOException {
+        world.readSnapshot(new DataInputStream(new ByteArrayInputStream(keyframeBytes(index))));
+        tick = keyframeTicks.get(index);
+        cursor = keyframeNext.get(index);
+        runRemaining = 0;
+    }
+
+    private byte[] keyframeBytes(int index) {
+        byte[] bytes = new byte[keyframeLengths.get(index)];
+        ByteBuffer view = data.duplicate();
+        view.position(keyframeOffsets.get(index));
+        view.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Isi {@code input} dengan input tick berikutnya.
+     *
+     * @return false jika replay sudah habis
+     */
+    public boolean next(InputFrame input) {
+        while (runRemaining == 0) {
+            if (tick >= endTick) return false;
+            data.position(cursor);
+            int type = data.get();
+            if (type == ReplayFormat.RUN) {
+                runCode = data.get();
+                runRemaining = getVarInt();
+            } else { // KEYFRAME: dilewati saat memutar
+                getVarInt();
+                int length = getVarInt();
+                data.position(data.position() + length);
+            }
+            cursor = data.position();
+        }
+        runRemaining--;
+        tick++;
+        ReplayFormat.decode(runCode, input);
+        return true;
+    }
+
+    /**
+     * Putar ulang seluruh replay dari awal tanpa render dan bandingkan state dunia dengan setiap keyframe
+     * yang tersimpan, byte demi byte.
+     *
+     * @return tick keyframe pertama yang berbeda, atau -1 jika simulasinya deterministik
+     */
+    public int verify() throws IOException {
+        return verify(new Maze());
+    }
+
+    /** {@link #verify()} untuk rekaman yang dimainkan di labirin {@code maze}. */
+    public int verify(Maze maze) throws IOException {
+        GameWorld world = createWorld(maze);
+        InputFrame input = new InputFrame();
+        float stepSeconds = getStepSeconds();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int k = 1; k < keyframeTicks.size; k++) {
+            int keyframeTick = keyframeTicks.get(k);
+            while (tick < keyframeTick && next(input)) {
+                world.step(stepSeconds, input);
+            }
+            bytes.reset();
+            world.writeSnapshot(out);
+            if (!Arrays.equals(bytes.toByteArray(), keyframeBytes(k))) return keyframeTick;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,129 @@
+package pacman.com;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Merekam satu sesi ke file replay ({@link ReplayFormat}): seed dan config di header, lalu satu byte input
+ * per tick (run-length) dan keyframe snapshot setiap {@code keyframeInterval} tick. Ditulis lewat buffer ke
+ * FileChannel; buffer dikosongkan di setiap keyframe, jadi kalau game crash replay tetap bisa diputar
+ * sampai keyframe terakhir.
+ */
+public class ReplayWriter implements Closeable {
+    /** Jarak antar keyframe default: 10 detik simulasi. */
+    public static final int DEFAULT_KEYFRAME_SECONDS = 10;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(16 * 1024);
+    private final int keyframeInterval;
+    private final ByteArrayOutputStream snapshotBytes = new ByteArrayOutputStream(1024);
+    private final DataOutputStream snapshotOut = new DataOutputStream(snapshotBytes);
+    private int runCode = -1;
+    private int runLength;
+
+    /** Mulai merekam {@code world} dari state-nya sekarang (biasanya tepat setelah dibuat). */
+    public ReplayWriter(File file, GameWorld world, int stepsPerSecond, int keyframeInterval) throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(0);
+        channel = raf.getChannel();
+        this.keyframeInterval = Math.max(1, keyframeInterval);
+
+        buffer.putInt(ReplayFormat.MAGIC);
+        buffer.put((byte) ReplayFormat.VERSION);
+        buffer.putLong(world.getSeed());
+        buffer.putInt(stepsPerSecond);
+        buffer.putInt(this.keyframeInterval);
+        GameConfig config = world.getConfig();
+        for (GhostType type : GhostType.values()) buffer.putFloat(config.getGhostSpeedMultiplier(type));
+        for (GhostType type : GhostType.values()) buffer.putFloat(config.getDetectionRangeTiles(type));
+        buffer.putFloat(config.getCherryChance());
+        buffer.putFloat(config.getCherry2Chance());
+        buffer.putInt(config.getSwarmSize());
+        writeKeyframe(world);
+    }
+
+    /** Catat input yang baru saja dipakai {@code world.step}; panggil sekali setelah setiap step. */
+    public void record(InputFrame input, GameWorld world) throws IOException {
+        int code = ReplayFormat.encode(input);
+        if (code == runCode) {
+            runLength++;
+        } else {
+            flushRun();
+            runCode = code;
+            runLength = 1;
+        }
+        if (world.getTick() % keyframeInterval == 0) {
+            writeKeyframe(world);
+        }
+    }
+
+    private void flushRun() throws IOException {
+        if (runLength == 0) return;
+        ensureRemaining(1 + 1 + 5);
+        buffer.put((byte) ReplayFormat.RUN);
+        buffer.put((byte) runCode);
+        putVarInt(runLength);
+        runCode = -1;
+        runLength = 0;
+    }
+
+    private void writeKeyframe(GameWorld world) throws IOException {
+        flushRun();
+        snapshotBytes.reset();
+        world.writeSnapshot(snapshotOut);
+        int length = snapshotBytes.size();
+        ensureRemaining(1 + 5 + 5);
+        buffer.put((byte) ReplayFormat.KEYFRAME);
+        putVarInt(world.getTick());
+        putVarInt(length);
+        if (length <= buffer.remaining()) {
+            buffer.put(snapshotBytes.toByteArray(), 0, length);
+            flush();
+        } else {
+            // Snapshot besar (mode gerombolan) ditulis langsung, tidak lewat buffer
+            flush();
+            ByteBuffer snapshot = ByteBuffer.wrap(snapshotBytes.toByteArray(), 0, length);
+            while (snapshot.hasRemaining()) {
+                channel.write(snapshot);
+            }
+        }
+    }
+
+    private void putVarInt(int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) flush();
+        if (buffer.remaining() < bytes) throw new IOException("Replay record too large: " + bytes + " bytes");
+    }
+
+    /** Tulis isi buffer ke file (tanpa run yang sedang berjalan). */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushRun();
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package pacman.com;
+
+import java.util.Random;
+
+/**
+ * {@link Random} dengan urutan angka yang sama persis seperti {@code new Random(seed)}, tetapi state internalnya
+ * bisa dibaca dan dipasang kembali. Dipakai agar snapshot replay bisa menyimpan posisi RNG dan melanjutkannya
+ * tanpa mengulang dari awal. Tidak thread-safe (setiap GameWorld dan hantu punya instance sendiri).
+ */
+public class SeededRandom extends Random {
+    private static final long serialVersionUID = 1L;
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    public SeededRandom(long seed) {
+        super(seed); // Memanggil setSeed di bawah
+    }
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        super.setSeed(seed);
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    @Override
+    protected int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /** State 48-bit generator saat ini. */
+    public long getState() {
+        return state;
+    }
+
+    public void setState(long state) {
+        this.state = state & MASK;
+    }
+}
@@ -0,0 +1,233 @@
+package pacman.com;
+
+import com.badlogic.gdx.Gdx;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Mode opsional {@code -Dpacman.simThread=true}: {@link GameWorld} dijalankan di thread sendiri dengan
+ * {@link FixedTimestep}-nya sendiri, sementara thread render hanya menggambar {@link RenderSnapshot} terbaru dari
+ * {@link SnapshotBuffer}. Input keyboard masuk lewat {@link InputQueue}, dan kejadian game (untuk audio) dikirim
+ * balik ke thread render lewat {@code Gdx.app.postRunnable}. Di mesin multi-core step simulasi dan gambar frame
+ * berjalan bersamaan, jadi frame AI yang lambat tidak langsung menunda frame di layar.
+ *
+ * <p>Selama dijeda, di latar belakang, atau di state diam (menu, game over, menang) tanpa input, thread ini tidur
+ * sampai dibangunkan oleh input atau {@link #setSimulating(boolean)}, sama seperti rendering non-continuous di
+ * {@link FrameScheduler}. Setelah bangun, step pertama langsung dijalankan tanpa mengejar waktu tidur.
+ */
+final class SimulationThread {
+    // Perintah di antrean input, di atas bit byte input replay
+    static final int TRACE_TOGGLE = 1 << 8;
+    static final int TRACE_DUMP = 1 << 9;
+    private static final int INPUT_BITS = 0xFF;
+    private static final int QUEUE_CAPACITY = 64;
+
+    /** Dipanggil dari thread simulasi. */
+    interface Host {
+        /** Setelah setiap step, dengan input yang dipakai step itu dan state sebelum step (rekaman, trace). */
+        void afterStep(InputFrame input, GameState stateBefore);
+
+        /** Perintah dari antrean ({@link #TRACE_TOGGLE}, {@link #TRACE_DUMP}). */
+        void handleCommand(int command);
+    }
+
+    private final GameWorld world;
+    private final FixedTimestep timestep;
+    private final Host host;
+    private final InputQueue queue = new InputQueue(QUEUE_CAPACITY);
+    private final SnapshotBuffer snapshots = new SnapshotBuffer();
+    private final InputFrame input = new InputFrame(); // Input step berikutnya, gabungan entri antrean
+    private final InputFrame decoded = new InputFrame();
+    private final long stepNanos;
+    private long lastStepNanos; // Waktu step terakhir yang sudah diterbitkan
+    private long publishedInputs; // queue.getRead() di snapshot terakhir yang diterbitkan
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean simulating;
+
+    /**
+     * @param listener penerima kejadian {@code world}; dipanggil di thread render
+     */
+    SimulationThread(GameWorld world, FixedTimestep timestep, Host host, GameWorld.Listener listener) {
+        this.world = world;
+        this.timestep = timestep;
+        this.host = host;
+        this.stepNanos = (long) (timestep.getStepSeconds() * TimeUnit.SECONDS.toNanos(1));
+        world.setListener(new RenderThreadListener(listener));
+        lastStepNanos = System.nanoTime();
+        publish(); // Frame pertama sudah bisa digambar sebelum step pertama
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    /** Hentikan thread dan tunggu sampai step yang sedang berjalan selesai. */
+    void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Dari thread render: simulasi hanya maju jika true (lihat {@link FrameScheduler#isSimulating()}). */
+    void setSimulating(boolean simulating) {
+        if (simulating == this.simulating) return;
+        this.simulating = simulating;
+        LockSupport.unpark(thread);
+    }
+
+    /** Dari thread render: kirim input yang terkumpul frame ini; input kosong tidak dikirim. */
+    void offer(InputFrame frameInput) {
+        if (!frameInput.isEmpty()) offerEntry(ReplayFormat.encode(frameInput));
+    }
+
+    /** Dari thread render: kirim perintah ({@link #TRACE_TOGGLE}, {@link #TRACE_DUMP}). */
+    void offerCommand(int command) {
+        if (command != 0) offerEntry(command);
+    }
+
+    private void offerEntry(int entry) {
+        if (!queue.offer(entry)) {
+            Gdx.app.error("Simulation", "Input queue full, input dropped");
+            return;
+        }
+        LockSupport.unpark(thread);
+    }
+
+    /** Dari thread render: snapshot terbaru yang sudah lengkap. */
+    RenderSnapshot latest() {
+        return snapshots.latest();
+    }
+
+    /** Interpolasi untuk {@code snapshot} saat ini: waktu sejak step terakhirnya dalam satuan step, paling besar 1. */
+    float getAlpha(RenderSnapshot snapshot) {
+        return Math.min(1f, Math.max(0f, (System.nanoTime() - snapshot.getStepNanos()) / (float) stepNanos));
+    }
+
+    /** Masih ada input yang belum dipakai step atau belum terlihat di {@code snapshot}. */
+    boolean hasPendingInput(RenderSnapshot snapshot) {
+        return queue.getWritten() != snapshot.getInputsUsed();
+    }
+
+    private void run() {
+        long last = System.nanoTime();
+        while (running) {
+            if (!simulating) {
+                drainWhilePaused();
+                LockSupport.park(this);
+                last = System.nanoTime() - stepNanos; // Seperti FrameScheduler.frameDelta: satu step, tidak mengejar
+                continue;
+            }
+            if (queue.isEmpty() && isResting(world.getState())) {
+                LockSupport.park(this);
+                last = System.nanoTime() - stepNanos;
+                continue;
+            }
+            long now = System.nanoTime();
+            int steps = timestep.advance((now - last) / (float) TimeUnit.SECONDS.toNanos(1));
+            last = now;
+            for (int i = 0; i < steps && simulating; i++) {
+                drain();
+                GameState stateBefore = world.getState();
+                world.step(timestep.getStepSeconds(), input);
+                host.afterStep(input, stateBefore);
+                input.clear();
+            }
+            if (steps > 0) {
+                lastStepNanos = now - (long) (timestep.getAlpha() * stepNanos);
+                publish();
+            }
+            // Tidur sampai step berikutnya jatuh tempo; input baru membangunkan lebih awal tapi tidak memajukan step
+            LockSupport.parkNanos(this, stepNanos - (long) (timestep.getAlpha() * stepNanos));
+        }
+    }
+
+    // State yang tidak bergerak tanpa input, seperti rendering non-continuous di FrameScheduler
+    private static boolean isResting(GameState state) {
+        return state == GameState.MENU || state == GameState.GAME_OVER || state == GameState.GAME_WON;
+    }
+
+    // Gabungkan semua entri antrean ke input step berikutnya, seperti Main.pollInput yang menahan input
+    // sampai dipakai step: arah terakhir menang, ENTER/R tetap tercatat
+    private void drain() {
+        for (int entry = queue.poll(); entry != InputQueue.EMPTY; entry = queue.poll()) {
+            if ((entry & ~INPUT_BITS) != 0) {
+                host.handleCommand(entry & ~INPUT_BITS);
+            }
+            ReplayFormat.decode(entry & INPUT_BITS, decoded);
+            if (decoded.hasDirection()) input.setDirection(decoded.getDirection().x, decoded.getDirection().y);
+            if (decoded.isStartPressed()) input.setStartPressed(true);
+            if (decoded.isRestartPressed()) input.setRestartPressed(true);
+        }
+    }
+
+    // Saat dijeda input dibuang (seperti Main yang mengosongkan input saat jeda), perintah tetap dijalankan
+    private void drainWhilePaused() {
+        for (int entry = queue.poll(); entry != InputQueue.EMPTY; entry = queue.poll()) {
+            if ((entry & ~INPUT_BITS) != 0) host.handleCommand(entry & ~INPUT_BITS);
+        }
+        input.clear();
+        publishInputsUsed();
+    }
+
+    private void publish() {
+        RenderSnapshot snapshot = snapshots.back();
+        snapshot.capture(world);
+        publishedInputs = queue.getRead();
+        snapshot.stamp(lastStepNanos, publishedInputs);
+        snapshots.publish();
+    }
+
+    // Input yang dibuang tidak menghasilkan step, tapi thread render harus tahu antreannya sudah kosong
+    private void publishInputsUsed() {
+        if (publishedInputs != queue.getRead()) publish();
+    }
+
+    // Kejadian GameWorld diteruskan ke thread render; Runnable dibuat sekali, bukan per kejadian
+    private static final class RenderThreadListener implements GameWorld.Listener {
+        private final Runnable gameStarted;
+        private final Runnable pacmanDied;
+        private final Runnable powerFoodEaten;
+        private final Runnable powerFoodExpired;
+        private final Runnable restart;
+
+        RenderThreadListener(GameWorld.Listener target) {
+            gameStarted = target::onGameStarted;
+            pacmanDied = target::onPacmanDied;
+            powerFoodEaten = target::onPowerFoodEaten;
+            powerFoodExpired = target::onPowerFoodExpired;
+            restart = target::onRestart;
+        }
+
+        @Override
+        public void onGameStarted() {
+            Gdx.app.postRunnable(gameStarted);
+        }
+
+        @Override
+        public void onPacmanDied() {
+            Gdx.app.postRunnable(pacmanDied);
+        }
+
+        @Override
+        public void onPowerFoodEaten() {
+            Gdx.app.postRunnable(powerFoodEaten);
+        }
+
+        @Override
+        public void onPowerFoodExpired() {
+            Gdx.app.postRunnable(powerFoodExpired);
+        }
+
+        @Override
+        public void onRestart() {
+            Gdx.app.postRunnable(restart);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package pacman.com;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Pertukaran {@link RenderSnapshot} tanpa kunci antara satu penulis (thread simulasi) dan satu pembaca (thread
+ * render). Penulis mengisi {@link #back()} lalu {@link #publish()}; pembaca memegang snapshot lengkap terbaru dari
+ * {@link #latest()}. Di antara dua buffer itu ada satu buffer tengah yang ditukar lewat {@link AtomicReference},
+ * sehingga tidak ada pihak yang menunggu pihak lain dan tidak ada buffer yang ditulis selagi dibaca.
+ */
+final class SnapshotBuffer {
+    private final AtomicReference<RenderSnapshot> middle = new AtomicReference<>(new RenderSnapshot());
+    private RenderSnapshot back = new RenderSnapshot(); // Hanya disentuh penulis
+    private RenderSnapshot front = new RenderSnapshot(); // Hanya disentuh pembaca
+    private long published; // Hanya disentuh penulis
+
+    /** Buffer yang boleh diisi penulis sekarang. */
+    RenderSnapshot back() {
+        return back;
+    }
+
+    /** Terbitkan buffer yang baru diisi; penulis mendapat buffer lain untuk diisi berikutnya. */
+    void publish() {
+        back.sequence = ++published;
+        back = middle.getAndSet(back);
+    }
+
+    /**
+     * Snapshot terbaru yang sudah diterbitkan. Buffer tengah hanya diambil jika lebih baru dari yang dipegang;
+     * kalau tidak, isinya adalah buffer lama pembaca sendiri yang dikembalikan di pertukaran sebelumnya.
+     */
+    RenderSnapshot latest() {
+        if (middle.get().sequence > front.sequence) {
+            front = middle.getAndSet(front);
+        }
+        return front;
+    }
+}
@@ -0,0 +1,116 @@
+package pacman.com;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * Broad-phase tabrakan: setiap entity (dikenal lewat id int) disimpan di sel tile tempat titik tengahnya berada.
+ * Karena labirin terbatas, "hash"-nya adalah indeks tile langsung ({@code tileY * numCols + tileX}), dan isi setiap
+ * sel berupa linked list di array int (tanpa objek per entity). {@link #update} hanya memindahkan entity saat
+ * tile-nya berubah, jadi biaya per step kecil walaupun ada ribuan hantu.
+ *
+ * <p>{@link #query} mengembalikan id di sel yang disentuh kotak ditambah satu cincin sel tetangga, sehingga
+ * semua entity yang setengah ukurannya tidak lebih dari satu tile pasti ikut; tes AABB sebenarnya dilakukan
+ * pemanggil.
+ */
+public class SpatialHash {
+    private static final int NONE = -1;
+
+    private final float cellSize;
+    private final int numCols;
+    private final int numRows;
+    private final int[] heads; // [sel] -> id pertama, NONE jika kosong
+    private int[] cellOf = new int[0]; // [id] -> sel, NONE jika tidak terdaftar
+    private int[] next = new int[0];
+    private int[] previous = new int[0];
+    private int rebucketCount;
+
+    public SpatialHash(int numCols, int numRows, float cellSize) {
+        this.numCols = numCols;
+        this.numRows = numRows;
+        this.cellSize = cellSize;
+        heads = new int[numCols * numRows];
+        Arrays.fill(heads, NONE);
+    }
+
+    /** Daftarkan atau pindahkan entity {@code id} dengan titik tengah di (x, y). */
+    public void update(int id, float x, float y) {
+        int cell = cellAt(x, y);
+        if (id < cellOf.length && cellOf[id] == cell) return; // Masih di tile yang sama
+        ensureCapacity(id + 1);
+        if (cellOf[id] != NONE) unlink(id);
+        link(id, cell);
+        rebucketCount++;
+    }
+
+    /** Hapus entity {@code id}; tidak apa-apa jika memang belum terdaftar. */
+    public void remove(int id) {
+        if (id < cellOf.length && cellOf[id] != NONE) unlink(id);
+    }
+
+    /** Hapus semua entity. */
+    public void clear() {
+        Arrays.fill(heads, NONE);
+        Arrays.fill(cellOf, NONE);
+    }
+
+    /**
+     * Tambahkan ke {@code out} id semua entity di sel yang disentuh kotak (pojok kiri-bawah + ukuran, koordinat
+     * dunia) dan sel tetangganya. Urutan id tidak ditentukan.
+     */
+    public void query(float x, float y, float width, float height, IntArray out) {
+        int minX = Math.max(0, tileOf(x, numCols) - 1);
+        int maxX = Math.min(numCols - 1, tileOf(x + width, numCols) + 1);
+        int minY = Math.max(0, tileOf(y, numRows) - 1);
+        int maxY = Math.min(numRows - 1, tileOf(y + height, numRows) + 1);
+        for (int tileY = minY; tileY <= maxY; tileY++) {
+            for (int tileX = minX; tileX <= maxX; tileX++) {
+                for (int id = heads[tileY * numCols + tileX]; id != NONE; id = next[id]) {
+                    out.add(id);
+                }
+            }
+        }
+    }
+
+    /** Berapa kali entity pindah sel (untuk benchmark/diagnostik). */
+    public int getRebucketCount() {
+        return rebucketCount;
+    }
+
+    // Posisi di luar labirin masuk ke sel tepi terdekat
+    private int cellAt(float x, float y) {
+        return tileOf(y, numRows) * numCols + tileOf(x, numCols);
+    }
+
+    private int tileOf(float coordinate, int count) {
+        int tile = (int) Math.floor(coordinate / cellSize);
+        return tile < 0 ? 0 : tile >= count ? count - 1 : tile;
+    }
+
+    private void link(int id, int cell) {
+        int head = heads[cell];
+        next[id] = head;
+        previous[id] = NONE;
+        if (head != NONE) previous[head] = id;
+        heads[cell] = id;
+        cellOf[id] = cell;
+    }
+
+    private void unlink(int id) {
+        int cell = cellOf[id];
+        if (previous[id] != NONE) next[previous[id]] = next[id];
+        else heads[cell] = next[id];
+        if (next[id] != NONE) previous[next[id]] = previous[id];
+        cellOf[id] = NONE;
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= cellOf.length) return;
+        int capacity = Math.max(size, cellOf.length * 2);
+        int oldLength = cellOf.length;
+        cellOf = Arrays.copyOf(cellOf, capacity);
+        Arrays.fill(cellOf, oldLength, capacity, NONE);
+        next = Arrays.copyOf(next, capacity);
+        previous = Arrays.copyOf(previous, capacity);
+    }
+}
@@ -0,0 +1,109 @@
+package pacman.com;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Jejak kejadian game di memori: ring buffer berisi record primitif (tick, id entity, kode kejadian, posisi)
+ * yang dialokasikan sekali. Saat dimatikan, {@link #record} hanya satu cek boolean; saat penuh, kejadian
+ * terlama ditimpa. Isi buffer bisa ditulis kapan saja lewat {@link #dump(Writer)}.
+ *
+ * <p>Id entity: {@link #WORLD} untuk game, {@link #PACMAN} untuk Pacman, 1 + ordinal {@link GhostType} untuk hantu.
+ */
+public class Trace {
+    public static final int WORLD = -1;
+    public static final int PACMAN = 0;
+
+    // Kode kejadian
+    public static final int GHOST_CHASE = 1;
+    public static final int GHOST_PATROL = 2;
+    public static final int GHOST_SCARED = 3;
+    public static final int GHOST_EATEN = 4;
+    public static final int PACMAN_DIED = 5;
+    public static final int POWER_UP_SPAWNED = 6;
+    public static final int POWER_UP_COLLECTED = 7;
+    public static final int STATE_CHANGED = 8; // id entity = ordinal GameState yang baru
+
+    private static final String[] EVENT_NAMES = {
+        "?", "GHOST_CHASE", "GHOST_PATROL", "GHOST_SCARED", "GHOST_EATEN",
+        "PACMAN_DIED", "POWER_UP_SPAWNED", "POWER_UP_COLLECTED", "STATE_CHANGED"
+    };
+
+    /** Instance yang selalu mati, dipakai sebagai default agar pemanggil tidak perlu cek null. */
+    public static final Trace DISABLED = new Trace(1, false);
+
+    private final int[] ticks;
+    private final int[] entities;
+    private final int[] codes;
+    private final float[] xs;
+    private final float[] ys;
+    private final int mask;
+    private boolean enabled;
+    private int tick;
+    private long written; // Total record sejak clear(); posisi tulis = written & mask
+
+    /** @param capacity jumlah record yang disimpan, dibulatkan ke atas menjadi pangkat dua */
+    public Trace(int capacity, boolean enabled) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        ticks = new int[size];
+        entities = new int[size];
+        codes = new int[size];
+        xs = new float[size];
+        ys = new float[size];
+        mask = size - 1;
+        this.enabled = enabled;
+    }
+
+    /** Trace dari system property: {@code -Dpacman.trace=true} dan {@code -Dpacman.trace.capacity=N}. */
+    public static Trace fromSystemProperties() {
+        return new Trace(Integer.getInteger("pacman.trace.capacity", 4096), Boolean.getBoolean("pacman.trace"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled && this != DISABLED;
+    }
+
+    /** Tick simulasi yang dicap ke record berikutnya; di-set oleh GameWorld setiap step. */
+    public void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    public void record(int entity, int code, float x, float y) {
+        if (!enabled) return;
+        int i = (int) (written & mask);
+        ticks[i] = tick;
+        entities[i] = entity;
+        codes[i] = code;
+        xs[i] = x;
+        ys[i] = y;
+        written++;
+    }
+
+    public void clear() {
+        written = 0;
+    }
+
+    /** Jumlah record yang masih tersimpan (paling banyak kapasitas buffer). */
+    public int size() {
+        return (int) Math.min(written, mask + 1);
+    }
+
+    /** Tulis semua record yang tersimpan, dari yang terlama, satu baris per kejadian. */
+    public void dump(Writer out) throws IOException {
+        int size = size();
+        long first = written - size;
+        out.write("# tick entity event x y\n");
+        for (long n = first; n < written; n++) {
+            int i = (int) (n & mask);
+            int code = codes[i];
+            out.write(ticks[i] + " " + entities[i] + " "
+                + (code > 0 && code < EVENT_NAMES.length ? EVENT_NAMES[code] : Integer.toString(code))
+                + " " + xs[i] + " " + ys[i] + "\n");
+        }
+        out.flush();
+    }
+}
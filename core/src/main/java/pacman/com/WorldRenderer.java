@@ -0,0 +1,187 @@
+package pacman.com;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * Menggambar isi {@link GameWorld} dari {@link RenderSnapshot}-nya, jadi renderer tidak pernah membaca dunia yang
+ * sedang di-step (lihat {@link SimulationThread}). Gambar diambil dari atlas bersama {@link Assets} (bukan dari
+ * entity), sehingga simulasi tetap bisa jalan tanpa GPU dan satu frame cukup memakai satu texture.
+ * Hanya chunk labirin dan entity yang beririsan dengan area kamera yang digambar, jadi biaya satu frame
+ * tergantung isi layar, bukan ukuran labirin.
+ */
+public class WorldRenderer implements Disposable {
+    private final SpriteBatch batch;
+    private final BitmapFont font;
+    private final Viewport viewport;
+    private final Assets assets;
+    private final DotLayer dotLayer;
+    private final MazeLayer mazeLayer;
+    // Teks HUD disusun ulang hanya saat nilainya berubah, tanpa konkatenasi String per frame
+    private final StringBuilder scoreText = new StringBuilder();
+    private final StringBuilder livesText = new StringBuilder();
+    private int shownScore = -1;
+    private int shownLives = -1;
+    private final Rectangle view = new Rectangle(); // Area dunia yang terlihat kamera frame ini
+    private FrameProfiler profiler = FrameProfiler.DISABLED;
+    private boolean paused; // Tampilkan teks "PAUSED" di atas dunia yang berhenti
+    private static final GhostType[] GHOST_TYPES = GhostType.values();
+    private static final String SCARED_TEXTURE = "scaredGhost.png";
+
+    public WorldRenderer(SpriteBatch batch, BitmapFont font, Viewport viewport) {
+        this.batch = batch;
+        this.font = font;
+        this.viewport = viewport;
+        this.assets = Assets.acquire();
+        this.dotLayer = new DotLayer(assets.getRegion("dot.png"));
+        this.mazeLayer = new MazeLayer(assets.getRegion("wall.png"));
+    }
+
+    /** Ukur waktu gambar labirin, dot, entity, dan HUD ke {@code profiler}; null = tidak diukur. */
+    public void setProfiler(FrameProfiler profiler) {
+        this.profiler = profiler != null ? profiler : FrameProfiler.DISABLED;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Gambar satu frame. Memanggil batch.begin()/end() sendiri karena dinding digambar lewat SpriteCache.
+     *
+     * @param alpha posisi antara step simulasi sebelumnya (0) dan terbaru (1), lihat {@link FixedTimestep#getAlpha()}
+     */
+    public void render(RenderSnapshot snapshot, float alpha) {
+        followPacman(snapshot, alpha);
+        updateView();
+        float left = viewport.getCamera().position.x - viewport.getWorldWidth() / 2;
+        float bottom = viewport.getCamera().position.y - viewport.getWorldHeight() / 2;
+        //HUD digambar relatif ke pojok kiri-bawah kamera.
+
+        profiler.start(FrameProfiler.MAZE_DRAW);
+        mazeLayer.render(snapshot.getMaze(), viewport.getCamera().combined, view);
+        //menggambar labirin dari cache statis, satu panggilan draw per chunk yang terlihat.
+        profiler.stop(FrameProfiler.MAZE_DRAW);
+
+        profiler.start(FrameProfiler.DOT_DRAW);
+        batch.begin();
+        //Semua objek 2D harus digambar di antara batch.begin() dan batch.end().
+        dotLayer.render(batch, snapshot.getDots(), view);
+        //menggambar titik makanan (dot) dari cache, satu panggilan draw per chunk yang terlihat.
+        profiler.stop(FrameProfiler.DOT_DRAW);
+        profiler.start(FrameProfiler.ENTITY_DRAW);
+        for (int i = 0; i < snapshot.getSpriteCount(); i++) { draw(snapshot, i, alpha); }
+        //menggambar power-up aktif, pacman, lalu ghost.
+        drawSwarm(snapshot, alpha);
+        //menggambar hantu mode gerombolan, per jenis
+        profiler.stop(FrameProfiler.ENTITY_DRAW);
+
+        profiler.start(FrameProfiler.HUD_DRAW);
+        updateHudText(snapshot);
+        font.draw(batch, scoreText, left + 20, bottom + viewport.getWorldHeight() - 20);
+        //mengambar score dan lokasinya
+        font.draw(batch, livesText, left + viewport.getWorldWidth() - 150, bottom + viewport.getWorldHeight() - 20);
+        //mengambar darah dan lokasinya
+
+        //Menampilkan teks "PAUSED", "GAME OVER" / "YOU WIN!" dan petunjuknya
+        if (paused) {
+            font.draw(batch, "PAUSED", left + viewport.getWorldWidth() / 2 - 80, bottom + viewport.getWorldHeight() / 2 + 50);
+            font.draw(batch, "Press P to continue", left + viewport.getWorldWidth() / 2 - 130, bottom + viewport.getWorldHeight() / 2);
+        } else if (snapshot.getState() == GameState.GAME_OVER) {
+            font.draw(batch, "GAME OVER", left + viewport.getWorldWidth() / 2 - 100, bottom + viewport.getWorldHeight() / 2 + 50);
+            font.draw(batch, "Press R to restart", left + viewport.getWorldWidth() / 2 - 120, bottom + viewport.getWorldHeight() / 2);
+        } else if (snapshot.getState() == GameState.GAME_WON) {
+            font.draw(batch, "YOU WIN!", left + viewport.getWorldWidth() / 2 - 100, bottom + viewport.getWorldHeight() / 2 + 50);
+            font.draw(batch, "Press R to restart", left + viewport.getWorldWidth() / 2 - 120, bottom + viewport.getWorldHeight() / 2);
+        }
+        //Selesai menggambar semua objek dalam frame ini.
+        batch.end();
+        profiler.stop(FrameProfiler.HUD_DRAW);
+    }
+
+    // Labirin yang lebih besar dari viewport: kamera mengikuti Pacman, dibatasi tepi labirin.
+    // Labirin yang muat di layar tetap di tengah seperti sebelumnya.
+    private void followPacman(RenderSnapshot snapshot, float alpha) {
+        Camera camera = viewport.getCamera();
+        Maze maze = snapshot.getMaze();
+        int pacman = snapshot.getPacmanSprite();
+        float halfWidth = viewport.getWorldWidth() / 2, halfHeight = viewport.getWorldHeight() / 2;
+        float x = snapshot.getSpriteX(pacman, alpha) + snapshot.getSpriteWidth(pacman) / 2;
+        float y = snapshot.getSpriteY(pacman, alpha) + snapshot.getSpriteHeight(pacman) / 2;
+        camera.position.x = maze.getWidth() <= viewport.getWorldWidth()
+            ? maze.getWidth() / 2 : MathUtils.clamp(x, halfWidth, maze.getWidth() - halfWidth);
+        camera.position.y = maze.getHeight() <= viewport.getWorldHeight()
+            ? maze.getHeight() / 2 : MathUtils.clamp(y, halfHeight, maze.getHeight() - halfHeight);
+        camera.update();
+        batch.setProjectionMatrix(camera.combined);
+    }
+
+    // Area dunia yang terlihat: ukuran viewport kamera (dikali zoom) di sekitar posisi kamera
+    private void updateView() {
+        Camera camera = viewport.getCamera();
+        float zoom = camera instanceof OrthographicCamera ? ((OrthographicCamera) camera).zoom : 1f;
+        float width = camera.viewportWidth * zoom, height = camera.viewportHeight * zoom;
+        view.set(camera.position.x - width / 2, camera.position.y - height / 2, width, height);
+    }
+
+    private void updateHudText(RenderSnapshot snapshot) {
+        if (snapshot.getScore() != shownScore) {
+            shownScore = snapshot.getScore();
+            scoreText.setLength(0);
+            scoreText.append("Score: ").append(shownScore);
+        }
+        if (snapshot.getLives() != shownLives) {
+            shownLives = snapshot.getLives();
+            livesText.setLength(0);
+            livesText.append("Lives: ").append(shownLives);
+        }
+    }
+
+    // Entity di luar area kamera dilewati
+    private void draw(RenderSnapshot snapshot, int sprite, float alpha) {
+        float x = snapshot.getSpriteX(sprite, alpha), y = snapshot.getSpriteY(sprite, alpha);
+        float width = snapshot.getSpriteWidth(sprite), height = snapshot.getSpriteHeight(sprite);
+        if (x > view.x + view.width || y > view.y + view.height || x + width < view.x || y + height < view.y) {
+            return;
+        }
+        batch.draw(assets.getRegion(snapshot.getSpriteTexture(sprite)), x, y, width, height);
+    }
+
+    // Satu gambar per jenis hantu dicari sekali, lalu semua hantu jenis itu digambar dalam satu loop;
+    // hantu yang takut digambar di putaran terakhir dengan gambar scared.
+    private void drawSwarm(RenderSnapshot snapshot, float alpha) {
+        if (snapshot.getSwarmCount() == 0) return;
+        for (GhostType type : GHOST_TYPES) {
+            TextureRegion region = assets.getRegion(GhostType.getTexturePath(type));
+            for (int i = snapshot.getSwarmTypeStart(type); i < snapshot.getSwarmTypeEnd(type); i++) {
+                if (!snapshot.isSwarmScared(i)) drawSwarmGhost(snapshot, i, region, alpha);
+            }
+        }
+        TextureRegion scared = assets.getRegion(SCARED_TEXTURE);
+        for (int i = 0; i < snapshot.getSwarmCount(); i++) {
+            if (snapshot.isSwarmScared(i)) drawSwarmGhost(snapshot, i, scared, alpha);
+        }
+    }
+
+    private void drawSwarmGhost(RenderSnapshot snapshot, int i, TextureRegion region, float alpha) {
+        float x = snapshot.getSwarmX(i, alpha), y = snapshot.getSwarmY(i, alpha);
+        if (x > view.x + view.width || y > view.y + view.height
+            || x + GhostSwarm.SIZE < view.x || y + GhostSwarm.SIZE < view.y) {
+            return;
+        }
+        batch.draw(region, x, y, GhostSwarm.SIZE, GhostSwarm.SIZE);
+    }
+
+    @Override
+    public void dispose() {
+        mazeLayer.dispose();
+        Assets.release();
+    }
+}
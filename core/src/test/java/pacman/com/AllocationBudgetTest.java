@@ -0,0 +1,127 @@
+package pacman.com;
+
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.utils.viewport.FitViewport;
+import java.lang.management.ManagementFactory;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Regresi alokasi untuk frame yang stabil: ribuan {@link GameWorld#step(float, InputFrame)} dengan input skrip,
+ * masing-masing diikuti {@link RenderSnapshot#capture(GameWorld)}, dan pada test kedua juga
+ * {@link WorldRenderer#render(RenderSnapshot, float)} (dinding, dot, entity, HUD) lewat {@link NoopGL20}.
+ * Gagal jika byte yang dialokasikan thread ini melewati anggaran.
+ * Tick restart (game over / menang) ikut diukur: restart memakai ulang entity lewat resetEntities, jadi juga tidak
+ * boleh mengalokasi.
+ */
+public class AllocationBudgetTest {
+    private static final float DELTA = 1f / FixedTimestep.DEFAULT_HZ;
+    private static final int WARMUP_TICKS = 20_000;
+    private static final int MEASURED_TICKS = 20_000;
+    // Sisa alokasi yang masih diizinkan: power-up yang sesekali muncul dan pertumbuhan Array-nya
+    private static final long BUDGET_BYTES = 16 * 1024;
+
+    private final com.sun.management.ThreadMXBean threads =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final GameWorld world = new GameWorld();
+    private final InputFrame input = new InputFrame();
+    private final RenderSnapshot snapshot = new RenderSnapshot();
+    private SpriteBatch batch;
+    private BitmapFont font;
+    private WorldRenderer renderer;
+    private HeadlessApplication app;
+    private int restarts;
+
+    @After
+    public void tearDown() {
+        if (renderer != null) renderer.dispose();
+        if (font != null) font.dispose();
+        if (batch != null) batch.dispose();
+        if (app != null) app.exit();
+    }
+
+    @Test
+    public void tickStaysWithinBudget() {
+        warmUpPowerUps();
+        run(WARMUP_TICKS);
+        restarts = 0;
+        assertWithinBudget("tick", run(MEASURED_TICKS));
+        assertTrue("no restart in the measured ticks", restarts > 0);
+    }
+
+    @Test
+    public void renderStaysWithinBudget() {
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1; // Loop aplikasi tidak pernah memanggil render(); frame digambar oleh test ini
+        app = new HeadlessApplication(new ApplicationAdapter() { }, config);
+        Gdx.gl = Gdx.gl20 = new NoopGL20();
+        ShaderProgram.pedantic = false; // NoopGL20 tidak melaporkan uniform apa pun
+        batch = new SpriteBatch();
+        font = new BitmapFont();
+        font.getData().setScale(2);
+        OrthographicCamera camera = new OrthographicCamera();
+        FitViewport viewport = new FitViewport(world.getMaze().getWidth(), world.getMaze().getHeight(), camera);
+        camera.setToOrtho(false, viewport.getWorldWidth(), viewport.getWorldHeight()); // Tanpa layar, update() tidak bisa dipanggil
+        renderer = new WorldRenderer(batch, font, viewport);
+
+        warmUpPowerUps();
+        run(WARMUP_TICKS);
+        restarts = 0;
+        assertWithinBudget("tick + render", run(MEASURED_TICKS));
+        assertTrue("no restart in the measured ticks", restarts > 0);
+    }
+
+    // Kelas Cherry, Cherry2, dan PowerFood baru dimuat saat pertama dipakai (juga oleh instanceof saat restart), dan
+    // pemuatan kelas mengalokasi; warm-up skrip belum tentu memunculkan ketiganya, jadi dimunculkan di sini
+    private void warmUpPowerUps() {
+        PowerUpManager powerUps = new PowerUpManager(world.getMaze());
+        SeededRandom random = new SeededRandom(1);
+        powerUps.spawn(random, new GameConfig().setPowerUpChances(1, 0));
+        powerUps.spawn(random, new GameConfig().setPowerUpChances(0, 1));
+        powerUps.spawn(random, new GameConfig().setPowerUpChances(0, 0));
+        powerUps.clear();
+    }
+
+    private void assertWithinBudget(String what, long allocated) {
+        assertTrue(what + " allocated " + allocated + " bytes over " + MEASURED_TICKS + " ticks (budget "
+            + BUDGET_BYTES + ")", allocated <= BUDGET_BYTES);
+    }
+
+    // Jalankan sejumlah tick (dan render jika renderer ada); mengembalikan byte yang dialokasikan, termasuk restart
+    private long run(int ticks) {
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        for (int tick = 0; tick < ticks; tick++) {
+            input.clear();
+            GameState state = world.getState();
+            if (state == GameState.GAME_OVER || state == GameState.GAME_WON) {
+                input.setRestartPressed(true);
+                restarts++;
+            } else {
+                input.setStartPressed(state == GameState.MENU);
+                // Pacman berganti arah searah jarum jam setiap 45 tick
+                switch ((tick / 45) % 4) {
+                    case 0: input.setDirection(1, 0); break;
+                    case 1: input.setDirection(0, -1); break;
+                    case 2: input.setDirection(-1, 0); break;
+                    default: input.setDirection(0, 1); break;
+                }
+            }
+            long before = threads.getThreadAllocatedBytes(threadId);
+            world.step(DELTA, input);
+            snapshot.capture(world);
+            if (renderer != null) renderer.render(snapshot, 1f);
+            allocated += threads.getThreadAllocatedBytes(threadId) - before;
+        }
+        return allocated;
+    }
+}
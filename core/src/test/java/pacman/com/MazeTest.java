@@ -0,0 +1,165 @@
+package pacman.com;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.badlogic.gdx.math.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/**
+ * Bitset dinding {@link Maze} harus menjawab sama persis dengan pencarian linear lama atas {@code List<Rectangle>}
+ * (salinannya ada di {@link LinearWalls}) untuk setiap tile dan offset di dalam tile.
+ */
+public class MazeTest {
+    // Offset di dalam tile (dalam pecahan tile), termasuk tepat di batas tile
+    private static final float[] OFFSETS = {-0.5f, -0.001f, 0f, 0.001f, 0.25f, 0.5f, 0.999f};
+    // Ukuran kotak: lebih kecil dari tile (Pacman, hantu), tepat satu tile, dan lebih besar
+    private static final float[] SIZES = {0.5f, 0.75f, 0.85f, 1f, 1.5f};
+
+    @Test
+    public void classicMazeMatchesLinearScan() {
+        Maze maze = new Maze();
+        assertMatches(maze, new LinearWalls(layoutOf(maze), maze.getTileSize()));
+    }
+
+    @Test
+    public void randomMazesMatchLinearScan() {
+        Random random = new Random(42);
+        for (int n = 0; n < 5; n++) {
+            int cols = 5 + random.nextInt(60), rows = 5 + random.nextInt(60); // Termasuk lebar bukan kelipatan 64
+            String[] rowsText = new String[rows];
+            for (int row = 0; row < rows; row++) {
+                StringBuilder line = new StringBuilder();
+                for (int col = 0; col < cols; col++) line.append(random.nextInt(3) == 0 ? 'W' : '.');
+                rowsText[row] = line.toString();
+            }
+            String[] file = new String[rows + 5];
+            file[0] = "pacman 0 0";
+            file[1] = "ghost red 1 0";
+            file[2] = "ghost pink 2 0";
+            file[3] = "ghost blue 3 0";
+            file[4] = "ghost orange 4 0";
+            rowsText[0] = "....." + rowsText[0].substring(5); // Spawn di header harus di jalan
+            System.arraycopy(rowsText, 0, file, 5, rows);
+
+            Maze maze = new Maze();
+            maze.setLayout(file);
+            assertMatches(maze, new LinearWalls(rowsText, maze.getTileSize()));
+        }
+    }
+
+    @Test
+    public void badHeaderSpawnIsRejectedWithItsLineAndKeepsTheOldLayout() {
+        String[] rows = {"WWWWW", "W.PGW", "WWWWW"};
+        assertRejected(rows, "pacman 9 1", "Maze line 2: pacman spawn 9,1 is outside");
+        assertRejected(rows, "pacman 0 1", "Maze line 2: pacman spawn 0,1 is a wall");
+        assertRejected(rows, "ghost red 2 -1", "Maze line 2: red ghost spawn 2,-1 is outside");
+        assertRejected(rows, "ghost pink 4 1", "Maze line 2: pink ghost spawn 4,1 is a wall");
+        assertRejected(rows, "house 3 1 3 1", "Maze line 2: house is outside");
+    }
+
+    @Test
+    public void ghostMayStartInAWallInsideTheHouse() {
+        Maze classic = new Maze();
+        assertTrue(classic.isWallTile(classic.getGhostTileX(GhostType.PINK), classic.getGhostTileY(GhostType.PINK)));
+    }
+
+    // Layout gagal di-parse: pesan menyebut baris header-nya, dan labirin lama (klasik) tidak berubah sama sekali
+    private static void assertRejected(String[] rows, String header, String message) {
+        String[] file = new String[rows.length + 2];
+        file[0] = "# spawn lain dari tile P/G";
+        file[1] = header;
+        System.arraycopy(rows, 0, file, 2, rows.length);
+        Maze maze = new Maze();
+        int version = maze.getVersion();
+        try {
+            maze.setLayout(file);
+            fail("Accepted '" + header + "'");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().startsWith(message));
+        }
+        Maze classic = new Maze();
+        assertEquals(version, maze.getVersion());
+        assertEquals(classic.getNumCols(), maze.getNumCols());
+        assertEquals(classic.getNumRows(), maze.getNumRows());
+        assertEquals(classic.getWallCount(), maze.getWallCount());
+        assertEquals(classic.getPacmanTileX(), maze.getPacmanTileX());
+        assertEquals(classic.getPacmanTileY(), maze.getPacmanTileY());
+        assertEquals(classic.getHouseTiles(), maze.getHouseTiles());
+        assertMatches(maze, new LinearWalls(layoutOf(classic), classic.getTileSize()));
+    }
+
+    private static void assertMatches(Maze maze, LinearWalls linear) {
+        float tile = maze.getTileSize();
+        Rectangle box = new Rectangle();
+        // Satu tile di luar peta di setiap sisi, karena kotak bisa menjorok keluar
+        for (int tileY = -1; tileY <= maze.getNumRows(); tileY++) {
+            for (int tileX = -1; tileX <= maze.getNumCols(); tileX++) {
+                for (float offsetX : OFFSETS) {
+                    for (float offsetY : OFFSETS) {
+                        float x = (tileX + offsetX) * tile, y = (tileY + offsetY) * tile;
+                        assertEquals("isWallAt(" + x + ", " + y + ")", linear.isWallAt(x, y), maze.isWallAt(x, y));
+                        for (float size : SIZES) {
+                            box.set(x, y, size * tile, size * tile);
+                            assertEquals("collidesWithWall(" + box + ")", linear.collidesWithWall(box),
+                                maze.collidesWithWall(box));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    // Baris layout dari atas, dibangun ulang dari tile (hanya dinding yang dibandingkan)
+    private static String[] layoutOf(Maze maze) {
+        String[] rows = new String[maze.getNumRows()];
+        for (int row = 0; row < rows.length; row++) {
+            StringBuilder line = new StringBuilder();
+            for (int col = 0; col < maze.getNumCols(); col++) {
+                line.append(maze.isWallTile(col, maze.getNumRows() - 1 - row) ? 'W' : '.');
+            }
+            rows[row] = line.toString();
+        }
+        return rows;
+    }
+
+    /** Implementasi lama Maze: satu Rectangle per dinding, setiap query memeriksa semuanya. */
+    private static final class LinearWalls {
+        private final List<Rectangle> walls = new ArrayList<>();
+        private final String[] layout;
+        private final float tileSize;
+
+        LinearWalls(String[] layout, float tileSize) {
+            this.layout = layout;
+            this.tileSize = tileSize;
+            int numRows = layout.length;
+            for (int row = 0; row < numRows; row++) {
+                for (int col = 0; col < layout[row].length(); col++) {
+                    if (layout[row].charAt(col) == 'W') {
+                        walls.add(new Rectangle(col * tileSize, (numRows - 1 - row) * tileSize, tileSize, tileSize));
+                    }
+                }
+            }
+        }
+
+        boolean collidesWithWall(Rectangle boundingBox) {
+            for (Rectangle wall : walls) {
+                if (boundingBox.overlaps(wall)) return true;
+            }
+            return false;
+        }
+
+        boolean isWallAt(float x, float y) {
+            int tileX = (int) (x / tileSize);
+            int tileY = (int) (y / tileSize);
+            int numRows = layout.length;
+            int row = numRows - 1 - tileY;
+            if (row < 0 || row >= numRows || tileX < 0 || tileX >= layout[0].length()) return true;
+            return layout[row].charAt(tileX) == 'W';
+        }
+    }
+}
@@ -6,6 +6,9 @@ import pacman.com.Main;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
+    /** Event polling rate while nothing is being redrawn (menu, pause, unfocused window). */
+    private static final int IDLE_FPS = 20;
+
     public static void main(String[] args) {
         if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
         createApplication();
@@ -27,6 +30,11 @@ public class Lwjgl3Launcher {
         //// If you remove the above line and set Vsync to false, you can get unlimited FPS, which can be
         //// useful for testing performance, but can also be very stressful to some hardware.
         //// You may also need to configure GPU drivers to fully disable Vsync; this can cause screen tearing.
+        //// Main switches to non-continuous rendering in the menu, game over and pause screens. The loop then
+        //// only polls events at this rate and redraws when input arrives, instead of drawing at full rate.
+        configuration.setIdleFPS(IDLE_FPS);
+        //// Losing focus calls Main.pause() (minimizing already does), which pauses a running game and idles.
+        configuration.setPauseWhenLostFocus(true);
 
         configuration.setWindowedMode(800, 600);
         //// You can change these files; they are in lwjgl3/src/main/resources/ .
@@ -0,0 +1,210 @@
+package pacman.com.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Capacity test for {@link ArenaServer}, entirely over loopback: starts the server in-process on a free port, then
+ * adds {@link BotClients} players in stages and prints one row per stage with the server's tick cost, core load and
+ * bandwidth. The run stops at the first stage the server cannot sustain: fewer ticks than the tick rate in some
+ * second, or a p99 tick (step plus snapshot encoding and sending) longer than the tick period.
+ *
+ * <pre>
+ * server:loadTest --args="--start 50 --step 50 --max 2000 --stage 5 --ghostShare 0.25"
+ * </pre>
+ *
+ * Options, besides every {@link ArenaServer} option except {@code --port}:
+ * <ul>
+ * <li>{@code --start N}, {@code --step N}, {@code --max N} players in the first stage, added per stage, and the
+ * last stage, each at least 1 and {@code --max} at least {@code --start} (defaults 50, 50, 2000)</li>
+ * <li>{@code --stage S} measured seconds per stage, at least 1, after one second of warm-up (default 5)</li>
+ * <li>{@code --ghostShare F} share of the bots that join as ghosts, 0-1 (default 0.25)</li>
+ * <li>{@code --botThreads N} bot threads, each with its own selector, at least 1 (default 1)</li>
+ * </ul>
+ * The bots run on the same machine, so on a small machine they compete with the server for CPU; the reported busy
+ * share is the server thread's own time outside {@code select}, and the server thread never uses more than one core.
+ */
+public class ArenaLoadTest {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        ArenaServer.Settings settings = new ArenaServer.Settings();
+        settings.port = 0;
+        int start = 50, step = 50, max = 2000, stageSeconds = 5, botThreads = 1;
+        float ghostShare = 0.25f;
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || i + 1 >= args.length) usage("Expected --option value, got " + arg);
+            String name = arg.substring(2);
+            String value = args[++i];
+            try {
+                switch (name) {
+                    case "start": start = ArenaServer.parseInt(name, value, 1, Integer.MAX_VALUE); break;
+                    case "step": step = ArenaServer.parseInt(name, value, 1, Integer.MAX_VALUE); break;
+                    case "max": max = ArenaServer.parseInt(name, value, 1, Integer.MAX_VALUE); break;
+                    case "stage": stageSeconds = ArenaServer.parseInt(name, value, 1, Integer.MAX_VALUE); break;
+                    case "ghostShare": ghostShare = parseShare(name, value); break;
+                    case "botThreads": botThreads = ArenaServer.parseInt(name, value, 1, Integer.MAX_VALUE); break;
+                    case "port": usage("The load test always picks a free loopback port"); break;
+                    default:
+                        if (!ArenaServer.parseOption(settings, name, value)) usage("Unknown option " + arg);
+                }
+            } catch (IllegalArgumentException e) {
+                usage(e.getMessage());
+            }
+        }
+        try {
+            ArenaServer.checkRange("max", max, start, Integer.MAX_VALUE); // Only known once --start is set too
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        }
+
+        ArenaServer server;
+        try {
+            server = new ArenaServer(settings);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+            return;
+        }
+        server.start();
+        InetSocketAddress address = server.getAddress();
+        List<BotClients> clients = new ArrayList<>();
+        for (int i = 0; i < botThreads; i++) {
+            BotClients bots = new BotClients(address, i + 1, "bots-" + i);
+            bots.start();
+            clients.add(bots);
+        }
+        float tickMillis = 1000f / settings.tickRate;
+        System.err.printf(Locale.ROOT, "Arena server on %s: %d Hz ticks (%.2f ms), %d Hz snapshots, %d B/s per client"
+                + " (%d B per snapshot), %d AI ghosts%n", address, settings.tickRate, tickMillis,
+            settings.snapshotRate, settings.bytesPerSecond, server.getSnapshotBudget(), settings.ghosts);
+        System.out.println("players,ghost_players,ticks_per_s,tick_mean_us,tick_p99_us,tick_max_us,busy,"
+            + "kb_out_per_s,bytes_per_client_per_s,snapshots_per_s,skipped_per_s,bot_errors");
+
+        int sustained = 0;
+        int added = 0;
+        long botSeed = 0;
+        try {
+            for (int players = start; players <= max; players += step) {
+                for (; added < players; added++) {
+                    // Spread ghosts evenly over the joining order
+                    boolean ghost = (int) ((added + 1) * ghostShare) > (int) (added * ghostShare);
+                    clients.get((int) (botSeed++ % botThreads)).add(ghost ? ArenaProtocol.ROLE_GHOST : ArenaProtocol.ROLE_PACMAN);
+                }
+                Stage stage = measure(server, clients, players, stageSeconds);
+                System.out.println(stage.row());
+                if (stage.errors > 0) {
+                    System.err.println("Bot error: " + lastError(clients));
+                    break;
+                }
+                if (!stage.sustained(settings.tickRate, tickMillis)) break;
+                sustained = players;
+            }
+        } finally {
+            for (BotClients bots : clients) bots.stop();
+            server.stop();
+        }
+        System.err.printf(Locale.ROOT, "Sustained %d players at %d Hz on one server thread%s%n", sustained,
+            settings.tickRate, sustained == max ? " (the largest stage; raise --max to find the limit)" : "");
+    }
+
+    // Waits until every bot is in the world, warms up for a second, then aggregates the per-second stats
+    private static Stage measure(ArenaServer server, List<BotClients> clients, int players, int seconds)
+        throws InterruptedException {
+        while (connected(clients) < players && errors(clients) == 0) Thread.sleep(10);
+        long seen = server.getStatsSequence();
+        while (server.getStatsSequence() < seen + 2) Thread.sleep(10); // Skip the second in which bots joined
+        seen = server.getStatsSequence();
+        Stage stage = new Stage();
+        stage.minTicks = Integer.MAX_VALUE;
+        for (int second = 0; second < seconds; second++) {
+            while (server.getStatsSequence() == seen) Thread.sleep(10);
+            seen = server.getStatsSequence();
+            stage.add(server.getStats());
+        }
+        stage.errors = errors(clients); // Any error ends the run, so the count is still this stage's
+        return stage;
+    }
+
+    private static final class Stage {
+        int seconds;
+        int players;
+        int ghostPlayers;
+        int minTicks;
+        long ticks;
+        double meanSum;
+        double worstP99;
+        double worstMax;
+        double busySum;
+        long bytesOut;
+        long snapshots;
+        long skipped;
+        long errors;
+
+        void add(ArenaServer.Stats stats) {
+            seconds++;
+            players = stats.players;
+            ghostPlayers = stats.ghostPlayers;
+            minTicks = Math.min(minTicks, stats.ticks);
+            ticks += stats.ticks;
+            meanSum += stats.meanTickMicros;
+            worstP99 = Math.max(worstP99, stats.p99TickMicros);
+            worstMax = Math.max(worstMax, stats.maxTickMicros);
+            busySum += stats.busy;
+            bytesOut += stats.bytesOut;
+            snapshots += stats.snapshots;
+            skipped += stats.skippedSnapshots;
+        }
+
+        boolean sustained(int tickRate, float tickMillis) {
+            return minTicks >= tickRate * 0.98 && worstP99 <= tickMillis * 1000;
+        }
+
+        String row() {
+            return String.format(Locale.ROOT, "%d,%d,%.1f,%.1f,%.1f,%.1f,%.2f,%.1f,%.0f,%.0f,%.0f,%d",
+                players, ghostPlayers, ticks / (double) seconds, meanSum / seconds, worstP99, worstMax,
+                busySum / seconds, bytesOut / 1024.0 / seconds, players == 0 ? 0 : bytesOut / (double) seconds / players,
+                snapshots / (double) seconds, skipped / (double) seconds, errors);
+        }
+    }
+
+    private static int connected(List<BotClients> clients) {
+        int total = 0;
+        for (BotClients bots : clients) total += bots.getConnected();
+        return total;
+    }
+
+    private static long errors(List<BotClients> clients) {
+        long total = 0;
+        for (BotClients bots : clients) total += bots.getErrors();
+        return total;
+    }
+
+    private static String lastError(List<BotClients> clients) {
+        for (BotClients bots : clients) {
+            if (bots.getLastError() != null) return bots.getLastError();
+        }
+        return null;
+    }
+
+    private static float parseShare(String name, String value) {
+        float share;
+        try {
+            share = Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number, got " + value);
+        }
+        if (!(share >= 0 && share <= 1)) { // Also rejects NaN
+            throw new IllegalArgumentException("--" + name + " must be between 0 and 1, got " + value);
+        }
+        return share;
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: ArenaLoadTest [--start N] [--step N] [--max N] [--stage S] [--ghostShare F]"
+            + " [--botThreads N] [--maze FILE] [--tickRate N] [--snapshotRate N] [--bytesPerSecond N] [--ghosts N]");
+        System.exit(2);
+    }
+}
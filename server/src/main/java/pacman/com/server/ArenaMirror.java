@@ -0,0 +1,103 @@
+package pacman.com.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Client-side copy of the arena rebuilt from {@link ArenaProtocol} frames: the last known position, state and score
+ * of every actor and the set of eaten dots of the current round. Decoding checks the frames strictly (every byte
+ * consumed, ticks increasing, no dot eaten twice), so the bots of {@link ArenaLoadTest} double as a protocol check.
+ */
+final class ArenaMirror {
+    private int actorId = -1;
+    private int numCols;
+    private int numRows;
+    private int tickRate;
+    private int snapshotRate;
+    private long tick = -1;
+    private int[] x = new int[0];
+    private int[] y = new int[0];
+    private int[] state = new int[0];
+    private int[] score = new int[0];
+    private boolean[] eaten = new boolean[0];
+    private int eatenCount;
+    private int rounds;
+
+    /** Applies one frame; {@code frame} holds the type byte and body, without the length field. */
+    void apply(ByteBuffer frame) throws IOException {
+        int type = frame.get() & 0xFF;
+        switch (type) {
+            case ArenaProtocol.WELCOME:
+                actorId = frame.getShort() & 0xFFFF;
+                numCols = frame.getShort() & 0xFFFF;
+                numRows = frame.getShort() & 0xFFFF;
+                tickRate = frame.get() & 0xFF;
+                snapshotRate = frame.get() & 0xFF;
+                eaten = new boolean[numCols * numRows];
+                break;
+            case ArenaProtocol.SNAPSHOT:
+                applySnapshot(frame);
+                break;
+            default:
+                throw new IOException("Unknown frame type " + type);
+        }
+        if (frame.hasRemaining()) throw new IOException(frame.remaining() + " unread bytes in frame type " + type);
+    }
+
+    private void applySnapshot(ByteBuffer frame) throws IOException {
+        if (actorId < 0) throw new IOException("Snapshot before welcome");
+        long newTick = frame.getInt() & 0xFFFFFFFFL;
+        if (newTick <= tick) throw new IOException("Tick went from " + tick + " to " + newTick);
+        tick = newTick;
+        int flags = frame.get() & 0xFF;
+        if ((flags & ArenaProtocol.FLAG_DOTS_RESET) != 0) {
+            Arrays.fill(eaten, false);
+            eatenCount = 0;
+            rounds++;
+        }
+        int entries = frame.getShort() & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            int id = frame.getShort() & 0xFFFF;
+            int mask = frame.get() & 0xFF;
+            ensureCapacity(id + 1);
+            if ((mask & ArenaProtocol.FIELD_POSITION) != 0) {
+                x[id] = frame.getShort() & 0xFFFF;
+                y[id] = frame.getShort() & 0xFFFF;
+            }
+            if ((mask & ArenaProtocol.FIELD_STATE) != 0) state[id] = frame.get() & 0xFF;
+            if ((mask & ArenaProtocol.FIELD_SCORE) != 0) score[id] = frame.getInt();
+        }
+        int dots = frame.getShort() & 0xFFFF;
+        for (int i = 0; i < dots; i++) {
+            int tile = ArenaProtocol.getMedium(frame);
+            if (tile >= eaten.length || eaten[tile]) throw new IOException("Bad eaten tile " + tile);
+            eaten[tile] = true;
+            eatenCount++;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (state.length >= capacity) return;
+        int size = Math.max(capacity, state.length * 2);
+        x = Arrays.copyOf(x, size);
+        y = Arrays.copyOf(y, size);
+        state = Arrays.copyOf(state, size);
+        score = Arrays.copyOf(score, size);
+    }
+
+    int getActorId() { return actorId; }
+    int getNumCols() { return numCols; }
+    int getNumRows() { return numRows; }
+    int getTickRate() { return tickRate; }
+    int getSnapshotRate() { return snapshotRate; }
+    long getTick() { return tick; }
+    int getEatenCount() { return eatenCount; }
+    int getRounds() { return rounds; }
+    int getCapacity() { return state.length; }
+    int getX(int id) { return x[id]; }
+    int getY(int id) { return y[id]; }
+    int getState(int id) { return state[id]; }
+    int getScore(int id) { return score[id]; }
+    boolean isEaten(int tile) { return eaten[tile]; }
+}
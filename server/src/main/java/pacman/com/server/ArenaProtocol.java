@@ -0,0 +1,101 @@
+package pacman.com.server;
+
+import java.nio.ByteBuffer;
+import pacman.com.ArenaWorld;
+
+/**
+ * Wire format between {@link ArenaServer} and its clients. Every frame is a big-endian {@code u16} length (bytes
+ * after the length field), a {@code u8} type and the body:
+ *
+ * <pre>
+ * client -> server
+ *   HELLO     u8 role (0 Pacman, 1 ghost)
+ *   INPUT     u8 direction (RailGraph code: 0 right, 1 left, 2 up, 3 down)
+ * server -> client
+ *   WELCOME   u16 actor id, u16 columns, u16 rows, u8 tick rate, u8 snapshot rate
+ *   SNAPSHOT  u32 tick, u8 flags, u16 n, n x actor entry, u16 m, m x u24 eaten tile (tileY * columns + tileX)
+ *   actor     u16 id, u8 field mask, then [POSITION: u16 x, u16 y pixels] [STATE: u8 bits] [SCORE: i32]
+ * </pre>
+ *
+ * Snapshots are deltas against what the same client has already received: an actor entry only carries the fields
+ * that changed, and eaten tiles are only those the client has not seen since the last {@link #FLAG_DOTS_RESET}
+ * (sent when a new round refills the dots). TCP delivers every frame in order, so no acknowledgements are needed.
+ * Positions are whole pixels and eaten tiles are u24 indices, which limits mazes to 65535 pixels per side and
+ * 2^24 tiles; {@link ArenaServer} rejects larger mazes.
+ */
+final class ArenaProtocol {
+    static final int LENGTH_BYTES = 2;
+    static final int MAX_FRAME_BYTES = LENGTH_BYTES + 0xFFFF;
+
+    // Frame types
+    static final int HELLO = 1;
+    static final int INPUT = 2;
+    static final int WELCOME = 16;
+    static final int SNAPSHOT = 17;
+
+    static final int ROLE_PACMAN = 0;
+    static final int ROLE_GHOST = 1;
+
+    static final int FLAG_DOTS_RESET = 1;
+
+    // Actor entry field mask
+    static final int FIELD_POSITION = 1;
+    static final int FIELD_STATE = 2;
+    static final int FIELD_SCORE = 4;
+
+    // STATE bits
+    static final int STATE_ACTIVE = 1;
+    static final int STATE_GHOST = 2;
+    static final int STATE_SCARED = 4;
+    static final int STATE_AI = 8;
+
+    /** Length, type, tick, flags, actor count and dot count: a snapshot with nothing in it. */
+    static final int SNAPSHOT_HEADER_BYTES = LENGTH_BYTES + 1 + 4 + 1 + 2 + 2;
+    static final int DOT_BYTES = 3;
+
+    private ArenaProtocol() {
+    }
+
+    static int entryBytes(int mask) {
+        int bytes = 3;
+        if ((mask & FIELD_POSITION) != 0) bytes += 4;
+        if ((mask & FIELD_STATE) != 0) bytes += 1;
+        if ((mask & FIELD_SCORE) != 0) bytes += 4;
+        return bytes;
+    }
+
+    static int stateOf(ArenaWorld.Actor actor) {
+        if (!actor.isActive()) return 0;
+        int state = STATE_ACTIVE;
+        if (actor.getRole() == ArenaWorld.Role.GHOST) state |= STATE_GHOST;
+        if (actor.isScared()) state |= STATE_SCARED;
+        if (actor.isAi()) state |= STATE_AI;
+        return state;
+    }
+
+    /** Pixel coordinate as the unsigned 16-bit value sent in POSITION. */
+    static int pixel(float coordinate) {
+        return Math.min(0xFFFF, Math.max(0, Math.round(coordinate)));
+    }
+
+    /** Starts a frame of {@code type}; returns the start to pass to {@link #endFrame(ByteBuffer, int)}. */
+    static int beginFrame(ByteBuffer out, int type) {
+        int start = out.position();
+        out.putShort((short) 0);
+        out.put((byte) type);
+        return start;
+    }
+
+    static void endFrame(ByteBuffer out, int start) {
+        out.putShort(start, (short) (out.position() - start - LENGTH_BYTES));
+    }
+
+    static void putMedium(ByteBuffer out, int value) {
+        out.put((byte) (value >>> 16));
+        out.putShort((short) value);
+    }
+
+    static int getMedium(ByteBuffer in) {
+        return (in.get() & 0xFF) << 16 | in.getShort() & 0xFFFF;
+    }
+}
@@ -0,0 +1,531 @@
+package pacman.com.server;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import pacman.com.ArenaWorld;
+import pacman.com.GameConfig;
+import pacman.com.Maze;
+
+/**
+ * Server-authoritative multiplayer: one {@link ArenaWorld} shared by every connected Pacman and ghost player. A
+ * single thread owns the world and all sockets: a non-blocking NIO {@link Selector} accepts connections and reads
+ * inputs between ticks, the world steps at a fixed tick rate, and every few ticks each client gets a delta snapshot
+ * from its own {@link DeltaEncoder}, bounded by the per-client byte budget. A client whose previous snapshot is
+ * still waiting in its send buffer skips the next one instead of queueing more, so a slow client never grows the
+ * server's memory or delays the others.
+ *
+ * <pre>
+ * server:run --args="--port 7777 --tickRate 60 --snapshotRate 20 --bytesPerSecond 8000 --ghosts 4"
+ * </pre>
+ *
+ * Options:
+ * <ul>
+ * <li>{@code --port N} TCP port 0-65535 (default 7777, 0 picks a free port)</li>
+ * <li>{@code --maze FILE} maze file instead of the classic maze (see {@link Maze}), at most 65535 pixels per side
+ * and 2^24 tiles</li>
+ * <li>{@code --tickRate N} world steps per second, 1-255 (default 60)</li>
+ * <li>{@code --snapshotRate N} snapshots per second per client, 1 up to the tick rate (default 20)</li>
+ * <li>{@code --bytesPerSecond N} snapshot bandwidth cap per client, at least 1 (default 8000)</li>
+ * <li>{@code --ghosts N} AI ghosts in the arena besides the players (default 4)</li>
+ * <li>{@code --seed N} seed for the AI ghosts (default 1)</li>
+ * </ul>
+ * Once a second the server publishes {@link Stats} (players, tick cost, bytes sent); {@code main} prints them.
+ */
+public class ArenaServer implements Runnable {
+    private static final int MAX_CATCH_UP_TICKS = 5; // Like FixedTimestep's frame cap: fall behind, don't spiral
+    private static final int READ_BUFFER_BYTES = 256;
+    private static final int SEND_BUFFER_BYTES = 64 * 1024;
+    private static final int MAX_ACTORS = 0xFFFF; // Actor ids are u16 on the wire
+    private static final int MAX_TICK_RATE = 0xFF; // WELCOME sends the tick rate as a u8
+    private static final int MAX_PIXELS = 0xFFFF; // Positions are u16 pixels on the wire
+    private static final int MAX_TILES = 1 << 24; // Eaten tiles are u24 indices on the wire
+
+    /** Server parameters; defaults match the command line. */
+    public static final class Settings {
+        public int port = 7777;
+        public Maze maze = new Maze();
+        public int tickRate = 60;
+        public int snapshotRate = 20;
+        public int bytesPerSecond = 8000;
+        public int ghosts = 4;
+        public long seed = 1;
+    }
+
+    /**
+     * One second of server activity, published by the server thread. Tick costs are CPU time of the server thread,
+     * so they measure the server's own work even when other threads (such as load-test bots) share its core.
+     */
+    public static final class Stats {
+        public final int players;
+        public final int ghostPlayers;
+        public final int ticks;
+        public final double meanTickMicros;
+        public final double p99TickMicros;
+        public final double maxTickMicros;
+        /** CPU time of the server thread (ticks, reads, accepts) per second of wall time: the load on its core. */
+        public final double busy;
+        public final long bytesOut;
+        public final long snapshots;
+        public final long skippedSnapshots;
+
+        Stats(int players, int ghostPlayers, int ticks, double meanTickMicros, double p99TickMicros,
+              double maxTickMicros, double busy, long bytesOut, long snapshots, long skippedSnapshots) {
+            this.players = players;
+            this.ghostPlayers = ghostPlayers;
+            this.ticks = ticks;
+            this.meanTickMicros = meanTickMicros;
+            this.p99TickMicros = p99TickMicros;
+            this.maxTickMicros = maxTickMicros;
+            this.busy = busy;
+            this.bytesOut = bytesOut;
+            this.snapshots = snapshots;
+            this.skippedSnapshots = skippedSnapshots;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                "players %d (%d ghosts), %d ticks, tick mean %.1f us p99 %.1f us max %.1f us, busy %.0f%%,"
+                    + " %.1f KB/s out, %d snapshots, %d skipped",
+                players, ghostPlayers, ticks, meanTickMicros, p99TickMicros, maxTickMicros, busy * 100,
+                bytesOut / 1024.0, snapshots, skippedSnapshots);
+        }
+    }
+
+    // One connection; the actor exists from HELLO until the connection closes
+    private static final class Session {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_BYTES);
+        final ByteBuffer out = ByteBuffer.allocateDirect(SEND_BUFFER_BYTES); // Always in fill mode
+        SelectionKey key;
+        int actorId = -1;
+        DeltaEncoder encoder;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final Settings settings;
+    private final ArenaWorld world;
+    private final DeltaEncoder.Frame frame = new DeltaEncoder.Frame();
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final long tickNanos;
+    private final int ticksPerSnapshot;
+    private final int snapshotBudget;
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile Stats stats;
+    private volatile long statsSequence;
+
+    // Current stats window, touched only by the server thread
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final long[] tickCost; // CPU nanoseconds of each tick in the window
+    private int tickCount;
+    private long windowCpuStart;
+    private long bytesOut;
+    private long snapshots;
+    private long skippedSnapshots;
+
+    public ArenaServer(Settings settings) throws IOException {
+        checkRange("port", settings.port, 0, 0xFFFF);
+        checkRange("tickRate", settings.tickRate, 1, MAX_TICK_RATE);
+        checkRange("snapshotRate", settings.snapshotRate, 1, settings.tickRate);
+        checkRange("bytesPerSecond", settings.bytesPerSecond, 1, Integer.MAX_VALUE);
+        checkRange("ghosts", settings.ghosts, 0, MAX_ACTORS);
+        checkMaze(settings.maze);
+        this.settings = settings;
+        world = new ArenaWorld(settings.maze, new GameConfig(), settings.seed, settings.ghosts);
+        tickNanos = TimeUnit.SECONDS.toNanos(1) / settings.tickRate;
+        ticksPerSnapshot = Math.max(1, settings.tickRate / settings.snapshotRate);
+        // Room for the header, the client's own actor and one dot even on a tiny budget
+        int minimum = ArenaProtocol.SNAPSHOT_HEADER_BYTES + ArenaProtocol.entryBytes(0xFF) + ArenaProtocol.DOT_BYTES;
+        snapshotBudget = Math.min(SEND_BUFFER_BYTES / 2,
+            Math.max(minimum, settings.bytesPerSecond * ticksPerSnapshot / settings.tickRate));
+        tickCost = new long[settings.tickRate * 2];
+        selector = Selector.open();
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(settings.port));
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this, "arena-server");
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /** Stops the server thread and closes every connection. */
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Loopback address of the listening port, for clients on the same machine. */
+    public InetSocketAddress getAddress() throws IOException {
+        InetSocketAddress bound = (InetSocketAddress) serverChannel.getLocalAddress();
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), bound.getPort());
+    }
+
+    /** Stats of the last full second, or null before the first second has passed. */
+    public Stats getStats() {
+        return stats;
+    }
+
+    /** Increases every time {@link #getStats()} changes. */
+    public long getStatsSequence() {
+        return statsSequence;
+    }
+
+    public int getSnapshotBudget() {
+        return snapshotBudget;
+    }
+
+    @Override
+    public void run() {
+        long nextTick = System.nanoTime();
+        long windowStart = nextTick;
+        windowCpuStart = threads.getCurrentThreadCpuTime();
+        try {
+            while (running) {
+                long wait = nextTick - System.nanoTime();
+                if (wait >= TimeUnit.MILLISECONDS.toNanos(1)) {
+                    selector.select(TimeUnit.NANOSECONDS.toMillis(wait));
+                } else {
+                    selector.selectNow();
+                }
+                handleKeys();
+
+                long now = System.nanoTime();
+                for (int i = 0; i < MAX_CATCH_UP_TICKS && now - nextTick >= 0; i++) {
+                    tick();
+                    nextTick += tickNanos;
+                }
+                if (now - nextTick >= 0) nextTick = now; // Too far behind: drop the backlog
+                if (now - windowStart >= TimeUnit.SECONDS.toNanos(1)) {
+                    publishStats(now - windowStart);
+                    windowStart = now;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Arena server stopped: " + e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void tick() {
+        long start = threads.getCurrentThreadCpuTime();
+        world.step(1f / settings.tickRate);
+        frame.capture(world);
+        broadcast(world.getTick() % ticksPerSnapshot);
+        if (tickCount < tickCost.length) tickCost[tickCount] = threads.getCurrentThreadCpuTime() - start;
+        tickCount++;
+    }
+
+    // Each client gets its snapshot on the tick matching its id, so the encoding work of one snapshot interval is
+    // spread evenly over its ticks instead of landing on one
+    private void broadcast(int phase) {
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (!(attachment instanceof Session)) continue;
+            Session session = (Session) attachment;
+            if (session.encoder == null || session.actorId % ticksPerSnapshot != phase) continue;
+            if (session.out.position() > 0) {
+                skippedSnapshots++; // Previous data still queued: this client is at its bandwidth or slower
+                continue;
+            }
+            session.encoder.encode(frame, session.out, snapshotBudget);
+            snapshots++;
+            flush(session);
+        }
+    }
+
+    private void handleKeys() {
+        Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) continue;
+            if (key.isAcceptable()) {
+                accept();
+                continue;
+            }
+            Session session = (Session) key.attachment();
+            if (key.isReadable()) read(session);
+            if (key.isValid() && key.isWritable()) flush(session);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) return;
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Session session = new Session(channel);
+            session.key = channel.register(selector, SelectionKey.OP_READ, session);
+        } catch (IOException e) {
+            System.err.println("Accept failed: " + e);
+        }
+    }
+
+    private void read(Session session) {
+        try {
+            if (session.channel.read(session.in) < 0) {
+                close(session);
+                return;
+            }
+            ByteBuffer in = session.in;
+            in.flip();
+            while (in.remaining() >= ArenaProtocol.LENGTH_BYTES) {
+                int length = in.getShort(in.position()) & 0xFFFF;
+                if (length == 0 || length > READ_BUFFER_BYTES - ArenaProtocol.LENGTH_BYTES) {
+                    throw new IOException("Bad frame length " + length);
+                }
+                if (in.remaining() < ArenaProtocol.LENGTH_BYTES + length) break;
+                int end = in.position() + ArenaProtocol.LENGTH_BYTES + length;
+                in.position(in.position() + ArenaProtocol.LENGTH_BYTES);
+                handleFrame(session, in, length);
+                in.position(end); // Ignore trailing bytes, e.g. fields added by a newer client
+            }
+            in.compact();
+        } catch (IOException | RuntimeException e) {
+            close(session);
+        }
+    }
+
+    // length counts the type byte and the body; a body shorter than the type needs closes the connection
+    private void handleFrame(Session session, ByteBuffer in, int length) throws IOException {
+        int type = in.get() & 0xFF;
+        switch (type) {
+            case ArenaProtocol.HELLO:
+                requireBody(type, length, 1);
+                if (session.encoder != null) return;
+                int role = in.get() & 0xFF;
+                if (world.getActiveCount() >= MAX_ACTORS) throw new IOException("Arena full");
+                ArenaWorld.Actor actor = world.join(role == ArenaProtocol.ROLE_GHOST ? ArenaWorld.Role.GHOST : ArenaWorld.Role.PACMAN);
+                session.actorId = actor.getId();
+                session.encoder = new DeltaEncoder(actor.getId());
+                welcome(session);
+                break;
+            case ArenaProtocol.INPUT:
+                requireBody(type, length, 1);
+                if (session.encoder != null) world.setInput(session.actorId, in.get());
+                break;
+            default:
+                throw new IOException("Unknown frame type " + type);
+        }
+    }
+
+    private static void requireBody(int type, int length, int bodyBytes) throws IOException {
+        if (length - 1 < bodyBytes) {
+            throw new IOException("Frame type " + type + " needs " + bodyBytes + " body bytes, got " + (length - 1));
+        }
+    }
+
+    private void welcome(Session session) {
+        ByteBuffer out = session.out;
+        int start = ArenaProtocol.beginFrame(out, ArenaProtocol.WELCOME);
+        out.putShort((short) session.actorId);
+        out.putShort((short) settings.maze.getNumCols());
+        out.putShort((short) settings.maze.getNumRows());
+        out.put((byte) settings.tickRate);
+        out.put((byte) (settings.tickRate / ticksPerSnapshot));
+        ArenaProtocol.endFrame(out, start);
+        flush(session);
+    }
+
+    // Writes as much of the send buffer as the socket takes; the rest waits for OP_WRITE
+    private void flush(Session session) {
+        ByteBuffer out = session.out;
+        out.flip();
+        try {
+            bytesOut += session.channel.write(out);
+        } catch (IOException e) {
+            out.clear();
+            close(session);
+            return;
+        }
+        out.compact();
+        if (session.key.isValid()) {
+            session.key.interestOps(out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+    }
+
+    private void close(Session session) {
+        if (session.encoder != null) {
+            world.leave(session.actorId);
+            session.encoder = null;
+        }
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    private void closeAll() {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Session) close((Session) key.attachment());
+        }
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+            // Shutting down anyway
+        }
+    }
+
+    private void publishStats(long windowNanos) {
+        int measured = Math.min(tickCount, tickCost.length);
+        double mean = 0, p99 = 0, max = 0;
+        if (measured > 0) {
+            Arrays.sort(tickCost, 0, measured);
+            long total = 0;
+            for (int i = 0; i < measured; i++) total += tickCost[i];
+            mean = total / 1000.0 / measured;
+            p99 = tickCost[Math.min(measured - 1, (int) Math.ceil(measured * 0.99) - 1)] / 1000.0;
+            max = tickCost[measured - 1] / 1000.0;
+        }
+        int players = 0, ghostPlayers = 0;
+        for (int id = 0; id < world.getCapacity(); id++) {
+            ArenaWorld.Actor actor = world.getActor(id);
+            if (!actor.isActive() || actor.isAi()) continue;
+            players++;
+            if (actor.getRole() == ArenaWorld.Role.GHOST) ghostPlayers++;
+        }
+        long cpu = threads.getCurrentThreadCpuTime();
+        double busy = (cpu - windowCpuStart) / (double) windowNanos;
+        stats = new Stats(players, ghostPlayers, tickCount, mean, p99, max, busy, bytesOut, snapshots, skippedSnapshots);
+        statsSequence++;
+        tickCount = 0;
+        windowCpuStart = cpu;
+        bytesOut = 0;
+        snapshots = 0;
+        skippedSnapshots = 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Settings settings = new Settings();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) usage("Expected --option value, got " + args[i]);
+            try {
+                if (!parseOption(settings, args[i].substring(2), args[++i])) usage("Unknown option " + args[i - 1]);
+            } catch (IllegalArgumentException e) {
+                usage(e.getMessage());
+            }
+        }
+        ArenaServer server;
+        try {
+            server = new ArenaServer(settings);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage()); // A --snapshotRate above --tickRate, or a maze too large for the wire format
+            return;
+        }
+        server.start();
+        System.err.printf(Locale.ROOT, "Arena server on port %d: %d Hz ticks, %d Hz snapshots, %d B/s per client%n",
+            server.getAddress().getPort(), settings.tickRate, settings.tickRate / server.ticksPerSnapshot,
+            settings.bytesPerSecond);
+        long seen = 0;
+        while (server.thread.isAlive()) {
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (server.getStatsSequence() != seen) {
+                seen = server.getStatsSequence();
+                System.err.println(server.getStats());
+            }
+        }
+    }
+
+    /**
+     * Applies one server option; false if {@code name} is not one. Shared with {@link ArenaLoadTest}. Throws
+     * {@link IllegalArgumentException} for a value that is not a number or is out of range. Whether the snapshot rate
+     * fits the tick rate is only known once both are set, so the constructor checks that, as well as whether the
+     * maze fits the wire format.
+     */
+    static boolean parseOption(Settings settings, String name, String value) throws IOException {
+        switch (name) {
+            case "port": settings.port = parseInt(name, value, 0, 0xFFFF); break;
+            case "maze": settings.maze = loadMaze(value); break;
+            case "tickRate": settings.tickRate = parseInt(name, value, 1, MAX_TICK_RATE); break;
+            case "snapshotRate": settings.snapshotRate = parseInt(name, value, 1, MAX_TICK_RATE); break;
+            case "bytesPerSecond": settings.bytesPerSecond = parseInt(name, value, 1, Integer.MAX_VALUE); break;
+            case "ghosts": settings.ghosts = parseInt(name, value, 0, MAX_ACTORS); break;
+            case "seed": settings.seed = Long.parseLong(value); break;
+            default: return false;
+        }
+        return true;
+    }
+
+    static int parseInt(String name, String value, int min, int max) {
+        int parsed;
+        try {
+            parsed = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " must be a number, got " + value);
+        }
+        checkRange(name, parsed, min, max);
+        return parsed;
+    }
+
+    private static void checkMaze(Maze maze) {
+        long width = (long) Math.ceil(maze.getNumCols() * (double) maze.getTileSize());
+        long height = (long) Math.ceil(maze.getNumRows() * (double) maze.getTileSize());
+        if (width > MAX_PIXELS || height > MAX_PIXELS) {
+            throw new IllegalArgumentException("--maze must be at most " + MAX_PIXELS + " pixels per side, got "
+                + width + " x " + height + " (" + maze.getNumCols() + " x " + maze.getNumRows() + " tiles)");
+        }
+        long tiles = (long) maze.getNumCols() * maze.getNumRows();
+        if (tiles > MAX_TILES) {
+            throw new IllegalArgumentException("--maze must have at most " + MAX_TILES + " tiles, got " + tiles);
+        }
+    }
+
+    static void checkRange(String name, int value, int min, int max) {
+        if (value < min || value > max) {
+            throw new IllegalArgumentException(
+                "--" + name + " must be between " + min + " and " + max + ", got " + value);
+        }
+    }
+
+    private static Maze loadMaze(String path) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)) {
+            return Maze.load(reader);
+        }
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: ArenaServer [--port N] [--maze FILE] [--tickRate N] [--snapshotRate N]"
+            + " [--bytesPerSecond N] [--ghosts N] [--seed N]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,194 @@
+package pacman.com.server;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator for {@link ArenaServer}: many bot players on one thread and one {@link Selector}. Each bot sends a
+ * HELLO, then a random direction every {@link #INPUT_INTERVAL_MS} ms or so, and decodes every snapshot into its own
+ * {@link ArenaMirror}, like a real client would. Counters are written by the bot thread only and read by others.
+ */
+final class BotClients implements Runnable {
+    private static final int INPUT_INTERVAL_MS = 250;
+    private static final int RECEIVE_BUFFER_BYTES = ArenaProtocol.MAX_FRAME_BYTES;
+
+    private static final class Bot {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(RECEIVE_BUFFER_BYTES);
+        final ByteBuffer out = ByteBuffer.allocate(16);
+        final ArenaMirror mirror = new ArenaMirror();
+        long nextInputNanos;
+
+        Bot(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private final InetSocketAddress server;
+    private final Random random;
+    private final Selector selector;
+    private final ConcurrentLinkedQueue<Integer> pendingRoles = new ConcurrentLinkedQueue<>();
+    private final List<Bot> bots = new ArrayList<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private volatile int connected;
+    private volatile long bytesIn;
+    private volatile long snapshotsIn;
+    private volatile long errors;
+    private volatile String lastError;
+
+    BotClients(InetSocketAddress server, long seed, String name) throws IOException {
+        this.server = server;
+        this.random = new Random(seed);
+        this.selector = Selector.open();
+        thread = new Thread(this, name);
+        thread.setDaemon(true);
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Connects one more bot from the bot thread; {@code role} is {@link ArenaProtocol#ROLE_PACMAN} or ghost. */
+    void add(int role) {
+        pendingRoles.add(role);
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                connectPending();
+                selector.select(10);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isReadable()) read(key, (Bot) key.attachment());
+                }
+                sendInputs();
+            }
+        } catch (IOException e) {
+            fail(e);
+        } finally {
+            for (Bot bot : bots) {
+                try {
+                    bot.channel.close();
+                } catch (IOException ignored) {
+                    // Closing anyway
+                }
+            }
+        }
+    }
+
+    private void connectPending() throws IOException {
+        for (Integer role = pendingRoles.poll(); role != null; role = pendingRoles.poll()) {
+            // Loopback connects immediately, so a blocking connect keeps the bot simple
+            SocketChannel channel = SocketChannel.open(server);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            Bot bot = new Bot(channel);
+            bots.add(bot);
+            channel.register(selector, SelectionKey.OP_READ, bot);
+            int start = ArenaProtocol.beginFrame(bot.out, ArenaProtocol.HELLO);
+            bot.out.put((byte) role.intValue());
+            ArenaProtocol.endFrame(bot.out, start);
+            send(bot);
+            bot.nextInputNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(random.nextInt(INPUT_INTERVAL_MS));
+            connected = bots.size();
+        }
+    }
+
+    private void sendInputs() {
+        long now = System.nanoTime();
+        for (int i = 0; i < bots.size(); i++) {
+            Bot bot = bots.get(i);
+            if (now - bot.nextInputNanos < 0 || !bot.channel.isOpen()) continue;
+            int start = ArenaProtocol.beginFrame(bot.out, ArenaProtocol.INPUT);
+            bot.out.put((byte) random.nextInt(4));
+            ArenaProtocol.endFrame(bot.out, start);
+            send(bot);
+            bot.nextInputNanos = now + TimeUnit.MILLISECONDS.toNanos(INPUT_INTERVAL_MS / 2 + random.nextInt(INPUT_INTERVAL_MS));
+        }
+    }
+
+    // Inputs are a few bytes, so a socket that does not take them at once is a broken connection
+    private void send(Bot bot) {
+        bot.out.flip();
+        try {
+            bot.channel.write(bot.out);
+            if (bot.out.hasRemaining()) throw new IOException("Send buffer full");
+        } catch (IOException e) {
+            fail(e);
+            closeQuietly(bot);
+        }
+        bot.out.clear();
+    }
+
+    private void read(SelectionKey key, Bot bot) {
+        try {
+            int read = bot.channel.read(bot.in);
+            if (read < 0) throw new IOException("Server closed the connection");
+            bytesIn += read;
+            ByteBuffer in = bot.in;
+            in.flip();
+            while (in.remaining() >= ArenaProtocol.LENGTH_BYTES) {
+                int length = in.getShort(in.position()) & 0xFFFF;
+                if (in.remaining() < ArenaProtocol.LENGTH_BYTES + length) break;
+                int end = in.position() + ArenaProtocol.LENGTH_BYTES + length;
+                ByteBuffer frame = in.duplicate();
+                frame.position(in.position() + ArenaProtocol.LENGTH_BYTES).limit(end);
+                bot.mirror.apply(frame);
+                if (in.get(in.position() + ArenaProtocol.LENGTH_BYTES) == ArenaProtocol.SNAPSHOT) snapshotsIn++;
+                in.position(end);
+            }
+            in.compact();
+        } catch (IOException | RuntimeException e) {
+            fail(e);
+            key.cancel();
+            closeQuietly(bot);
+        }
+    }
+
+    private void fail(Exception e) {
+        errors++;
+        lastError = e.toString();
+    }
+
+    private static void closeQuietly(Bot bot) {
+        try {
+            bot.channel.close();
+        } catch (IOException ignored) {
+            // Already failed
+        }
+    }
+
+    int getConnected() { return connected; }
+    long getBytesIn() { return bytesIn; }
+    long getSnapshotsIn() { return snapshotsIn; }
+    long getErrors() { return errors; }
+    String getLastError() { return lastError; }
+}
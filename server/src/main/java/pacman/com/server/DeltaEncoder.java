@@ -0,0 +1,171 @@
+package pacman.com.server;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import pacman.com.ArenaWorld;
+import pacman.com.DotGrid;
+
+/**
+ * Writes one client's {@link ArenaProtocol#SNAPSHOT} frames. It remembers what that client has already received
+ * (the baseline), so each snapshot only carries changed fields and newly eaten dots, and it never writes more than
+ * the byte budget it is given. Whatever does not fit stays different from the baseline and goes out in a later
+ * snapshot:
+ * <ul>
+ * <li>the client's own actor is always written first, so its own movement never lags;</li>
+ * <li>eaten dots may use up to half of the rest, the others go to actor updates;</li>
+ * <li>the other actors are visited from a rotating cursor, so under a tight budget every actor is eventually sent
+ * instead of the lowest ids every time.</li>
+ * </ul>
+ */
+final class DeltaEncoder {
+    private static final int UNSENT = -1;
+
+    private final int actorId;
+    // Baseline per actor id: values the client has received
+    private int[] sentX = new int[0];
+    private int[] sentY = new int[0];
+    private int[] sentState = new int[0];
+    private int[] sentScore = new int[0];
+    private int cursor;
+    private int dotGeneration = UNSENT;
+    private int dotsSent; // Entries of DotGrid.getEatenTiles() the client has received
+
+    /** Wire values of every actor at one tick, computed once per tick and shared by every client's encoder. */
+    static final class Frame {
+        private int tick;
+        private int capacity;
+        private int[] x = new int[0];
+        private int[] y = new int[0];
+        private int[] state = new int[0];
+        private int[] score = new int[0];
+        private DotGrid dots;
+
+        void capture(ArenaWorld world) {
+            tick = world.getTick();
+            capacity = world.getCapacity();
+            dots = world.getDots();
+            if (state.length < capacity) {
+                int size = Math.max(capacity, state.length * 2);
+                x = new int[size];
+                y = new int[size];
+                state = new int[size];
+                score = new int[size];
+            }
+            for (int id = 0; id < capacity; id++) {
+                ArenaWorld.Actor actor = world.getActor(id);
+                x[id] = ArenaProtocol.pixel(actor.getX());
+                y[id] = ArenaProtocol.pixel(actor.getY());
+                state[id] = ArenaProtocol.stateOf(actor);
+                score[id] = actor.getScore();
+            }
+        }
+    }
+
+    DeltaEncoder(int actorId) {
+        this.actorId = actorId;
+    }
+
+    /** Appends one snapshot of {@code frame} to {@code out}, at most {@code budget} bytes (at least the header). */
+    void encode(Frame frame, ByteBuffer out, int budget) {
+        ensureCapacity(frame.capacity);
+        DotGrid dots = frame.dots;
+        int flags = 0;
+        if (dots.getGeneration() != dotGeneration) {
+            dotGeneration = dots.getGeneration();
+            dotsSent = 0;
+            flags |= ArenaProtocol.FLAG_DOTS_RESET;
+        }
+
+        int start = ArenaProtocol.beginFrame(out, ArenaProtocol.SNAPSHOT);
+        out.putInt(frame.tick);
+        out.put((byte) flags);
+        int countAt = out.position();
+        out.putShort((short) 0);
+        int remaining = budget - ArenaProtocol.SNAPSHOT_HEADER_BYTES;
+
+        int entries = 0;
+        int own = write(frame, actorId, out, remaining);
+        if (own > 0) {
+            remaining -= own;
+            entries++;
+        }
+
+        IntArray eaten = dots.getEatenTiles();
+        int pendingDots = eaten.size - dotsSent;
+        int dotReserve = Math.min(pendingDots * ArenaProtocol.DOT_BYTES, Math.max(0, remaining / 2));
+        int actorBudget = remaining - dotReserve;
+        int capacity = frame.capacity;
+        int visited = 0;
+        for (; visited < capacity; visited++) {
+            int id = (cursor + visited) % capacity;
+            if (id == actorId) continue;
+            int mask = changes(frame, id);
+            if (mask == 0) continue;
+            int bytes = ArenaProtocol.entryBytes(mask);
+            if (bytes > actorBudget) break;
+            writeEntry(frame, id, mask, out);
+            actorBudget -= bytes;
+            remaining -= bytes;
+            entries++;
+        }
+        if (capacity > 0) cursor = (cursor + visited) % capacity;
+        out.putShort(countAt, (short) entries);
+
+        int dotCount = Math.min(pendingDots, Math.max(0, remaining / ArenaProtocol.DOT_BYTES));
+        out.putShort((short) dotCount);
+        for (int i = 0; i < dotCount; i++) ArenaProtocol.putMedium(out, eaten.get(dotsSent + i));
+        dotsSent += dotCount;
+        ArenaProtocol.endFrame(out, start);
+    }
+
+    // Writes the actor's entry if it changed and fits; returns the bytes written
+    private int write(Frame frame, int id, ByteBuffer out, int limit) {
+        int mask = changes(frame, id);
+        if (mask == 0 || ArenaProtocol.entryBytes(mask) > limit) return 0;
+        writeEntry(frame, id, mask, out);
+        return ArenaProtocol.entryBytes(mask);
+    }
+
+    private int changes(Frame frame, int id) {
+        int state = frame.state[id];
+        int mask = state != sentState[id] ? ArenaProtocol.FIELD_STATE : 0;
+        if (state == 0) return mask; // A free slot only needs to be reported inactive once
+        if (frame.x[id] != sentX[id] || frame.y[id] != sentY[id]) mask |= ArenaProtocol.FIELD_POSITION;
+        if (frame.score[id] != sentScore[id]) mask |= ArenaProtocol.FIELD_SCORE;
+        return mask;
+    }
+
+    private void writeEntry(Frame frame, int id, int mask, ByteBuffer out) {
+        out.putShort((short) id);
+        out.put((byte) mask);
+        if ((mask & ArenaProtocol.FIELD_POSITION) != 0) {
+            sentX[id] = frame.x[id];
+            sentY[id] = frame.y[id];
+            out.putShort((short) sentX[id]);
+            out.putShort((short) sentY[id]);
+        }
+        if ((mask & ArenaProtocol.FIELD_STATE) != 0) {
+            sentState[id] = frame.state[id];
+            out.put((byte) sentState[id]);
+        }
+        if ((mask & ArenaProtocol.FIELD_SCORE) != 0) {
+            sentScore[id] = frame.score[id];
+            out.putInt(sentScore[id]);
+        }
+    }
+
+    // New actor slots start unknown to the client: inactive, with a position and score that always differ
+    private void ensureCapacity(int capacity) {
+        int old = sentState.length;
+        if (old >= capacity) return;
+        int size = Math.max(capacity, old * 2);
+        sentX = Arrays.copyOf(sentX, size);
+        sentY = Arrays.copyOf(sentY, size);
+        sentState = Arrays.copyOf(sentState, size);
+        sentScore = Arrays.copyOf(sentScore, size);
+        Arrays.fill(sentX, old, size, UNSENT);
+        Arrays.fill(sentY, old, size, UNSENT);
+        Arrays.fill(sentScore, old, size, Integer.MIN_VALUE);
+    }
+}
@@ -0,0 +1,135 @@
+package pacman.com.server;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+import pacman.com.ArenaWorld;
+import pacman.com.GameConfig;
+import pacman.com.Maze;
+
+/**
+ * Encodes every tick of a busy {@link ArenaWorld} with a {@link DeltaEncoder} under a budget that fits only a few
+ * entries, decodes the frames with the bots' {@link ArenaMirror} and checks that every frame stays within the budget
+ * and that the mirror ends up matching the world once the world stands still.
+ */
+public class DeltaEncoderTest {
+    private static final String[] LAYOUT = {
+        "WWWWWWWWW",
+        "W...G...W",
+        "W.WW.WW.W",
+        "W...*...W",
+        "W.WW.WW.W",
+        "W...P...W",
+        "WWWWWWWWW",
+    };
+    private static final int TICK_RATE = 60;
+    // Header, the client's own actor with every field, and about one more entry or a few dots
+    private static final int BUDGET = ArenaProtocol.SNAPSHOT_HEADER_BYTES + ArenaProtocol.entryBytes(0xFF) + 16;
+
+    private final ByteBuffer out = ByteBuffer.allocate(ArenaProtocol.MAX_FRAME_BYTES);
+    private final ArenaMirror mirror = new ArenaMirror();
+
+    @Test
+    public void mirrorCatchesUpUnderTightBudget() throws IOException {
+        Maze maze = new Maze();
+        maze.setLayout(LAYOUT);
+        ArenaWorld world = new ArenaWorld(maze, new GameConfig(), 1, 1);
+        Random random = new Random(7);
+        IntArray players = new IntArray();
+        for (int i = 0; i < 12; i++) {
+            players.add(world.join(i == 3 ? ArenaWorld.Role.GHOST : ArenaWorld.Role.PACMAN).getId());
+        }
+        int client = players.get(1);
+        DeltaEncoder encoder = new DeltaEncoder(client);
+        DeltaEncoder.Frame frame = new DeltaEncoder.Frame();
+        welcome(client, maze);
+
+        // Until the dots have been refilled twice, so FLAG_DOTS_RESET is sent mid-game as well
+        for (int tick = 0; world.getRound() < 2 && tick < 300 * TICK_RATE; tick++) {
+            for (int i = 0; i < players.size; i++) {
+                if (random.nextInt(15) == 0) world.setInput(players.get(i), random.nextInt(4)); // RailGraph direction
+            }
+            if (tick % 20 == 0) {
+                // A player leaves and the next one to join takes over its slot, possibly in the other role
+                int index = 2 + random.nextInt(players.size - 2);
+                world.leave(players.get(index));
+                if (random.nextBoolean()) send(encoder, frame, step(world, 1f / TICK_RATE));
+                ArenaWorld.Role role = random.nextInt(4) == 0 ? ArenaWorld.Role.GHOST : ArenaWorld.Role.PACMAN;
+                int id = world.join(role).getId();
+                assertEquals("slot reused", players.get(index), id);
+            }
+            send(encoder, frame, step(world, 1f / TICK_RATE));
+        }
+        assertEquals("rounds played", 2, world.getRound());
+        // Every actor was received at least once while all of them kept moving: the cursor rotates
+        for (int id = 0; id < world.getCapacity(); id++) {
+            assertTrue("actor " + id + " was never sent", id < mirror.getCapacity() && mirror.getState(id) != 0);
+        }
+
+        // A slot that stays free must reach the client as inactive
+        world.leave(players.get(players.size - 1));
+
+        // A world that stands still (zero steps still advance the tick) lets the pending deltas drain
+        for (int i = 0; i < 1000; i++) send(encoder, frame, step(world, 0));
+        assertMatches(world);
+        send(encoder, frame, step(world, 0));
+        assertEquals("nothing left to send", ArenaProtocol.SNAPSHOT_HEADER_BYTES, out.position());
+    }
+
+    private static ArenaWorld step(ArenaWorld world, float delta) {
+        world.step(delta);
+        return world;
+    }
+
+    private void welcome(int client, Maze maze) throws IOException {
+        out.clear();
+        int start = ArenaProtocol.beginFrame(out, ArenaProtocol.WELCOME);
+        out.putShort((short) client);
+        out.putShort((short) maze.getNumCols());
+        out.putShort((short) maze.getNumRows());
+        out.put((byte) TICK_RATE);
+        out.put((byte) TICK_RATE);
+        ArenaProtocol.endFrame(out, start);
+        decode();
+    }
+
+    private void send(DeltaEncoder encoder, DeltaEncoder.Frame frame, ArenaWorld world) throws IOException {
+        out.clear();
+        frame.capture(world);
+        encoder.encode(frame, out, BUDGET);
+        assertTrue("frame of " + out.position() + " bytes over the budget", out.position() <= BUDGET);
+        decode();
+    }
+
+    // Applies the frame written to out, without its length field, and leaves out positioned after it
+    private void decode() throws IOException {
+        int end = out.position();
+        ByteBuffer body = out.duplicate();
+        body.flip();
+        int length = body.getShort() & 0xFFFF;
+        assertEquals("length field", end - ArenaProtocol.LENGTH_BYTES, length);
+        mirror.apply(body.slice());
+    }
+
+    private void assertMatches(ArenaWorld world) {
+        for (int id = 0; id < world.getCapacity(); id++) {
+            ArenaWorld.Actor actor = world.getActor(id);
+            int state = ArenaProtocol.stateOf(actor);
+            assertEquals("state of " + id, state, mirror.getState(id));
+            if (state == 0) continue;
+            assertEquals("x of " + id, ArenaProtocol.pixel(actor.getX()), mirror.getX(id));
+            assertEquals("y of " + id, ArenaProtocol.pixel(actor.getY()), mirror.getY(id));
+            assertEquals("score of " + id, actor.getScore(), mirror.getScore(id));
+        }
+        IntArray eaten = world.getDots().getEatenTiles();
+        assertEquals("eaten dots", eaten.size, mirror.getEatenCount());
+        for (int i = 0; i < eaten.size; i++) assertTrue("tile " + eaten.get(i), mirror.isEaten(eaten.get(i)));
+        assertEquals("rounds, counting the first fill", world.getRound() + 1, mirror.getRounds());
+        assertEquals("tick", world.getTick(), mirror.getTick());
+    }
+}
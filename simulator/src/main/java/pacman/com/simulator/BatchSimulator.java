@@ -0,0 +1,186 @@
+package pacman.com.simulator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import pacman.com.FixedTimestep;
+import pacman.com.GameConfig;
+import pacman.com.GhostType;
+import pacman.com.Maze;
+
+/**
+ * Headless batch runner for balancing: plays many complete games with {@link pacman.com.PacmanBot} for every
+ * point of a parameter grid on a fork/join pool and prints one CSV row per grid point to stdout.
+ *
+ * <pre>
+ * simulator:run --args="--games 5000 --speed 1.0,1.1,1.2 --range.red 6,8 --cherry 0.2,0.35"
+ * </pre>
+ *
+ * Options (every parameter takes a comma-separated list; the grid is their Cartesian product):
+ * <ul>
+ * <li>{@code --games N} games per grid point (default 1000)</li>
+ * <li>{@code --threads N} worker threads (default: all available processors)</li>
+ * <li>{@code --seed N} base seed; game i uses the same seed at every grid point (default 1)</li>
+ * <li>{@code --maze FILE} maze file to play on instead of the classic maze (see {@link Maze})</li>
+ * <li>{@code --max-time S} game-time cap in seconds before a game counts as a timeout (default 600)</li>
+ * <li>{@code --speed}, {@code --speed.<type>} ghost speed multiplier for all ghosts / one {@link GhostType}</li>
+ * <li>{@code --range}, {@code --range.<type>} ghost detection range in tiles</li>
+ * <li>{@code --cherry}, {@code --cherry2} power-up spawn chances; power food gets the remainder</li>
+ * <li>{@code --swarm} number of {@link pacman.com.GhostSwarm} ghosts replacing the classic four (0 = classic)</li>
+ * </ul>
+ * Parameters are applied in command-line order, so {@code --speed 1.1 --speed.orange 1.0} overrides one ghost.
+ */
+public class BatchSimulator {
+    private static final int TOP_DEATH_TILES = 5;
+
+    /** One axis of the parameter grid. */
+    private static final class Dimension {
+        final String name;
+        final float[] values;
+
+        Dimension(String name, float[] values) {
+            this.name = name;
+            this.values = values;
+        }
+
+        void apply(GameConfig config, float value) {
+            String base = name;
+            GhostType type = null;
+            int dot = name.indexOf('.');
+            if (dot >= 0) {
+                base = name.substring(0, dot);
+                type = GhostType.valueOf(name.substring(dot + 1).toUpperCase(Locale.ROOT));
+            }
+            switch (base) {
+                case "speed":
+                    for (GhostType t : GhostType.values()) {
+                        if (type == null || t == type) config.setGhostSpeedMultiplier(t, value);
+                    }
+                    break;
+                case "range":
+                    for (GhostType t : GhostType.values()) {
+                        if (type == null || t == type) config.setDetectionRangeTiles(t, value);
+                    }
+                    break;
+                case "cherry":
+                    config.setPowerUpChances(value, config.getCherry2Chance());
+                    break;
+                case "cherry2":
+                    config.setPowerUpChances(config.getCherryChance(), value);
+                    break;
+                case "swarm":
+                    config.setSwarmSize((int) value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown parameter --" + name);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int games = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        float maxGameSeconds = 600f;
+        Maze maze = new Maze();
+        List<Dimension> dimensions = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--") || i + 1 >= args.length) {
+                usage("Expected --option value, got " + arg);
+                return;
+            }
+            String name = arg.substring(2);
+            String value = args[++i];
+            switch (name) {
+                case "games": games = Integer.parseInt(value); break;
+                case "threads": threads = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                case "max-time": maxGameSeconds = Float.parseFloat(value); break;
+                case "maze": maze = ReplayPlayer.loadMaze(value); break;
+                default:
+                    Dimension dimension = new Dimension(name, parseList(value));
+                    try {
+                        dimension.apply(new GameConfig(), dimension.values[0]); // Validate name early
+                    } catch (IllegalArgumentException e) {
+                        usage(e.getMessage());
+                        return;
+                    }
+                    dimensions.add(dimension);
+            }
+        }
+
+        List<GameConfig> grid = new ArrayList<>();
+        List<float[]> gridValues = new ArrayList<>();
+        buildGrid(dimensions, 0, new GameConfig(), new float[dimensions.size()], grid, gridValues);
+
+        SimulationTask.Settings settings = new SimulationTask.Settings(maze, 1f / FixedTimestep.DEFAULT_HZ, maxGameSeconds);
+
+        System.err.printf(Locale.ROOT, "Simulating %d grid point(s) x %d games on %d threads%n",
+            grid.size(), games, threads);
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            // Submit every grid point up front so the pool never idles waiting for the slowest game of one point
+            List<ForkJoinTask<SimulationStats>> results = new ArrayList<>();
+            for (GameConfig config : grid) {
+                results.add(pool.submit(new SimulationTask(config, seed, 0, games, settings)));
+            }
+
+            StringBuilder header = new StringBuilder();
+            for (Dimension dimension : dimensions) header.append(dimension.name).append(',');
+            header.append("games,win_rate,timeouts,mean_score,mean_game_time_s,mean_first_death_s,deaths_per_game,top_death_tiles");
+            System.out.println(header);
+            for (int i = 0; i < grid.size(); i++) {
+                SimulationStats stats = results.get(i).join();
+                StringBuilder row = new StringBuilder();
+                for (float value : gridValues.get(i)) row.append(value).append(',');
+                row.append(String.format(Locale.ROOT, "%d,%.4f,%d,%.1f,%.2f,%.2f,%.3f,%s",
+                    stats.games, stats.winRate(), stats.timeouts, stats.meanScore(), stats.meanGameTime(),
+                    stats.meanFirstDeathTime(), stats.deathsPerGame(), stats.topDeathTiles(TOP_DEATH_TILES)));
+                System.out.println(row);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf(Locale.ROOT, "%d games in %.1f s (%.1f games/s)%n",
+            (long) grid.size() * games, seconds, grid.size() * games / seconds);
+    }
+
+    private static void buildGrid(List<Dimension> dimensions, int index, GameConfig current, float[] values,
+                                  List<GameConfig> grid, List<float[]> gridValues) {
+        if (index == dimensions.size()) {
+            grid.add(current);
+            gridValues.add(values.clone());
+            return;
+        }
+        Dimension dimension = dimensions.get(index);
+        for (float value : dimension.values) {
+            GameConfig config = current.copy();
+            dimension.apply(config, value);
+            values[index] = value;
+            buildGrid(dimensions, index + 1, config, values, grid, gridValues);
+        }
+    }
+
+    private static float[] parseList(String list) {
+        String[] parts = list.split(",");
+        float[] values = new float[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Float.parseFloat(parts[i].trim());
+        }
+        return values;
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: BatchSimulator [--games N] [--threads N] [--seed N] [--max-time S]"
+            + " [--maze FILE] [--speed|--speed.<type> a,b,..] [--range|--range.<type> a,b,..] [--cherry a,b,..] [--cherry2 a,b,..] [--swarm a,b,..]");
+        System.exit(2);
+    }
+}
@@ -0,0 +1,80 @@
+package pacman.com.simulator;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import pacman.com.GameWorld;
+import pacman.com.InputFrame;
+import pacman.com.Maze;
+import pacman.com.ReplayReader;
+
+/**
+ * Plays a replay file headless at full speed, e.g. to reproduce a bug report or to check determinism.
+ *
+ * <pre>
+ * ReplayPlayer pacman-last.replay [--seek SECONDS] [--verify] [--maze FILE]
+ * </pre>
+ *
+ * {@code --seek} jumps to a point via the nearest keyframe before playing the rest; {@code --verify}
+ * re-simulates the whole file and compares the world against every stored keyframe (exit code 1 on mismatch).
+ * Replays do not contain the maze, so sessions played on a custom maze need the same {@code --maze} file.
+ */
+public class ReplayPlayer {
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayPlayer <file> [--seek SECONDS] [--verify] [--maze FILE]");
+            System.exit(2);
+        }
+        File file = new File(args[0]);
+        float seekSeconds = 0;
+        boolean verify = false;
+        Maze maze = new Maze();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--verify")) verify = true;
+            else if (args[i].equals("--seek") && i + 1 < args.length) seekSeconds = Float.parseFloat(args[++i]);
+            else if (args[i].equals("--maze") && i + 1 < args.length) maze = loadMaze(args[++i]);
+            else {
+                System.err.println("Unknown option " + args[i]);
+                System.exit(2);
+            }
+        }
+
+        ReplayReader replay = new ReplayReader(file);
+        System.out.printf(Locale.ROOT, "%s: seed %d, %d Hz, %d ticks (%.1f s), %d bytes%n", file, replay.getSeed(),
+            replay.getStepsPerSecond(), replay.getEndTick(), replay.getEndTick() * replay.getStepSeconds(), file.length());
+
+        if (verify) {
+            long start = System.nanoTime();
+            int mismatch = replay.verify(maze);
+            double ms = (System.nanoTime() - start) / 1e6;
+            if (mismatch >= 0) {
+                System.out.printf(Locale.ROOT, "DIVERGED at keyframe tick %d (%.1f ms)%n", mismatch, ms);
+                System.exit(1);
+            }
+            System.out.printf(Locale.ROOT, "Deterministic: every keyframe matches (%.1f ms)%n", ms);
+        }
+
+        GameWorld world = replay.createWorld(maze);
+        long start = System.nanoTime();
+        replay.seek(world, Math.round(seekSeconds * replay.getStepsPerSecond()));
+        double seekMs = (System.nanoTime() - start) / 1e6;
+        InputFrame input = new InputFrame();
+        start = System.nanoTime();
+        while (replay.next(input)) {
+            world.step(replay.getStepSeconds(), input);
+        }
+        double playMs = (System.nanoTime() - start) / 1e6;
+        System.out.printf(Locale.ROOT, "Seek %.1f ms, played to tick %d in %.1f ms: state %s, score %d, lives %d, game time %.1f s%n",
+            seekMs, world.getTick(), playMs, world.getState(), world.getScore(), world.getLives(), world.getGameTime());
+    }
+
+    static Maze loadMaze(String path) throws IOException {
+        try (Reader reader = new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8)) {
+            return Maze.load(reader);
+        }
+    }
+}
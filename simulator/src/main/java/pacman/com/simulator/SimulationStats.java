@@ -0,0 +1,82 @@
+package pacman.com.simulator;
+
+/**
+ * Aggregated results of a range of simulated games. Each fork/join leaf fills its own instance and the
+ * results are merged on the way back up, so worker threads never write to shared state.
+ */
+final class SimulationStats {
+    private final int numCols;
+    private final int[] deathsPerTile; // [tileY * numCols + tileX], tileY counted from the bottom like Maze
+
+    int games;
+    int wins;
+    int timeouts;
+    int deaths;
+    long totalScore;
+    double totalGameTime;
+    double totalFirstDeathTime; // Only over games that had at least one death
+    int gamesWithDeath;
+
+    SimulationStats(int numCols, int numRows) {
+        this.numCols = numCols;
+        this.deathsPerTile = new int[numCols * numRows];
+    }
+
+    void recordDeath(int tileX, int tileY) {
+        deaths++;
+        int tile = tileY * numCols + tileX;
+        if (tile >= 0 && tile < deathsPerTile.length) deathsPerTile[tile]++;
+    }
+
+    SimulationStats merge(SimulationStats other) {
+        games += other.games;
+        wins += other.wins;
+        timeouts += other.timeouts;
+        deaths += other.deaths;
+        totalScore += other.totalScore;
+        totalGameTime += other.totalGameTime;
+        totalFirstDeathTime += other.totalFirstDeathTime;
+        gamesWithDeath += other.gamesWithDeath;
+        for (int i = 0; i < deathsPerTile.length; i++) {
+            deathsPerTile[i] += other.deathsPerTile[i];
+        }
+        return this;
+    }
+
+    double winRate() {
+        return games == 0 ? 0 : (double) wins / games;
+    }
+
+    double meanScore() {
+        return games == 0 ? 0 : (double) totalScore / games;
+    }
+
+    double meanGameTime() {
+        return games == 0 ? 0 : totalGameTime / games;
+    }
+
+    double meanFirstDeathTime() {
+        return gamesWithDeath == 0 ? 0 : totalFirstDeathTime / gamesWithDeath;
+    }
+
+    double deathsPerGame() {
+        return games == 0 ? 0 : (double) deaths / games;
+    }
+
+    /** The {@code limit} tiles with the most deaths as {@code x:y=count} separated by spaces, most first. */
+    String topDeathTiles(int limit) {
+        int[] counts = deathsPerTile.clone();
+        StringBuilder out = new StringBuilder();
+        for (int n = 0; n < limit; n++) {
+            int best = -1;
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] > 0 && (best < 0 || counts[i] > counts[best])) best = i;
+            }
+            if (best < 0) break;
+            if (out.length() > 0) out.append(' ');
+            out.append(best % numCols).append(':').append(best / numCols).append('=').append(counts[best]);
+            counts[best] = 0;
+        }
+        return out.toString();
+    }
+}
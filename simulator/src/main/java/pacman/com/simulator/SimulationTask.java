@@ -0,0 +1,115 @@
+package pacman.com.simulator;
+
+import java.util.concurrent.RecursiveTask;
+import pacman.com.GameConfig;
+import pacman.com.GameState;
+import pacman.com.GameWorld;
+import pacman.com.InputFrame;
+import pacman.com.Maze;
+import pacman.com.Pacman;
+import pacman.com.PacmanBot;
+
+/**
+ * Plays games {@code [from, to)} of one grid point. Ranges are split in half until a single game is left,
+ * so the pool's work stealing keeps every core busy even though game lengths vary a lot.
+ * Each game gets its own GameWorld, bot and seed; nothing is shared between games except the read-only config.
+ */
+@SuppressWarnings("serial") // Only ever run in a ForkJoinPool, never serialized (GameConfig and Maze are not Serializable)
+final class SimulationTask extends RecursiveTask<SimulationStats> {
+    private final GameConfig config;
+    private final long baseSeed;
+    private final int from;
+    private final int to;
+    private final Settings settings;
+
+    /** Run settings shared by every task of a sweep (read-only; the maze is never modified while playing). */
+    static final class Settings {
+        final Maze maze;
+        final int numCols;
+        final int numRows;
+        final float stepSeconds;
+        final float maxGameSeconds;
+
+        Settings(Maze maze, float stepSeconds, float maxGameSeconds) {
+            this.maze = maze;
+            this.numCols = maze.getNumCols();
+            this.numRows = maze.getNumRows();
+            this.stepSeconds = stepSeconds;
+            this.maxGameSeconds = maxGameSeconds;
+        }
+    }
+
+    SimulationTask(GameConfig config, long baseSeed, int from, int to, Settings settings) {
+        this.config = config;
+        this.baseSeed = baseSeed;
+        this.from = from;
+        this.to = to;
+        this.settings = settings;
+    }
+
+    @Override
+    protected SimulationStats compute() {
+        if (to - from <= 1) {
+            SimulationStats stats = new SimulationStats(settings.numCols, settings.numRows);
+            for (int game = from; game < to; game++) {
+                playGame(seedFor(baseSeed, game), stats);
+            }
+            return stats;
+        }
+        int middle = (from + to) >>> 1;
+        SimulationTask left = new SimulationTask(config, baseSeed, from, middle, settings);
+        SimulationTask right = new SimulationTask(config, baseSeed, middle, to, settings);
+        left.fork();
+        return right.compute().merge(left.join());
+    }
+
+    /**
+     * Game {@code index} uses the same seed at every grid point, so configurations are compared on the
+     * same sequence of games (common random numbers) and a single game can be replayed from its index.
+     */
+    static long seedFor(long baseSeed, int index) {
+        // SplitMix64 finalizer: neighbouring indices give unrelated seeds
+        long z = baseSeed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void playGame(long seed, final SimulationStats stats) {
+        final GameWorld world = new GameWorld(config, seed, settings.maze);
+        final float tileSize = world.getMaze().getTileSize();
+        final boolean[] died = new boolean[1];
+        world.setListener(new GameWorld.Listener() {
+            @Override public void onGameStarted() { }
+            @Override public void onPacmanDied() {
+                Pacman pacman = world.getPacman();
+                stats.recordDeath((int) Math.floor(pacman.getCenter().x / tileSize),
+                    (int) Math.floor(pacman.getCenter().y / tileSize));
+                if (!died[0]) {
+                    died[0] = true;
+                    stats.gamesWithDeath++;
+                    stats.totalFirstDeathTime += world.getGameTime();
+                }
+            }
+            @Override public void onPowerFoodEaten() { }
+            @Override public void onPowerFoodExpired() { }
+            @Override public void onRestart() { }
+        });
+
+        PacmanBot bot = new PacmanBot();
+        InputFrame input = new InputFrame();
+        world.step(settings.stepSeconds, input.clear().setStartPressed(true));
+        while (world.getState() != GameState.GAME_OVER && world.getState() != GameState.GAME_WON
+            && world.getGameTime() < settings.maxGameSeconds) {
+            input.clear();
+            if (world.getState() == GameState.PLAYING) bot.decide(world, input);
+            world.step(settings.stepSeconds, input);
+        }
+
+        stats.games++;
+        if (world.getState() == GameState.GAME_WON) stats.wins++;
+        else if (world.getState() != GameState.GAME_OVER) stats.timeouts++;
+        stats.totalScore += world.getScore();
+        stats.totalGameTime += world.getGameTime();
+    }
+}